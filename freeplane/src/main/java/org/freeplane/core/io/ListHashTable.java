@@ -25,6 +25,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 public class ListHashTable<K, V> {
 	/**
@@ -71,6 +72,10 @@ public class ListHashTable<K, V> {
 		return elementsForTag.listIterator();
 	}
 
+	public Set<K> keySet() {
+		return table.keySet();
+	}
+
 	public List<V> list(final K tag) {
 		return table.get(tag);
 	}
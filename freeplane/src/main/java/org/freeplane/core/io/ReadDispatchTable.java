@@ -0,0 +1,50 @@
+package org.freeplane.core.io;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Immutable snapshot of the element and attribute handlers registered at {@link ReadManager}.
+ * It is resolved once and used for all elements and attributes read afterwards,
+ * so that parsing does not go through synchronized hash tables and linked lists.
+ */
+public class ReadDispatchTable {
+	private static final IElementHandler[] NO_ELEMENT_HANDLERS = new IElementHandler[0];
+	private final Map<String, Map<String, IAttributeHandler>> attributeHandlers;
+	private final Map<String, IElementHandler[]> elementHandlers;
+
+	ReadDispatchTable(final Map<String, ? extends Map<String, IAttributeHandler>> attributeHandlers,
+	                  final ListHashTable<String, IElementHandler> elementHandlers) {
+		this.attributeHandlers = new HashMap<String, Map<String, IAttributeHandler>>();
+		for (final Entry<String, ? extends Map<String, IAttributeHandler>> entry : attributeHandlers.entrySet()) {
+			final Map<String, IAttributeHandler> tagHandlers = entry.getValue();
+			if (!tagHandlers.isEmpty())
+				this.attributeHandlers.put(entry.getKey(),
+				    Collections.unmodifiableMap(new HashMap<String, IAttributeHandler>(tagHandlers)));
+		}
+		this.elementHandlers = new HashMap<String, IElementHandler[]>();
+		for (final String tag : elementHandlers.keySet()) {
+			final List<IElementHandler> tagHandlers = elementHandlers.list(tag);
+			if (!tagHandlers.isEmpty())
+				this.elementHandlers.put(tag, tagHandlers.toArray(NO_ELEMENT_HANDLERS));
+		}
+	}
+
+	/**
+	 * @return attribute handlers registered for given tag or null
+	 */
+	public Map<String, IAttributeHandler> getAttributeHandlers(final String tag) {
+		return attributeHandlers.get(tag);
+	}
+
+	/**
+	 * @return element handlers registered for given tag, never null
+	 */
+	public IElementHandler[] getElementHandlers(final String tag) {
+		final IElementHandler[] handlers = elementHandlers.get(tag);
+		return handlers != null ? handlers : NO_ELEMENT_HANDLERS;
+	}
+}
@@ -31,6 +31,7 @@ public class ReadManager {
 	final private Hashtable<String, Hashtable<String, IAttributeHandler>> attributeHandlers;
 	final private ListHashTable<String, IElementHandler> elementHandlers;
 	final private Collection<IReadCompletionListener> readCompletionListeners;
+	private ReadDispatchTable dispatchTable;
 
 	public ReadManager() {
 		super();
@@ -53,6 +54,7 @@ public class ReadManager {
 		if (null != tagHandlers.put(attributeName, a)) {
 			throw new RuntimeException("attribute handler " + parentTag + ", " + attributeName + " already registered");
 		}
+		dispatchTable = null;
 	}
 
 	/*
@@ -62,6 +64,7 @@ public class ReadManager {
 	 */
 	public void addElementHandler(final String parentTag, final IElementHandler handler) {
 		elementHandlers.add(parentTag, handler);
+		dispatchTable = null;
 	}
 
 	public void addReadCompletionListener(final IReadCompletionListener listener) {
@@ -76,6 +79,19 @@ public class ReadManager {
 		return elementHandlers;
 	}
 
+	/**
+	 * Returns handlers resolved for fast lookup during parsing.
+	 * The table is rebuilt after handlers have been added or removed.
+	 */
+	public ReadDispatchTable getDispatchTable() {
+		ReadDispatchTable table = dispatchTable;
+		if (table == null) {
+			table = new ReadDispatchTable(attributeHandlers, elementHandlers);
+			dispatchTable = table;
+		}
+		return table;
+	}
+
 	public void readingCompleted(final NodeModel topNode, final Map<String, String> newIds) {
 		final Iterator<IReadCompletionListener> iterator = readCompletionListeners.iterator();
 		while (iterator.hasNext()) {
@@ -91,6 +107,7 @@ public class ReadManager {
 	public void removeAttributeHandler(final String parentTag, final String attributeName, final IAttributeHandler a) {
 		final Hashtable<String, IAttributeHandler> hashtable = attributeHandlers.get(parentTag);
 		hashtable.remove(attributeName);
+		dispatchTable = null;
 	}
 
 	/*
@@ -101,6 +118,7 @@ public class ReadManager {
 	public void removeElementHandler(final String parentTag, final IElementHandler handler) {
 		final boolean removed = elementHandlers.remove(parentTag, handler);
 		assert removed;
+		dispatchTable = null;
 	}
 
 	public void removeReadCompletionListener(final IReadCompletionListener listener) {
@@ -23,17 +23,15 @@ import java.awt.Point;
 import java.io.Reader;
 import java.util.Date;
 import java.util.Enumeration;
-import java.util.Hashtable;
-import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.List;
+import java.util.Map;
 import java.util.StringTokenizer;
 
 import org.freeplane.core.io.IAttributeHandler;
 import org.freeplane.core.io.IElementContentHandler;
 import org.freeplane.core.io.IElementDOMHandler;
 import org.freeplane.core.io.IElementHandler;
-import org.freeplane.core.io.ListHashTable;
+import org.freeplane.core.io.ReadDispatchTable;
 import org.freeplane.core.io.ReadManager;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.n3.nanoxml.IXMLBuilder;
@@ -82,7 +80,7 @@ public class TreeXmlReader implements IXMLBuilder {
 		return new Point(x, y);
 	}
 
-	private Hashtable<String, IAttributeHandler> attributeHandlersForTag;
+	private Map<String, IAttributeHandler> attributeHandlersForTag;
 	private Object currentElement;
 	private String elementContentAsString;
 	final private LinkedList<Object> elementStack = new LinkedList<Object>();
@@ -151,10 +149,10 @@ public class TreeXmlReader implements IXMLBuilder {
 		if (saveAsXmlUntil != null || nodeCreator != null) {
 			return;
 		}
-		final Iterator<IElementHandler> iterator = getElementHandlers().iterator(tag);
+		final IElementHandler[] handlers = getDispatchTable().getElementHandlers(tag);
 		final XMLElement lastBuiltElement = xmlBuilder.getLastBuiltElement();
-		while (iterator.hasNext() && currentElement == null) {
-			nodeCreator = iterator.next();
+		for (int i = 0; i < handlers.length && currentElement == null; i++) {
+			nodeCreator = handlers[i];
 			try {
 				currentElement = nodeCreator.createElement(parentElement, name, lastBuiltElement);
 			} catch (Exception e) {
@@ -165,7 +163,7 @@ public class TreeXmlReader implements IXMLBuilder {
 			if (nodeCreator instanceof IElementContentHandler) {
 				parser.notParseNextElementContent();
 			}
-			attributeHandlersForTag = getAttributeLoaders().get(tag);
+			attributeHandlersForTag = getDispatchTable().getAttributeHandlers(tag);
 			if (attributeHandlersForTag == null) {
 				return;
 			}
@@ -225,12 +223,8 @@ public class TreeXmlReader implements IXMLBuilder {
 		elementContentAsString = null;
 	}
 
-	private Hashtable<String, Hashtable<String, IAttributeHandler>> getAttributeLoaders() {
-		return parseManager.getAttributeHandlers();
-	}
-
-	private ListHashTable<String, IElementHandler> getElementHandlers() {
-		return parseManager.getElementHandlers();
+	private ReadDispatchTable getDispatchTable() {
+		return parseManager.getDispatchTable();
 	}
 
 	/*
@@ -304,9 +298,9 @@ public class TreeXmlReader implements IXMLBuilder {
 		pushParentObjects();
 		parentElement = currentElement;
 		currentElement = null;
-		final List<IElementHandler> handlers = getElementHandlers().list(tag);
-		if (handlers != null && handlers.size() == 1) {
-			nodeCreator = handlers.get(0);
+		final IElementHandler[] handlers = getDispatchTable().getElementHandlers(tag);
+		if (handlers.length == 1) {
+			nodeCreator = handlers[0];
 			try {
 				currentElement = nodeCreator.createElement(parentElement, tag, null);
 			} catch (Exception e) {
@@ -314,7 +308,7 @@ public class TreeXmlReader implements IXMLBuilder {
 			}
 		}
 		if (currentElement != null) {
-			attributeHandlersForTag = getAttributeLoaders().get(tag);
+			attributeHandlersForTag = getDispatchTable().getAttributeHandlers(tag);
 			if (nodeCreator instanceof IElementContentHandler) {
 				parser.notParseNextElementContent();
 			}
@@ -31,6 +31,7 @@ import java.util.ListIterator;
  */
 public class CompoundActor implements IActor {
 	final private LinkedList<IActor> actors;
+	private long estimatedSize;
 
 	public CompoundActor() {
 		this(new LinkedList<IActor>());
@@ -39,6 +40,9 @@ public class CompoundActor implements IActor {
 	@SuppressWarnings("unchecked")
 	public CompoundActor(final LinkedList<? extends IActor> actors) {
 		this.actors = (LinkedList<IActor>) actors;
+		for (final IActor a : actors) {
+			estimatedSize += a.estimatedSize();
+		}
 	}
 
 	public void act() {
@@ -49,6 +53,7 @@ public class CompoundActor implements IActor {
 
 	public void add(final IActor firstActor) {
 		actors.add(firstActor);
+		estimatedSize += firstActor.estimatedSize();
 	}
 
 	public String getDescription() {
@@ -76,4 +81,9 @@ public class CompoundActor implements IActor {
 	public boolean isEmpty() {
 		return actors.size() == 0;
 	}
+
+	@Override
+	public long estimatedSize() {
+		return estimatedSize;
+	}
 }
@@ -20,6 +20,9 @@
 package org.freeplane.core.undo;
 
 public interface IActor {
+	/** Heap memory in bytes assumed to be retained by actors which do not estimate it themselves. */
+	long DEFAULT_ESTIMATED_SIZE = 256;
+
 	void act();
 
 	String getDescription();
@@ -29,4 +32,21 @@ public interface IActor {
 	default boolean isReadonly() {
 		return false;
 	}
+
+	/**
+	 * @return estimated heap memory in bytes which is retained only because the actor is kept for undo and redo
+	 */
+	default long estimatedSize() {
+		return DEFAULT_ESTIMATED_SIZE;
+	}
+
+	/**
+	 * @return estimated heap memory in bytes used by a replaced value which only the actor keeps for undo,
+	 * the value itself is counted only if it is a string
+	 */
+	static long estimatedSizeOf(final Object oldValue) {
+		if (oldValue instanceof String)
+			return DEFAULT_ESTIMATED_SIZE + 2L * ((String) oldValue).length();
+		return DEFAULT_ESTIMATED_SIZE;
+	}
 }
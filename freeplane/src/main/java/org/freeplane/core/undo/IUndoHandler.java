@@ -66,4 +66,9 @@ public interface IUndoHandler extends IExtension {
 	
 	public int getTransactionLevel();
 
+	/**
+	 * @return estimated heap memory in bytes retained by the undo and redo history
+	 */
+	public long getEstimatedMemoryUsage();
+
 }
@@ -28,6 +28,7 @@ import java.util.ListIterator;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.features.map.IMapSelection;
 import org.freeplane.features.map.MapModel;
@@ -56,10 +57,11 @@ public class UndoHandler implements IUndoHandler {
 		int commitDelay = COMMIT_DELAY;
 	}
 
-	/**
-	 *
-	 */
+	public static final String UNDO_LEVELS_PROPERTY = "undo_levels";
+	/** Maximal estimated memory in megabytes retained by the undo history of a map. */
+	public static final String UNDO_MEMORY_LIMIT_PROPERTY = "undo_memory_limit";
 	private static final int MAX_ENTRIES = 100;
+	private static final int DEFAULT_MEMORY_LIMIT = 64;
 	private static final long TIME_TO_BEGIN_NEW_ACTION = 100;
 	private boolean actionFrameStarted;
 	private ListIterator<CompoundActor> actorIterator;
@@ -133,17 +135,51 @@ public class UndoHandler implements IUndoHandler {
 			}
 			compoundActor.add(actor);
 			actorIterator.add(compoundActor);
-			final int maxEntries = UndoHandler.MAX_ENTRIES;
-			while (actorList.size() > maxEntries) {
-				actorList.removeFirst();
-				actorIterator = actorList.listIterator(actorList.size());
-			}
+		}
+		if (transactionList.isEmpty()) {
+			limitHistory();
 		}
 		startActionFrame();
 		timeOfLastAdd = currentTime;
 		fireStateChanged();
 	}
 
+	/**
+	 * Removes the oldest entries exceeding the number of undo levels or the memory limit.
+	 * The newest entry is kept even if it alone exceeds the memory limit.
+	 */
+	private void limitHistory() {
+		final ResourceController resourceController = ResourceController.getResourceController();
+		final int maxEntries = Math.max(1, resourceController.getIntProperty(UNDO_LEVELS_PROPERTY, MAX_ENTRIES));
+		final long memoryLimit = resourceController.getIntProperty(UNDO_MEMORY_LIMIT_PROPERTY, DEFAULT_MEMORY_LIMIT)
+		        * 1024L * 1024L;
+		long estimatedSize = estimatedSize(actorList);
+		boolean removed = false;
+		while (actorList.size() > maxEntries || actorList.size() > 1 && estimatedSize > memoryLimit) {
+			estimatedSize -= actorList.removeFirst().estimatedSize();
+			removed = true;
+		}
+		if (removed) {
+			actorIterator = actorList.listIterator(actorList.size());
+		}
+	}
+
+	private static long estimatedSize(final List<CompoundActor> actors) {
+		long estimatedSize = 0;
+		for (final CompoundActor actor : actors) {
+			estimatedSize += actor.estimatedSize();
+		}
+		return estimatedSize;
+	}
+
+	public long getEstimatedMemoryUsage() {
+		long estimatedSize = estimatedSize(actorList);
+		for (final ActorList transaction : transactionList) {
+			estimatedSize += estimatedSize(transaction);
+		}
+		return estimatedSize;
+	}
+
 	private void fireStateChanged() {
 		for (final ChangeListener listener : listeners) {
 			listener.stateChanged(event);
@@ -336,4 +372,10 @@ public class UndoHandler implements IUndoHandler {
     public int getTransactionLevel() {
         return transactionList.size();
     }
+
+	@Override
+	public String toString() {
+		return "UndoHandler [map=" + map.getTitle() + ", entries=" + actorList.size() + ", transactionLevel="
+		        + transactionList.size() + ", estimatedMemoryUsage=" + getEstimatedMemoryUsage() + "]";
+	}
 }
@@ -0,0 +1,94 @@
+package org.freeplane.core.util;
+
+import java.lang.ref.WeakReference;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Supports the compact storage of node texts, notes and details.
+ *
+ * In compact mode a rich text keeps only its XHTML form, which is saved and loaded without conversion.
+ * Its HTML form is derived on access, the most recently derived forms are cached.
+ * The cache is split into stripes locked independently, so that threads filtering or indexing a map rarely wait.
+ * Stored texts are shared by all nodes with equal texts.
+ */
+public class CompactTextStorage {
+	public static final String COMPACT_TEXT_STORAGE_PROPERTY = "compact_text_storage";
+
+	static final int DERIVED_HTML_STRIPE_COUNT = 16;
+	static final int DERIVED_HTML_STRIPE_SIZE = 32;
+
+	@SuppressWarnings("serial")
+	private static class DerivedHtmlStripe extends LinkedHashMap<String, String> {
+		DerivedHtmlStripe() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return size() > DERIVED_HTML_STRIPE_SIZE;
+		}
+	}
+
+	private static final DerivedHtmlStripe[] derivedHtml = new DerivedHtmlStripe[DERIVED_HTML_STRIPE_COUNT];
+	static {
+		for (int i = 0; i < DERIVED_HTML_STRIPE_COUNT; i++)
+			derivedHtml[i] = new DerivedHtmlStripe();
+	}
+
+	private static final Map<String, WeakReference<String>> sharedTexts = new WeakHashMap<String, WeakReference<String>>();
+	private static volatile boolean enabled = false;
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/** Applies to texts set afterwards. Texts stored before keep their form. */
+	public static void setEnabled(final boolean enabled) {
+		CompactTextStorage.enabled = enabled;
+	}
+
+	public static String toHtml(final String xhtml) {
+		final DerivedHtmlStripe stripe = stripeOf(xhtml);
+		synchronized (stripe) {
+			final String html = stripe.get(xhtml);
+			if (html != null)
+				return html;
+		}
+		final String html = HtmlUtils.toHtml(xhtml);
+		synchronized (stripe) {
+			stripe.put(xhtml, html);
+		}
+		return html;
+	}
+
+	private static DerivedHtmlStripe stripeOf(final String xhtml) {
+		final int hash = xhtml.hashCode();
+		return derivedHtml[(hash ^ (hash >>> 16)) & (DERIVED_HTML_STRIPE_COUNT - 1)];
+	}
+
+	/** Passes each cached XHTML text with the HTML derived from it to the consumer. */
+	public static void forEachDerivedHtml(final BiConsumer<String, String> consumer) {
+		for (final DerivedHtmlStripe stripe : derivedHtml) {
+			synchronized (stripe) {
+				stripe.forEach(consumer);
+			}
+		}
+	}
+
+	/** @return a stored text equal to the given one, or the given text which is then stored. */
+	public static String share(final String text) {
+		if (text == null)
+			return null;
+		synchronized (sharedTexts) {
+			final WeakReference<String> reference = sharedTexts.get(text);
+			final String sharedText = reference != null ? reference.get() : null;
+			if (sharedText != null)
+				return sharedText;
+			sharedTexts.put(text, new WeakReference<String>(text));
+			return text;
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package org.freeplane.core.util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Keeps compiled XSLT stylesheets, so that repeated transformations with the same stylesheet compile it only once.
+ *
+ * Stylesheets from files are compiled again after the file was modified.
+ */
+public class XsltTemplatesCache {
+	private static class Entry {
+		final long lastModified;
+		final Templates templates;
+
+		Entry(final long lastModified, final Templates templates) {
+			this.lastModified = lastModified;
+			this.templates = templates;
+		}
+	}
+
+	private static final Map<String, Entry> cache = new ConcurrentHashMap<String, Entry>();
+	private static TransformerFactory transformerFactory;
+
+	public static Templates getTemplates(final File xsltFile) throws IOException, TransformerConfigurationException {
+		return getTemplates(xsltFile.toURI().toURL());
+	}
+
+	public static Templates getTemplates(final URL xsltUrl) throws IOException, TransformerConfigurationException {
+		final String key = xsltUrl.toExternalForm();
+		final long lastModified = lastModified(xsltUrl);
+		final Entry entry = cache.get(key);
+		if (entry != null && entry.lastModified == lastModified)
+			return entry.templates;
+		final Templates templates = compile(xsltUrl);
+		cache.put(key, new Entry(lastModified, templates));
+		return templates;
+	}
+
+	private static synchronized Templates compile(final URL xsltUrl) throws IOException,
+	        TransformerConfigurationException {
+		if (transformerFactory == null)
+			transformerFactory = TransformerFactory.newInstance();
+		try (InputStream xsltStream = new BufferedInputStream(xsltUrl.openStream())) {
+			return transformerFactory.newTemplates(new StreamSource(xsltStream, xsltUrl.toExternalForm()));
+		}
+	}
+
+	private static long lastModified(final URL url) {
+		if (!"file".equals(url.getProtocol()))
+			return 0;
+		try {
+			return new File(url.toURI()).lastModified();
+		}
+		catch (final URISyntaxException | IllegalArgumentException e) {
+			return 0;
+		}
+	}
+}
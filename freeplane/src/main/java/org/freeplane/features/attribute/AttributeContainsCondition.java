@@ -19,19 +19,25 @@
  */
 package org.freeplane.features.attribute;
 
+import java.util.function.Predicate;
+
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.StringMatchingStrategy;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.ConditionFactory;
+import org.freeplane.features.filter.condition.IConcurrentCondition;
+import org.freeplane.features.filter.condition.IIndexedCondition;
 import org.freeplane.features.filter.condition.StringConditionAdapter;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.text.FullTextIndex;
 import org.freeplane.features.text.TextController;
 import org.freeplane.n3.nanoxml.XMLElement;
 
 /**
  * @author Dimitry Polivaev
  */
-public class AttributeContainsCondition extends StringConditionAdapter {
+public class AttributeContainsCondition extends StringConditionAdapter implements IIndexedCondition, IConcurrentCondition {
 	static final String ATTRIBUTE = "ATTRIBUTE";
 	static final String NAME = "attribute_contains_condition";
     static final String VALUE = "VALUE";
@@ -91,6 +97,25 @@ public class AttributeContainsCondition extends StringConditionAdapter {
 		return false;
 	}
 
+	@Override
+	public boolean canCheckConcurrently(NodeModel node) {
+		final IAttributeTableModel attributes = NodeAttributeTableModel.getModel(node);
+		final TextController textController = TextController.getController();
+		for (int i = 0; i < attributes.getRowCount(); i++) {
+			if (textController.isFormula(attributes.getValueAt(i, 1), node, null))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public Predicate<NodeModel> getCandidates(MapModel map) {
+		if (matchApproximately)
+			return null;
+		final FullTextIndex index = FullTextIndex.getIndex(map);
+		return index == null ? null : index.getCandidates(value, FullTextIndex.ATTRIBUTES, false);
+	}
+
 	private boolean checkText(String text) {
 	    return stringMatchingStrategy.matches(normalizedValue(), normalize(text), true);
     }
@@ -22,6 +22,8 @@ package org.freeplane.features.attribute;
 import java.awt.Component;
 import java.awt.Font;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.core.io.ReadManager;
@@ -49,6 +51,7 @@ import org.freeplane.features.nodestyle.NodeStyleController;
 import org.freeplane.features.styles.MapStyle;
 import org.freeplane.features.styles.MapStyleModel;
 import org.freeplane.features.styles.SetBooleanMapPropertyAction;
+import org.freeplane.features.text.FullTextIndex;
 import org.freeplane.features.text.TextController;
 
 /**
@@ -92,6 +95,27 @@ public class AttributeController implements IExtension {
 		registerTooltipProvider();
 		registerStateIconProvider();
 		registerAttributeClipboardController(modeController);
+		registerFullTextIndexSource();
+	}
+
+	private void registerFullTextIndexSource() {
+		FullTextIndex.setAttributeTextSource(new FullTextIndex.AttributeTextSource() {
+			@Override
+			public Collection<String> getAttributeTexts(NodeModel node) {
+				final NodeAttributeTableModel attributes = NodeAttributeTableModel.getModel(node);
+				final int rowCount = attributes.getRowCount();
+				final Collection<String> texts = new ArrayList<String>(2 * rowCount);
+				final TextController textController = TextController.getController();
+				for (int i = 0; i < rowCount; i++) {
+					final Object originalContent = attributes.getValueAt(i, 1);
+					if (textController.isFormula(originalContent, node, null))
+						return null;
+					texts.add(attributes.getValueAt(i, 0).toString());
+					texts.add(textController.getTransformedTextNoThrow(originalContent, node, null));
+				}
+				return texts;
+			}
+		});
 	}
 
 	protected void registerAttributeClipboardController(final ModeController modeController) {
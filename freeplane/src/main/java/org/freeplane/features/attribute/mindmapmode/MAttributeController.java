@@ -314,6 +314,11 @@ public class MAttributeController extends AttributeController {
 			return "RemoveAttributeActor";
 		}
 
+		@Override
+		public long estimatedSize() {
+			return IActor.estimatedSizeOf(insertActor.name) + IActor.estimatedSizeOf(insertActor.value);
+		}
+
 		@Override
 		public void undo() {
 			insertActor.act();
@@ -344,6 +349,11 @@ public class MAttributeController extends AttributeController {
 			return "ReplaceAttributeValueActor";
 		}
 
+		@Override
+		public long estimatedSize() {
+			return IActor.estimatedSizeOf(oldValue);
+		}
+
 		@Override
 		public void undo() {
 			registry.getElement(name).replaceValue(newValue, oldValue);
@@ -406,6 +416,11 @@ public class MAttributeController extends AttributeController {
 			return "setAttributeName";
 		}
 
+		@Override
+		public long estimatedSize() {
+			return IActor.estimatedSizeOf(oldName);
+		}
+
 		@Override
 		public void undo() {
 			model.getAttribute(row).setName(oldName);
@@ -476,6 +491,11 @@ public class MAttributeController extends AttributeController {
 			return "SetAttributeValue";
 		}
 
+		@Override
+		public long estimatedSize() {
+			return IActor.estimatedSizeOf(oldValue);
+		}
+
 		@Override
 		public void undo() {
 			model.getAttribute(row).setValue(oldValue);
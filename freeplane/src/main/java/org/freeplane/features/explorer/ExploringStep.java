@@ -5,10 +5,8 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
 
 import org.freeplane.features.map.NodeModel;
-import org.freeplane.features.map.NodeStream;
 
 enum ExploringStep {
 	ROOT{
@@ -115,7 +113,7 @@ enum ExploringStep {
 		@Override
 		List<NodeModel> getNodes(NodeModel start, final NodeMatcher nodeMatcher, AccessedNodes accessedNodes) {
 			accessedNodes.accessBranch(start);
-			return NodeStream.of(start).skip(1).filter(nodeMatcher::matches).collect(Collectors.toList());
+			return nodeMatcher.getMatchingDescendants(start);
 		}
 	};
 
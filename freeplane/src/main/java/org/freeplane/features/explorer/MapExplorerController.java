@@ -27,6 +27,9 @@ public class MapExplorerController  implements IExtension{
 		final ReadManager readManager = mapController.getReadManager();
 		final WriteManager writeManager = mapController.getWriteManager();
 		final MapReader mapReader = mapController.getMapReader();
+		final NodeContentIndex.Updater nodeContentIndexUpdater = new NodeContentIndex.Updater();
+		mapController.addNodeChangeListener(nodeContentIndexUpdater);
+		mapController.addMapChangeListener(nodeContentIndexUpdater);
 		readManager.addAttributeHandler(NodeBuilder.XML_NODE, ALIAS, new IAttributeHandler() {
 			@Override
 			public void setAttribute(final Object node, final String value) {
@@ -21,9 +21,16 @@ public class NodeAlias implements IExtension {
 			NodeAlias a = new NodeAlias(alias);
 			node.putExtension(a);
 			NodeAliases.of(node.getMap()).add(a, node.createID());
+			aliasChanged(node);
 		}
 	}
 	static void removeAlias(NodeModel node) {
-		node.removeExtension(NodeAlias.class);
+		if(node.removeExtension(NodeAlias.class) != null)
+			aliasChanged(node);
+	}
+	private static void aliasChanged(NodeModel node) {
+		final NodeContentIndex index = node.getMap().getExtension(NodeContentIndex.class);
+		if(index != null)
+			index.nodeChanged(node);
 	}
 }
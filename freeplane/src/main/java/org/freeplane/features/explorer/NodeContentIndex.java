@@ -0,0 +1,198 @@
+package org.freeplane.features.explorer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.util.HtmlUtils;
+import org.freeplane.features.map.EncryptionModel;
+import org.freeplane.features.map.IMapChangeListener;
+import org.freeplane.features.map.INodeChangeListener;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeChangeEvent;
+import org.freeplane.features.map.NodeDeletionEvent;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.NodeStream;
+
+/**
+ * Index from aliases and plain node texts to the nodes of a map, used to resolve node references
+ * without visiting all nodes of a branch.
+ *
+ * The index is built on the first lookup. Changed, inserted and removed nodes are indexed again
+ * before the next lookup. Returned nodes can belong to hidden children of locked encrypted nodes,
+ * callers check that they are reachable.
+ */
+class NodeContentIndex implements IExtension {
+	private static class IndexedContent {
+		final String alias;
+		final String text;
+
+		IndexedContent(String alias, String text) {
+			this.alias = alias;
+			this.text = text;
+		}
+	}
+
+	private final MapModel map;
+	private final Map<NodeModel, IndexedContent> contents;
+	private final Map<String, Set<NodeModel>> nodesByAlias;
+	private final NavigableMap<String, Set<NodeModel>> nodesByText;
+	private final Set<NodeModel> pendingNodes;
+	private boolean built;
+
+	static NodeContentIndex of(final MapModel map) {
+		synchronized (map) {
+			NodeContentIndex index = map.getExtension(NodeContentIndex.class);
+			if (index == null) {
+				index = new NodeContentIndex(map);
+				map.addExtension(index);
+			}
+			return index;
+		}
+	}
+
+	private NodeContentIndex(MapModel map) {
+		this.map = map;
+		contents = new IdentityHashMap<>();
+		nodesByAlias = new HashMap<>();
+		nodesByText = new TreeMap<>();
+		pendingNodes = newNodeSet();
+	}
+
+	private static Set<NodeModel> newNodeSet() {
+		return Collections.newSetFromMap(new IdentityHashMap<NodeModel, Boolean>());
+	}
+
+	synchronized List<NodeModel> getNodesByAlias(final String alias) {
+		update();
+		final Set<NodeModel> nodes = nodesByAlias.get(alias);
+		return nodes == null ? Collections.<NodeModel> emptyList() : new ArrayList<>(nodes);
+	}
+
+	synchronized List<NodeModel> getNodesByText(final String text) {
+		update();
+		final Set<NodeModel> nodes = nodesByText.get(text);
+		return nodes == null ? Collections.<NodeModel> emptyList() : new ArrayList<>(nodes);
+	}
+
+	synchronized List<NodeModel> getNodesByTextStart(final String start) {
+		update();
+		final List<NodeModel> nodes = new ArrayList<>();
+		for (final Map.Entry<String, Set<NodeModel>> entry : nodesByText.tailMap(start, true).entrySet()) {
+			if (!entry.getKey().startsWith(start))
+				break;
+			nodes.addAll(entry.getValue());
+		}
+		return nodes;
+	}
+
+	private void update() {
+		if (!built) {
+			built = true;
+			pendingNodes.clear();
+			addSubtree(map.getRootNode());
+		}
+		if (pendingNodes.isEmpty())
+			return;
+		for (final NodeModel node : pendingNodes)
+			index(node);
+		pendingNodes.clear();
+	}
+
+	private void addSubtree(final NodeModel node) {
+		NodeStream.of(node).forEach(pendingNodes::add);
+	}
+
+	private void index(final NodeModel node) {
+		remove(node);
+		final NodeAlias alias = node.getExtension(NodeAlias.class);
+		final IndexedContent content = new IndexedContent(alias != null ? alias.value : null,
+		    HtmlUtils.htmlToPlain(node.getText()));
+		contents.put(node, content);
+		if (content.alias != null)
+			add(nodesByAlias, content.alias, node);
+		add(nodesByText, content.text, node);
+	}
+
+	private static void add(final Map<String, Set<NodeModel>> nodesByKey, final String key, final NodeModel node) {
+		Set<NodeModel> nodes = nodesByKey.get(key);
+		if (nodes == null) {
+			nodes = newNodeSet();
+			nodesByKey.put(key, nodes);
+		}
+		nodes.add(node);
+	}
+
+	private void remove(final NodeModel node) {
+		final IndexedContent content = contents.remove(node);
+		if (content != null) {
+			if (content.alias != null)
+				remove(nodesByAlias, content.alias, node);
+			remove(nodesByText, content.text, node);
+		}
+	}
+
+	private static void remove(final Map<String, Set<NodeModel>> nodesByKey, final String key, final NodeModel node) {
+		final Set<NodeModel> nodes = nodesByKey.get(key);
+		if (nodes != null && nodes.remove(node) && nodes.isEmpty())
+			nodesByKey.remove(key);
+	}
+
+	synchronized void nodeChanged(final NodeModel node) {
+		if (built)
+			pendingNodes.add(node);
+	}
+
+	synchronized void subtreeChanged(final NodeModel node) {
+		if (built)
+			addSubtree(node);
+	}
+
+	synchronized void subtreeRemoved(final NodeModel node) {
+		NodeStream.of(node).forEach(removedNode -> {
+			pendingNodes.remove(removedNode);
+			remove(removedNode);
+		});
+	}
+
+	synchronized int getNodeCount() {
+		update();
+		return contents.size();
+	}
+
+	static class Updater implements INodeChangeListener, IMapChangeListener {
+		@Override
+		public void nodeChanged(final NodeChangeEvent event) {
+			final NodeModel node = event.getNode();
+			final NodeContentIndex index = node.getMap().getExtension(NodeContentIndex.class);
+			if (index == null)
+				return;
+			// locking and unlocking encrypted nodes hides and shows their children without further events
+			if (event.getProperty() == EncryptionModel.class)
+				index.subtreeChanged(node);
+			else
+				index.nodeChanged(node);
+		}
+
+		@Override
+		public void onNodeInserted(final NodeModel parent, final NodeModel child, final int newIndex) {
+			final NodeContentIndex index = parent.getMap().getExtension(NodeContentIndex.class);
+			if (index != null)
+				index.subtreeChanged(child);
+		}
+
+		@Override
+		public void onNodeDeleted(final NodeDeletionEvent nodeDeletionEvent) {
+			final NodeContentIndex index = nodeDeletionEvent.parent.getMap().getExtension(NodeContentIndex.class);
+			if (index != null)
+				index.subtreeRemoved(nodeDeletionEvent.node);
+		}
+	}
+}
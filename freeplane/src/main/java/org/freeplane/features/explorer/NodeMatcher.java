@@ -2,11 +2,16 @@ package org.freeplane.features.explorer;
 
 import org.apache.commons.lang.StringUtils;
 import org.freeplane.core.util.HtmlUtils;
+import org.freeplane.features.map.EncryptionModel;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.NodeStream;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 class NodeMatcher {
 	enum MatchedElement{
@@ -125,6 +130,65 @@ class NodeMatcher {
 		return nodes != null ? nodes : Collections.<NodeModel>emptyList();
 	}
 
+	/**
+	 * Finds matching descendants in tree order, using the {@link NodeContentIndex} of the map
+	 * instead of visiting the whole branch.
+	 */
+	public List<NodeModel> getMatchingDescendants(NodeModel start) {
+		final List<NodeModel> candidates = getIndexedCandidates(start.getMap());
+		if(candidates == null)
+			return NodeStream.of(start).skip(1).filter(this::matches).collect(Collectors.toList());
+		final List<NodeModel[]> paths = new ArrayList<>(candidates.size());
+		for (NodeModel node : candidates) {
+			if(isReachableDescendant(node, start))
+				paths.add(node.getPathToRoot());
+		}
+		if(paths.size() > 1)
+			paths.sort(TREE_ORDER);
+		final List<NodeModel> nodes = new ArrayList<>(paths.size());
+		for (NodeModel[] path : paths)
+			nodes.add(path[path.length - 1]);
+		return nodes;
+	}
+
+	private List<NodeModel> getIndexedCandidates(MapModel map) {
+		switch (matchedElement) {
+			case ALIAS:
+				return NodeContentIndex.of(map).getNodesByAlias(matchedString);
+			case TEXT:
+				return NodeContentIndex.of(map).getNodesByText(matchedString);
+			case START:
+				return matchedString.isEmpty() ? null : NodeContentIndex.of(map).getNodesByTextStart(matchedString);
+			default:
+				return null;
+		}
+	}
+
+	private static boolean isReachableDescendant(NodeModel node, NodeModel ancestor) {
+		for (NodeModel parent = node.getParentNode(); parent != null; parent = parent.getParentNode()) {
+			final EncryptionModel encryptionModel = EncryptionModel.getModel(parent);
+			if(encryptionModel != null && !encryptionModel.isAccessible())
+				return false;
+			if(parent == ancestor)
+				return true;
+		}
+		return false;
+	}
+
+	private static final Comparator<NodeModel[]> TREE_ORDER = new Comparator<NodeModel[]>() {
+		@Override
+		public int compare(NodeModel[] firstPath, NodeModel[] secondPath) {
+			final int commonLength = Math.min(firstPath.length, secondPath.length);
+			for (int i = 1; i < commonLength; i++) {
+				if(firstPath[i] != secondPath[i]) {
+					final NodeModel parent = firstPath[i - 1];
+					return Integer.compare(parent.getIndex(firstPath[i]), parent.getIndex(secondPath[i]));
+				}
+			}
+			return Integer.compare(firstPath.length, secondPath.length);
+		}
+	};
+
 	private List<NodeModel> getNodeByCounter(Iterable<NodeModel> iterable, AccessedNodes accessedNodes) {
 		int counter = 1;
 		int requiredCounter = Integer.valueOf(matchedString);
@@ -4,11 +4,22 @@ import org.freeplane.features.map.MapWriter;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 
+import javax.xml.transform.Result;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.stream.StreamSource;
+
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 class BranchXmlWriter{
+	private static final int PIPE_BUFFER_SIZE = 64 * 1024;
 	private final List<NodeModel> branches;
 
 	 BranchXmlWriter(List<NodeModel> branches) {
@@ -32,4 +43,46 @@ class BranchXmlWriter{
 			throw new RuntimeException(e);
 		}
 	}
+
+	/**
+	 * Feeds the xml into the transformer while it is written instead of keeping the whole document in memory.
+	 * The map is written by the calling thread, the transformer reads it on a separate thread.
+	 */
+	void transformXml(final Transformer transformer, final Result result, MapWriter.Mode mode) throws TransformerException {
+		final PipedInputStream in = new PipedInputStream(PIPE_BUFFER_SIZE);
+		final TransformerException[] transformationError = new TransformerException[1];
+		final Thread transformationThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try (PipedInputStream inToClose = in){
+					transformer.transform(new StreamSource(inToClose), result);
+				}
+				catch (TransformerException e) {
+					transformationError[0] = e;
+				}
+				catch (IOException | RuntimeException e) {
+					transformationError[0] = new TransformerException(e);
+				}
+			}
+		}, "XSLT Transformation");
+		RuntimeException writingError = null;
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new PipedOutputStream(in), StandardCharsets.UTF_8))){
+			transformationThread.start();
+			writeXml(writer, mode);
+		}
+		catch (IOException | RuntimeException e) {
+			writingError = e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+		}
+		try {
+			transformationThread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransformerException(e);
+		}
+		if (transformationError[0] != null)
+			throw transformationError[0];
+		if (writingError != null)
+			throw writingError;
+	}
 }
@@ -23,14 +23,13 @@ import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.FileUtils;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
+import org.freeplane.core.util.XsltTemplatesCache;
 import org.freeplane.features.map.MapWriter.Mode;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import javax.swing.filechooser.FileFilter;
 import javax.xml.transform.Result;
-import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import java.io.*;
@@ -74,11 +73,9 @@ public class ExportToOoWriter implements IExportEngine {
 			LogUtils.severe("Can't find " + xsltFileName + " as resource.");
 			throw new IllegalArgumentException("Can't find " + xsltFileName + " as resource.");
 		}
-		try (InputStream xsltStream = new BufferedInputStream(xsltUrl.openStream())){
+		try {
 			final StringReader reader = new StringReader(writer.getBuffer().toString());
-			final TransformerFactory transFact = TransformerFactory.newInstance();
-			final Source xsltSource = new StreamSource(xsltStream);
-			final Transformer trans = transFact.newTransformer(xsltSource);
+			final Transformer trans = XsltTemplatesCache.getTemplates(xsltUrl).newTransformer();
 			trans.transform(new StreamSource(reader), result);
 			return;
 		}
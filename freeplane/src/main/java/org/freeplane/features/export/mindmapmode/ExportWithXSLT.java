@@ -25,6 +25,7 @@ import org.freeplane.core.util.Compat;
 import org.freeplane.core.util.FileUtils;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
+import org.freeplane.core.util.XsltTemplatesCache;
 import org.freeplane.features.icon.UIIcon;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.MapWriter.Mode;
@@ -151,6 +152,9 @@ public class ExportWithXSLT implements IExportEngine {
 			LogUtils.severe(e1);
 			return false;
 		}
+		finally {
+			ImageCreator.release(image);
+		}
 	}
 
 	/**
@@ -164,12 +168,6 @@ public class ExportWithXSLT implements IExportEngine {
 		return areaCode;
 	}
 
-	private String getMapXml(List<NodeModel> nodes, final Mode mode) throws IOException {
-		final StringWriter writer = new StringWriter();
-		new BranchXmlWriter(nodes).writeXml(writer, mode);
-		return writer.getBuffer().toString();
-	}
-
 	String getProperty(final String key) {
 		final String property = getProperty(key, null);
 		if (property == null)
@@ -259,19 +257,15 @@ public class ExportWithXSLT implements IExportEngine {
 	private boolean transformMapWithXslt(List<NodeModel> nodes, final String xsltFileName, final File saveFile, final String areaCode,
 										 final Mode mode, String[] parameters) throws IOException,
             TransformerFactoryConfigurationError {
-	    final String map = getMapXml(nodes, mode);
-		final StringReader reader = new StringReader(map);
 		ResourceController resourceController = ResourceController.getResourceController();
 		final URL xsltUrl = resourceController.getResource(xsltFileName);
 		if (xsltUrl == null) {
 			LogUtils.severe("Can't find " + xsltFileName + " as resource.");
 			throw new IllegalArgumentException("Can't find " + xsltFileName + " as resource.");
 		}
-		try (InputStream xsltFile = new BufferedInputStream(xsltUrl.openStream())){
-            final Source xsltSource = new StreamSource(xsltFile);
+		try {
             final Result result = new StreamResult(saveFile);
-			final TransformerFactory transFact = TransformerFactory.newInstance();
-			final Transformer trans = transFact.newTransformer(xsltSource);
+			final Transformer trans = XsltTemplatesCache.getTemplates(xsltUrl).newTransformer();
 			trans.setParameter("file_ref", saveFile.getAbsoluteFile().toURI().toString());
 			final String fileName = saveFile.getName();
 			final String fileNameEncoded = toRelativeUri(fileName);
@@ -291,7 +285,7 @@ public class ExportWithXSLT implements IExportEngine {
 
 			}
 			trans.setParameter("propertyList", sb.toString());
-			trans.transform(new StreamSource(reader), result);
+			new BranchXmlWriter(nodes).transformXml(trans, result, mode);
 		}
 		catch (final Exception e) {
 			LogUtils.warn(e);
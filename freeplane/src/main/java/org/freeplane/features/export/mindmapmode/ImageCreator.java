@@ -22,6 +22,7 @@ package org.freeplane.features.export.mindmapmode;
 import java.awt.Dimension;
 import java.awt.image.RenderedImage;
 
+import org.freeplane.core.util.LogUtils;
 import org.freeplane.features.map.IMapSelection.NodePosition;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
@@ -54,6 +55,20 @@ class ImageCreator{
         return controller.getMapViewManager().createImage(slideSize, placedNode, placedNodePosition, imageResolutionInDpi);
 	}
 
+	/**
+	 * Releases images painted on demand while they are written.
+	 */
+	static void release(final RenderedImage image) {
+		if (image instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) image).close();
+			}
+			catch (final Exception e) {
+				LogUtils.warn(e);
+			}
+		}
+	}
+
 	public int getImageResolutionDPI() {
 	    return imageResolutionInDpi;
     }
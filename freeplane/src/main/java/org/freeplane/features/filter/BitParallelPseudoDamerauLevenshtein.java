@@ -0,0 +1,249 @@
+package org.freeplane.features.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Computes the same edit distance as {@link PseudoDamerauLevenshtein} (insertions, deletions, substitutions
+ * and transpositions of adjacent characters) using the bit-parallel algorithm of Myers
+ * extended for transpositions by Hyyrö.
+ *
+ * Every character of the search text updates a whole column of the dynamic programming matrix
+ * in words of 64 search term characters, so that no matrix is allocated.
+ * The bit vectors are kept per thread and reused.
+ * {@link #matches(String, String, boolean, double)} stops as soon as the distance is known to be
+ * below or above the threshold.
+ *
+ * Alignments used for highlighting are computed by {@link PseudoDamerauLevenshtein}
+ * for the texts which contain a match.
+ */
+public class BitParallelPseudoDamerauLevenshtein implements EditDistanceStringMatchingStrategy {
+	private static final int NO_CUTOFF = Integer.MAX_VALUE;
+	private static final ThreadLocal<BitVectors> BIT_VECTORS = ThreadLocal.withInitial(BitVectors::new);
+
+	private String searchTerm;
+	private String searchText;
+	private Type type;
+
+	private static class BitVectors {
+		private long[] positiveVertical = new long[1];
+		private long[] negativeVertical = new long[1];
+		private long[] diagonalZero = new long[1];
+		private long[] previousPeq = new long[1];
+		private long[] peq = new long[64];
+		private int[] slotIndices = new int[128];
+		private char[] slotCharacters = new char[128];
+		private int slotMask;
+		private int wordCount;
+
+		/**
+		 * Resets the vectors for the first column and stores the positions of each search term character.
+		 */
+		void init(final String searchTerm) {
+			final int length = searchTerm.length();
+			wordCount = (length + 63) >>> 6;
+			if (positiveVertical.length < wordCount) {
+				positiveVertical = new long[wordCount];
+				negativeVertical = new long[wordCount];
+				diagonalZero = new long[wordCount];
+				previousPeq = new long[wordCount];
+			}
+			Arrays.fill(positiveVertical, 0, wordCount, -1L);
+			Arrays.fill(negativeVertical, 0, wordCount, 0L);
+			Arrays.fill(diagonalZero, 0, wordCount, 0L);
+			Arrays.fill(previousPeq, 0, wordCount, 0L);
+
+			final int slotCount = Integer.highestOneBit(length) * 4;
+			if (slotIndices.length < slotCount) {
+				slotIndices = new int[slotCount];
+				slotCharacters = new char[slotCount];
+			}
+			else
+				Arrays.fill(slotIndices, 0, slotCount, 0);
+			slotMask = slotCount - 1;
+			if (peq.length < length * wordCount)
+				peq = new long[length * wordCount];
+
+			int characterCount = 0;
+			for (int i = 0; i < length; i++) {
+				final char c = searchTerm.charAt(i);
+				int slot = slotOf(c);
+				if (slotIndices[slot] == 0) {
+					slotCharacters[slot] = c;
+					slotIndices[slot] = ++characterCount;
+					Arrays.fill(peq, (characterCount - 1) * wordCount, characterCount * wordCount, 0L);
+				}
+				peq[(slotIndices[slot] - 1) * wordCount + (i >>> 6)] |= 1L << (i & 63);
+			}
+		}
+
+		private int slotOf(final char c) {
+			int slot = (c * 0x9E3779B9 >>> 16) & slotMask;
+			while (slotIndices[slot] != 0 && slotCharacters[slot] != c)
+				slot = (slot + 1) & slotMask;
+			return slot;
+		}
+
+		/**
+		 * @return offset of the bit vectors for the character in {@link #peq}, negative if the search term does not contain it.
+		 */
+		int peqOffset(final char c) {
+			return (slotIndices[slotOf(c)] - 1) * wordCount;
+		}
+	}
+
+	public BitParallelPseudoDamerauLevenshtein() {
+	}
+
+	public void init(final String searchTerm, final String searchText, final boolean subStringMatch) {
+		if (searchTerm == null || searchText == null) {
+			throw new IllegalArgumentException("Null searchText/searchTerm!");
+		}
+		this.searchTerm = searchTerm;
+		this.searchText = searchText;
+		this.type = subStringMatch ? Type.SemiGlobal : Type.Global;
+	}
+
+	public int distance() {
+		return distance(searchTerm, searchText, type, NO_CUTOFF);
+	}
+
+	public float matchProb() {
+		return matchProb(searchTerm, searchText, type, distance());
+	}
+
+	public boolean matches(final String searchTerm, final String searchText, final boolean subStringMatch) {
+		return matches(searchTerm, searchText, subStringMatch, StringMatchingStrategy.APPROXIMATE_MATCHING_MINPROB);
+	}
+
+	public boolean matches(final String searchTerm, final String searchText, final boolean subStringMatch,
+	                       final double minProb) {
+		if (searchTerm == null || searchText == null) {
+			throw new IllegalArgumentException("Null searchText/searchTerm!");
+		}
+		final Type type = subStringMatch ? Type.SemiGlobal : Type.Global;
+		final int maxDistance = maxDistance(searchTerm, searchText, type, minProb);
+		return maxDistance >= 0 && distance(searchTerm, searchText, type, maxDistance) <= maxDistance;
+	}
+
+	/**
+	 * Same as {@link PseudoDamerauLevenshtein#computeAlignments(double)},
+	 * the matrix is only computed if the search text contains a match.
+	 */
+	public List<PseudoDamerauLevenshtein.Alignment> computeAlignments(final double minProb) {
+		if (type == Type.SemiGlobal && !matches(searchTerm, searchText, true, minProb))
+			return new ArrayList<PseudoDamerauLevenshtein.Alignment>();
+		final PseudoDamerauLevenshtein alignmentStrategy = new PseudoDamerauLevenshtein();
+		alignmentStrategy.init(searchTerm, searchText, type == Type.SemiGlobal);
+		return alignmentStrategy.computeAlignments(minProb);
+	}
+
+	private static float matchProb(final String searchTerm, final String searchText, final Type type,
+	                               final int distance) {
+		return 1.0F - ((float) distance / probDivisor(searchTerm, searchText, type));
+	}
+
+	private static int probDivisor(final String searchTerm, final String searchText, final Type type) {
+		return type == Type.SemiGlobal ? searchTerm.length() : Math.min(searchTerm.length(), searchText.length());
+	}
+
+	/**
+	 * @return the greatest distance with a match probability above minProb, or -1 if there is none.
+	 */
+	private static int maxDistance(final String searchTerm, final String searchText, final Type type,
+	                               final double minProb) {
+		final int divisor = probDivisor(searchTerm, searchText, type);
+		if (divisor == 0)
+			return -1;
+		int distance = Math.min(searchTerm.length() + searchText.length(),
+		    (int) Math.ceil(divisor * (1 - minProb)) + 1);
+		while (distance >= 0 && !(matchProb(searchTerm, searchText, type, distance) > minProb))
+			distance--;
+		return distance;
+	}
+
+	/**
+	 * Computes the distance, stopping as soon as it is known whether it exceeds maxDistance.
+	 * In this case the returned value is on the same side of maxDistance as the distance itself.
+	 */
+	private static int distance(final String searchTerm, final String searchText, final Type type,
+	                            final int maxDistance) {
+		final int termLength = searchTerm.length();
+		final int textLength = searchText.length();
+		if (termLength == 0)
+			return type == Type.Global ? textLength : 0;
+		if (type == Type.Global && Math.abs(termLength - textLength) > maxDistance)
+			return maxDistance + 1;
+
+		final BitVectors vectors = BIT_VECTORS.get();
+		vectors.init(searchTerm);
+		final long[] positiveVertical = vectors.positiveVertical;
+		final long[] negativeVertical = vectors.negativeVertical;
+		final long[] diagonalZero = vectors.diagonalZero;
+		final long[] previousPeq = vectors.previousPeq;
+		final long[] peq = vectors.peq;
+		final int wordCount = vectors.wordCount;
+		final int lastWord = wordCount - 1;
+		final long lastBit = 1L << ((termLength - 1) & 63);
+		final long firstRowIncrement = type == Type.Global ? 1L : 0L;
+
+		int score = termLength;
+		int minScore = termLength;
+		for (int j = 0; j < textLength; j++) {
+			final char c = searchText.charAt(j);
+			final int peqOffset = vectors.peqOffset(c);
+			final boolean matchesAnyCharacter = c == '-';
+			long additionCarry = 0;
+			long transpositionCarry = 0;
+			long positiveHorizontalCarry = firstRowIncrement;
+			long negativeHorizontalCarry = 0;
+			for (int word = 0; word < wordCount; word++) {
+				final long exactMatches = peqOffset >= 0 ? peq[peqOffset + word] : 0L;
+				final long matches = matchesAnyCharacter ? -1L : exactMatches;
+				final long pv = positiveVertical[word];
+				final long mv = negativeVertical[word];
+
+				final long transposable = ~diagonalZero[word] & exactMatches;
+				final long transpositions = ((transposable << 1) | transpositionCarry) & previousPeq[word];
+				transpositionCarry = transposable >>> 63;
+
+				final long addend = matches & pv;
+				final long sum = addend + pv + additionCarry;
+				additionCarry = ((addend & pv) | ((addend | pv) & ~sum)) >>> 63;
+				final long d0 = ((sum ^ pv) | matches | mv | transpositions);
+
+				long ph = mv | ~(d0 | pv);
+				long mh = pv & d0;
+				if (word == lastWord) {
+					if ((ph & lastBit) != 0)
+						score++;
+					else if ((mh & lastBit) != 0)
+						score--;
+				}
+				final long phOut = ph >>> 63;
+				final long mhOut = mh >>> 63;
+				ph = (ph << 1) | positiveHorizontalCarry;
+				mh = (mh << 1) | negativeHorizontalCarry;
+				positiveHorizontalCarry = phOut;
+				negativeHorizontalCarry = mhOut;
+
+				positiveVertical[word] = mh | ~(d0 | ph);
+				negativeVertical[word] = ph & d0;
+				diagonalZero[word] = d0;
+				previousPeq[word] = exactMatches;
+			}
+			if (type == Type.SemiGlobal) {
+				minScore = Math.min(minScore, score);
+				if (maxDistance != NO_CUTOFF && score <= maxDistance || score == 0)
+					return score;
+			}
+			else {
+				final int lowerBound = score - (textLength - j - 1);
+				if (lowerBound > maxDistance)
+					return lowerBound;
+			}
+		}
+		return type == Type.Global ? score : minScore;
+	}
+}
@@ -19,13 +19,21 @@
  */
 package org.freeplane.features.filter;
 
-import java.util.WeakHashMap;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
 
 import javax.swing.Icon;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.filter.condition.IConcurrentCondition;
 import org.freeplane.features.filter.condition.ICondition;
+import org.freeplane.features.filter.condition.IIndexedCondition;
 import org.freeplane.features.filter.hidden.NodeVisibility;
 import org.freeplane.features.filter.hidden.NodeVisibilityConfiguration;
 import org.freeplane.features.map.MapModel;
@@ -42,13 +50,161 @@ public class Filter implements IExtension {
 		return new Filter(null, false, resourceController.getBooleanProperty("filter.showAncestors"), resourceController.getBooleanProperty("filter.showDescendants"), null);
 	}
 
+	public static final String PARALLEL_FILTER_EVALUATION_PROPERTY = "parallel_filter_evaluation";
+	private static final int MINIMAL_NODE_COUNT_FOR_PARALLEL_EVALUATION = 1000;
+
+	/**
+	 * Stores filter information of all nodes in an int array indexed by node ordinals.
+	 * Ordinals are assigned in the order the nodes are first accessed
+	 * and found using an identity hash table, so that reading filter information allocates nothing.
+	 * The table references the nodes weakly. Ordinals of collected nodes are reused
+	 * when the table grows, so that deleted nodes neither stay reachable nor let it grow.
+	 */
 	static class FilterInfoAccessor {
-	    private final WeakHashMap<NodeModel, FilterInfo> filterInfos = new WeakHashMap<>();
+	    private static final int INITIAL_CAPACITY = 64;
+	    private WeakReference<NodeModel>[] nodes = newTable(INITIAL_CAPACITY);
+	    private int[] ordinals = new int[INITIAL_CAPACITY];
+	    private int[] infos = new int[INITIAL_CAPACITY / 2];
+	    private int[] freeOrdinals = new int[0];
+	    private int freeOrdinalCount = 0;
+	    private int occupiedSlotCount = 0;
+	    private int ordinalCount = 0;
+
+	    @SuppressWarnings("unchecked")
+	    private static WeakReference<NodeModel>[] newTable(int capacity) {
+	        return new WeakReference[capacity];
+	    }
 
 	    FilterInfo getFilterInfo(NodeModel node) {
-	        return filterInfos.computeIfAbsent(node, x -> new FilterInfo());
+	        return new FilterInfo(this, ordinalOf(node));
+	    }
+
+	    int getInfo(NodeModel node) {
+	        return infos[ordinalOf(node)];
+	    }
+
+	    void addFlag(NodeModel node, int flag) {
+	        final int ordinal = ordinalOf(node);
+	        infos[ordinal] = FilterInfo.add(infos[ordinal], flag);
+	    }
+
+	    void reset(NodeModel node) {
+	        infos[ordinalOf(node)] = FilterInfo.FILTER_SHOW_AS_INITIAL_VALUE;
+	    }
+
+	    int ordinalOf(NodeModel node) {
+	        final int mask = nodes.length - 1;
+	        int index = hash(node) & mask;
+	        for (;;) {
+	            final WeakReference<NodeModel> storedNode = nodes[index];
+	            if (storedNode == null)
+	                break;
+	            if (storedNode.get() == node)
+	                return ordinals[index];
+	            index = (index + 1) & mask;
+	        }
+	        final int ordinal = freeOrdinalCount > 0 ? freeOrdinals[--freeOrdinalCount] : ordinalCount++;
+	        nodes[index] = new WeakReference<NodeModel>(node);
+	        ordinals[index] = ordinal;
+	        occupiedSlotCount++;
+	        if (ordinal == infos.length)
+	            infos = Arrays.copyOf(infos, ordinal * 2);
+	        infos[ordinal] = FilterInfo.FILTER_SHOW_AS_INITIAL_VALUE;
+	        if (occupiedSlotCount * 2 > nodes.length)
+	            rehash();
+	        return ordinal;
 	    }
 
+	    int getInfo(int ordinal) {
+	        return infos[ordinal];
+	    }
+
+	    void setInfo(int ordinal, int info) {
+	        infos[ordinal] = info;
+	    }
+
+	    private void rehash() {
+	        final WeakReference<NodeModel>[] oldNodes = nodes;
+	        final int[] oldOrdinals = ordinals;
+	        int liveNodeCount = 0;
+	        for (final WeakReference<NodeModel> oldNode : oldNodes) {
+	            if (oldNode != null && oldNode.get() != null)
+	                liveNodeCount++;
+	        }
+	        final int capacity = liveNodeCount * 4 > oldNodes.length ? oldNodes.length * 2 : oldNodes.length;
+	        nodes = newTable(capacity);
+	        ordinals = new int[capacity];
+	        occupiedSlotCount = 0;
+	        final int mask = capacity - 1;
+	        for (int i = 0; i < oldNodes.length; i++) {
+	            final WeakReference<NodeModel> oldNode = oldNodes[i];
+	            if (oldNode == null)
+	                continue;
+	            final NodeModel node = oldNode.get();
+	            if (node == null) {
+	                freeOrdinal(oldOrdinals[i]);
+	                continue;
+	            }
+	            int index = hash(node) & mask;
+	            while (nodes[index] != null)
+	                index = (index + 1) & mask;
+	            nodes[index] = oldNode;
+	            ordinals[index] = oldOrdinals[i];
+	            occupiedSlotCount++;
+	        }
+	    }
+
+	    private void freeOrdinal(int ordinal) {
+	        if (freeOrdinalCount == freeOrdinals.length)
+	            freeOrdinals = Arrays.copyOf(freeOrdinals, Math.max(16, freeOrdinalCount * 2));
+	        freeOrdinals[freeOrdinalCount++] = ordinal;
+	    }
+
+	    private static int hash(NodeModel node) {
+	        final int hash = System.identityHashCode(node) * 0x9E3779B9;
+	        return hash ^ (hash >>> 16);
+	    }
+	}
+
+	private static final byte NOT_CHECKED = 0;
+	private static final byte SATISFIED = 1;
+	private static final byte NOT_SATISFIED = 2;
+
+	/**
+	 * Checks the condition for ranges of nodes on the worker threads of the common fork join pool
+	 * and stores the results at the ordinals of the nodes.
+	 */
+	@SuppressWarnings("serial")
+	private static class ParallelCheck extends RecursiveAction {
+	    private static final int SEQUENTIAL_CHECK_NODE_COUNT = 256;
+	    private final IConcurrentCondition condition;
+	    private final NodeModel[] nodes;
+	    private final int[] ordinals;
+	    private final byte[] results;
+	    private final int from;
+	    private final int to;
+
+	    ParallelCheck(IConcurrentCondition condition, NodeModel[] nodes, int[] ordinals,
+	                  byte[] results, int from, int to) {
+	        this.condition = condition;
+	        this.nodes = nodes;
+	        this.ordinals = ordinals;
+	        this.results = results;
+	        this.from = from;
+	        this.to = to;
+	    }
+
+	    @Override
+	    protected void compute() {
+	        if (to - from > SEQUENTIAL_CHECK_NODE_COUNT) {
+	            final int middle = (from + to) >>> 1;
+	            invokeAll(new ParallelCheck(condition, nodes, ordinals, results, from, middle),
+	                new ParallelCheck(condition, nodes, ordinals, results, middle, to));
+	            return;
+	        }
+	        for (int i = from; i < to; i++)
+	            results[ordinals[i]] = condition.checkNode(nodes[i]) ? SATISFIED : NOT_SATISFIED;
+	    }
 	}
 
 	static public Filter createFilter(final ICondition condition, final boolean areAncestorsShown,
@@ -56,8 +212,17 @@ public class Filter implements IExtension {
 		return new Filter(condition, false, areAncestorsShown, areDescendantsShown, baseFilter);
 	}
 
+	static Predicate<NodeModel> getCandidates(final ICondition condition, final MapModel map) {
+		if (condition instanceof IIndexedCondition)
+			return ((IIndexedCondition) condition).getCandidates(map);
+		else
+			return null;
+	}
+
 	final private ICondition condition;
 	final int options;
+	private Predicate<NodeModel> candidates;
+	private byte[] parallelCheckResults;
 
 	private FilterInfoAccessor accessor;
     private final boolean hidesMatchingNodes;
@@ -82,7 +247,7 @@ public class Filter implements IExtension {
 	}
 
 	void addFilterResult(final NodeModel node, final int flag) {
-		getFilterInfo(node).add(flag);
+		accessor.addFlag(node, flag);
 	}
 
 	protected boolean appliesToVisibleNodesOnly() {
@@ -105,31 +270,94 @@ public class Filter implements IExtension {
 
 	public void calculateFilterResults(final MapModel map) {
 	    this.accessor = new FilterInfoAccessor();
+	    this.candidates = getCandidates(condition, map);
 		final NodeModel root = map.getRootNode();
+		checkInParallel(root);
 		resetFilter(root);
 		checkNode(root);
 		if (filterChildren(root, false, false)) {
 			addFilterResult(root, FilterInfo.FILTER_SHOW_AS_ANCESTOR);
 		}
+		candidates = null;
+		parallelCheckResults = null;
 	}
 
 	public void calculateFilterResults(final NodeModel root) {
 	    this.accessor = new FilterInfoAccessor();
+	    this.candidates = getCandidates(condition, root.getMap());
+	    checkInParallel(root);
 	    applyFilter(root, false, false, false);
+	    candidates = null;
+	    parallelCheckResults = null;
+	}
+
+	/**
+	 * Checks the condition for all nodes of the subtree in parallel before the filter results are assigned
+	 * in the usual depth first traversal, which only looks the results up by node ordinal.
+	 * Candidates and the nodes the condition can check concurrently are selected on the calling thread,
+	 * the other nodes remain for the traversal.
+	 */
+	private void checkInParallel(final NodeModel root) {
+		if (!(condition instanceof IConcurrentCondition)
+		        || !ResourceController.getResourceController().getBooleanProperty(PARALLEL_FILTER_EVALUATION_PROPERTY))
+			return;
+		final List<NodeModel> nodes = new ArrayList<NodeModel>();
+		collectNodes(root, nodes);
+		final int nodeCount = nodes.size();
+		if (nodeCount < MINIMAL_NODE_COUNT_FOR_PARALLEL_EVALUATION)
+			return;
+		final int[] ordinals = new int[nodeCount];
+		int maximalOrdinal = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			ordinals[i] = accessor.ordinalOf(nodes.get(i));
+			maximalOrdinal = Math.max(maximalOrdinal, ordinals[i]);
+		}
+		final IConcurrentCondition concurrentCondition = (IConcurrentCondition) condition;
+		final byte[] results = new byte[maximalOrdinal + 1];
+		final NodeModel[] checkedNodes = new NodeModel[nodeCount];
+		final int[] checkedOrdinals = new int[nodeCount];
+		int checkedNodeCount = 0;
+		for (int i = 0; i < nodeCount; i++) {
+			final NodeModel node = nodes.get(i);
+			if (!isCandidate(node))
+				results[ordinals[i]] = NOT_SATISFIED;
+			else if (concurrentCondition.canCheckConcurrently(node)) {
+				checkedNodes[checkedNodeCount] = node;
+				checkedOrdinals[checkedNodeCount++] = ordinals[i];
+			}
+		}
+		ForkJoinPool.commonPool().invoke(new ParallelCheck(concurrentCondition, checkedNodes, checkedOrdinals,
+		    results, 0, checkedNodeCount));
+		parallelCheckResults = results;
+	}
+
+	private void collectNodes(final NodeModel node, final List<NodeModel> nodes) {
+		nodes.add(node);
+		for (final NodeModel child : node.getChildren())
+			collectNodes(child, nodes);
+	}
+
+	private boolean satisfiesCondition(final NodeModel node) {
+		if (parallelCheckResults != null) {
+			final int ordinal = accessor.ordinalOf(node);
+			if (ordinal < parallelCheckResults.length && parallelCheckResults[ordinal] != NOT_CHECKED)
+				return parallelCheckResults[ordinal] == SATISFIED;
+		}
+		return isCandidate(node) && condition.checkNode(node);
 	}
 
 	private boolean applyFilter(final NodeModel node,
 	                            final boolean hasMatchingAncestor, final boolean hasHiddenAncestor,
 	                            boolean hasMatchingDescendant) {
-		final boolean conditionSatisfied =  (condition == null || condition.checkNode(node));
+		final boolean conditionSatisfied =  (condition == null || satisfiesCondition(node));
 		final boolean matchesCombinedFilter;
 		if(appliesToVisibleNodesOnly()) {
-		    FilterInfo filterInfo = baseFilter.getFilterInfo(node);
-            final boolean alreadyMatched = filterInfo.isMatched();
+		    final int filterInfo = baseFilter.accessor.getInfo(node);
+            final boolean alreadyMatched = FilterInfo.isMatched(filterInfo);
 		    if(hidesMatchingNodes)
 		        matchesCombinedFilter = conditionSatisfied || alreadyMatched;
 		    else
-		        matchesCombinedFilter = conditionSatisfied && (alreadyMatched || filterInfo.isNotChecked());
+		        matchesCombinedFilter = conditionSatisfied && (alreadyMatched || FilterInfo.isNotChecked(filterInfo));
 		}
 		else {
 		    matchesCombinedFilter = conditionSatisfied;
@@ -177,7 +405,11 @@ public class Filter implements IExtension {
 	}
 
 	private boolean checkNode(final NodeModel node) {
-		return condition == null || ! shouldRemainInvisible(node) && condition.checkNode(node);
+		return condition == null || ! shouldRemainInvisible(node) && satisfiesCondition(node);
+	}
+
+	private boolean isCandidate(final NodeModel node) {
+		return candidates == null || candidates.test(node);
 	}
 
 	private boolean shouldRemainInvisible(final NodeModel node) {
@@ -220,12 +452,20 @@ public class Filter implements IExtension {
 		if (condition == null || node.isRoot()) {
 			return true;
 		}
-		FilterInfo filterInfo = getFilterInfo(node);
-        return filterInfo.isNotChecked() || filterInfo.matches(this.options) != hidesMatchingNodes;
+		final int filterInfo = accessor.getInfo(node);
+        return FilterInfo.isNotChecked(filterInfo) || FilterInfo.matches(filterInfo, this.options) != hidesMatchingNodes;
+	}
+
+	public boolean isMatched(final NodeModel node) {
+		return FilterInfo.isMatched(accessor.getInfo(node));
+	}
+
+	public boolean isAncestor(final NodeModel node) {
+		return FilterInfo.isAncestor(accessor.getInfo(node));
 	}
 
 	private void resetFilter(final NodeModel node) {
-		getFilterInfo(node).reset();
+		accessor.reset(node);
 	}
 
 	public FilterInfo getFilterInfo(final NodeModel node) {
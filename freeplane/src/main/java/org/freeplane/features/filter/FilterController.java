@@ -39,6 +39,7 @@ import java.io.Writer;
 import java.security.AccessControlException;
 import java.util.Collection;
 import java.util.Vector;
+import java.util.function.Predicate;
 
 import javax.swing.BorderFactory;
 import javax.swing.ButtonModel;
@@ -810,6 +811,7 @@ public class FilterController implements IExtension, IMapViewChangeListener {
 	NodeModel findNext(final NodeModel from, final NodeModel end, final Direction direction,
 	                   final ASelectableCondition condition, Filter filter) {
 		NodeModel next = from;
+		final Predicate<NodeModel> candidates = Filter.getCandidates(condition, from.getMap());
 		for (;;) {
 			do {
 				switch (direction) {
@@ -829,7 +831,7 @@ public class FilterController implements IExtension, IMapViewChangeListener {
 			if (next == from) {
 				break;
 			}
-			if (condition == null || condition.checkNode(next)) {
+			if (condition == null || (candidates == null || candidates.test(next)) && condition.checkNode(next)) {
 				return next;
 			}
 		}
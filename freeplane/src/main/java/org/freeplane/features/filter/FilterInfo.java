@@ -32,6 +32,8 @@ public class FilterInfo {
 	static public final FilterInfo TRANSPARENT = new FilterInfo(FILTER_SHOW_AS_MATCHED);
 	
 	private int info;
+	private final Filter.FilterInfoAccessor accessor;
+	private final int ordinal;
 
     public FilterInfo() {
         this(FILTER_SHOW_AS_INITIAL_VALUE);
@@ -39,36 +41,77 @@ public class FilterInfo {
     
     private FilterInfo(int info) {
         this.info = info;
+        this.accessor = null;
+        this.ordinal = -1;
+    }
+
+    /**
+     * Creates a view of the information stored by the accessor for the node with given ordinal.
+     */
+    FilterInfo(Filter.FilterInfoAccessor accessor, int ordinal) {
+        this.accessor = accessor;
+        this.ordinal = ordinal;
+    }
+
+    private int info() {
+        return accessor == null ? info : accessor.getInfo(ordinal);
+    }
+
+    private void setInfo(int info) {
+        if (accessor == null)
+            this.info = info;
+        else
+            accessor.setInfo(ordinal, info);
     }
 
 	void add(final int flag) {
+		setInfo(add(info(), flag));
+	}
+
+	static int add(int info, final int flag) {
 		if ((flag & (FilterInfo.FILTER_SHOW_AS_MATCHED | FilterInfo.FILTER_SHOW_AS_HIDDEN)) != 0) {
 			info &= ~FilterInfo.FILTER_SHOW_AS_INITIAL_VALUE;
 		}
-		info |= flag;
+		return info | flag;
 	}
 
 	/**
 	 */
 	public boolean isAncestor() {
+		return isAncestor(info());
+	}
+
+	static boolean isAncestor(final int info) {
 		return (info & FilterInfo.FILTER_SHOW_AS_ANCESTOR) != 0;
 	}
 
 	/**
 	 */
 	public boolean isMatched() {
+		return isMatched(info());
+	}
+
+	static boolean isMatched(final int info) {
 		return (info & FilterInfo.FILTER_SHOW_AS_MATCHED) != 0;
 	}
 
 	public void reset() {
-		info = FilterInfo.FILTER_SHOW_AS_INITIAL_VALUE;
+		setInfo(FilterInfo.FILTER_SHOW_AS_INITIAL_VALUE);
 	}
 
 	boolean matches(final int filterOptions) {
+		return matches(info(), filterOptions);
+	}
+
+	static boolean matches(final int info, final int filterOptions) {
 		return (filterOptions & info) != 0;
 	}
 
     boolean isNotChecked() {
-        return matches(FILTER_SHOW_AS_INITIAL_VALUE);
+        return isNotChecked(info());
+    }
+
+    static boolean isNotChecked(final int info) {
+        return matches(info, FILTER_SHOW_AS_INITIAL_VALUE);
     }
 }
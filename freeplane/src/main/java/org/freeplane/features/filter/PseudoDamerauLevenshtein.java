@@ -535,7 +535,7 @@ public class PseudoDamerauLevenshtein implements EditDistanceStringMatchingStrat
  		this.type = subStringMatch ? Type.SemiGlobal : Type.Global;
 	}
 
-	public boolean matches(String searchTerm, String searchText,
+	public synchronized boolean matches(String searchTerm, String searchText,
 			boolean subStringMatch) 
 	{
 		init(searchTerm, searchText, subStringMatch);
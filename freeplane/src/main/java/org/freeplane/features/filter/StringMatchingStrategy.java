@@ -25,7 +25,9 @@ public interface StringMatchingStrategy {
 	
 	double APPROXIMATE_MATCHING_MINPROB = ResourceController.getResourceController().getDoubleProperty("approximate_search_threshold");
 	
-	static final StringMatchingStrategy DEFAULT_APPROXIMATE_STRING_MATCHING_STRATEGY = new PseudoDamerauLevenshtein();
+	static final StringMatchingStrategy DEFAULT_APPROXIMATE_STRING_MATCHING_STRATEGY =
+			"asa_dynamic_programming".equals(ResourceController.getResourceController().getProperty("approximate_search_algorithm"))
+			? new PseudoDamerauLevenshtein() : new BitParallelPseudoDamerauLevenshtein();
 	static final StringMatchingStrategy EXACT_STRING_MATCHING_STRATEGY = new ExactStringMatchingStrategy();
 	
 	/**
@@ -0,0 +1,18 @@
+package org.freeplane.features.filter.condition;
+
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Condition which can check several nodes concurrently on worker threads.
+ * The map is not modified while the checks run.
+ */
+public interface IConcurrentCondition extends ICondition {
+	/**
+	 * Called on the thread which started filtering.
+	 *
+	 * @return true if {@link #checkNode(NodeModel)} can be called for the node on a worker thread,
+	 *         false if the node has to be checked on the thread which started filtering,
+	 *         e.g. because its text is computed by a formula.
+	 */
+	boolean canCheckConcurrently(NodeModel node);
+}
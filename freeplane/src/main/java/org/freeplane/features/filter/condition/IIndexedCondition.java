@@ -0,0 +1,18 @@
+package org.freeplane.features.filter.condition;
+
+import java.util.function.Predicate;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Condition which can use an index to exclude nodes before they are checked.
+ */
+public interface IIndexedCondition extends ICondition {
+	/**
+	 * @return predicate accepting at least all nodes of the map satisfying the condition,
+	 *         or null if no index can answer the condition.
+	 *         Nodes accepted by the predicate still need to be checked.
+	 */
+	Predicate<NodeModel> getCandidates(MapModel map);
+}
@@ -116,7 +116,7 @@ class FilePropertiesAction extends AFreeplaneAction {
             final ICondition matchesFilterCondition = new ICondition() {
                 @Override
 				public boolean checkNode(NodeModel node) {
-                    return filter.getFilterInfo(node).isMatched()  && ! node.isHiddenSummary();
+                    return filter.isMatched(node)  && ! node.isHiddenSummary();
                 }
             };
             nodeTotalFiltered = getNodeCount(rootNode, matchesFilterCondition);
@@ -29,9 +29,10 @@ import org.freeplane.features.icon.NamedIcon;
 import org.freeplane.features.icon.UIIcon;
 import org.freeplane.features.icon.UIIconSet;
 import org.freeplane.features.map.IMapChangeListener;
-import org.freeplane.features.map.INodeChangeListener;
+import org.freeplane.features.map.INodeChangeBatchListener;
 import org.freeplane.features.map.MapChangeEvent;
 import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeChangeBatchEvent;
 import org.freeplane.features.map.NodeChangeEvent;
 import org.freeplane.features.map.NodeDeletionEvent;
 import org.freeplane.features.map.NodeModel;
@@ -44,7 +45,7 @@ import org.freeplane.features.mode.PersistentNodeHook;
 import org.freeplane.features.styles.MapStyle;
 import org.freeplane.n3.nanoxml.XMLElement;
 
-public abstract class HierarchicalIcons extends PersistentNodeHook implements INodeChangeListener, IMapChangeListener, IExtension {
+public abstract class HierarchicalIcons extends PersistentNodeHook implements INodeChangeBatchListener, IMapChangeListener, IExtension {
 	public static final String ICONS = "hierarchical_icons";
 
     public static void install(final ModeController modeController) {
@@ -123,6 +124,12 @@ public abstract class HierarchicalIcons extends PersistentNodeHook implements IN
 		setStyleUpToRoot(node);
 	}
 
+	@Override
+	public void nodesChanged(final NodeChangeBatchEvent event) {
+		for (final NodeModel node : event.getNodes())
+			setStyleUpToRoot(node);
+	}
+
     @Override
 	public void onNodeDeleted(NodeDeletionEvent nodeDeletionEvent) {
 		setStyleUpToRoot(nodeDeletionEvent.parent);
@@ -0,0 +1,12 @@
+package org.freeplane.features.map;
+
+/**
+ * Node change listener which receives the changes made inside of an undo transaction
+ * as a single {@link NodeChangeBatchEvent} when the outermost transaction is committed or rolled back.
+ *
+ * Changes made outside of transactions are still passed to {@link #nodeChanged(NodeChangeEvent)} one by one.
+ * Listeners which must see every change while the transaction is still running should not implement this interface.
+ */
+public interface INodeChangeBatchListener extends INodeChangeListener {
+	void nodesChanged(NodeChangeBatchEvent event);
+}
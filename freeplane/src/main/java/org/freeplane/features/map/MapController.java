@@ -64,6 +64,8 @@ import org.freeplane.features.mode.AController.IActionOnChange;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.mode.SelectionController;
+import org.freeplane.features.note.NoteModel;
+import org.freeplane.features.text.DetailTextModel;
 import org.freeplane.features.ui.IMapViewManager;
 import org.freeplane.features.url.UrlManager;
 import org.freeplane.main.addons.AddOnsController;
@@ -257,6 +259,25 @@ implements IExtension, NodeChangeAnnouncer{
 		conditionFactory.addConditionController(75, new CloneConditionController());
 	}
 
+	/** Rough estimation of the heap memory used by a node without its texts, including its extensions and views. */
+	private static final int ESTIMATED_NODE_SIZE = 1024;
+
+	/**
+	 * @return estimated heap memory in bytes used by the subtree, used for limiting the undo history
+	 */
+	public static long estimateSubtreeSize(final NodeModel node) {
+		long estimatedSize = ESTIMATED_NODE_SIZE + 2L * (node.getText().length() + length(NoteModel.getNoteText(node))
+		        + length(DetailTextModel.getDetailTextText(node)));
+		for (final NodeModel child : node.getChildren()) {
+			estimatedSize += estimateSubtreeSize(child);
+		}
+		return estimatedSize;
+	}
+
+	private static int length(final String text) {
+		return text == null ? 0 : text.length();
+	}
+
 
 	public void addListenerForAction(final AFreeplaneAction action) {
 		if (action.checkEnabledOnChange()) {
@@ -354,6 +375,9 @@ implements IExtension, NodeChangeAnnouncer{
 		addNodeSelectionListener(actionSelectorOnChange);
 		addUINodeChangeListener(actionSelectorOnChange);
 		addUIMapChangeListener(actionSelectorOnChange);
+		final SubtreeXmlCache.Invalidator subtreeXmlCacheInvalidator = new SubtreeXmlCache.Invalidator();
+		addNodeChangeListener(subtreeXmlCacheInvalidator);
+		addMapChangeListener(subtreeXmlCacheInvalidator);
 		final MapClipboardController mapClipboardController = createMapClipboardController();
 		modeController.addExtension(MapClipboardController.class, mapClipboardController);
 		createActions(modeController);
@@ -508,7 +532,7 @@ implements IExtension, NodeChangeAnnouncer{
 			if(child.hasVisibleContent(filter)){
 				if (isFolded)
 					return true;
-			} else if (filter.getFilterInfo(node).isAncestor() && canBeUnfoldedOnCurrentView(child, filter)) {
+			} else if (filter.isAncestor(node) && canBeUnfoldedOnCurrentView(child, filter)) {
 				return true;
 			}
 		}
@@ -635,7 +659,22 @@ implements IExtension, NodeChangeAnnouncer{
 
 	private void fireNodeChanged(final NodeModel node, final NodeChangeEvent nodeChangeEvent) {
 		final INodeChangeListener[] nodeChangeListeners = this.nodeChangeListeners.toArray(new INodeChangeListener[]{});
-	    node.fireNodeChanged(nodeChangeListeners, nodeChangeEvent);
+		final NodeChangeBatcher batcher = NodeChangeBatcher.ofRunningTransaction(node.getMap());
+		if (batcher == null) {
+			node.fireNodeChanged(nodeChangeListeners, nodeChangeEvent);
+			return;
+		}
+		final List<INodeChangeListener> immediateListeners = new ArrayList<INodeChangeListener>(nodeChangeListeners.length);
+		final List<INodeChangeBatchListener> batchListeners = new ArrayList<INodeChangeBatchListener>();
+		for (final INodeChangeListener listener : nodeChangeListeners) {
+			if (listener instanceof INodeChangeBatchListener)
+				batchListeners.add((INodeChangeBatchListener) listener);
+			else
+				immediateListeners.add(listener);
+		}
+		node.fireNodeChanged(immediateListeners.toArray(new INodeChangeListener[]{}), nodeChangeEvent);
+		if (!batchListeners.isEmpty())
+			batcher.add(batchListeners, node, nodeChangeEvent);
 	}
 
 	protected void fireNodeDeleted(final NodeDeletionEvent nodeDeletionEvent) {
@@ -44,6 +44,8 @@ public class MapModel {
 	 * zero, such that new models are not to be saved.
 	 */
 	protected int changesPerformedSinceLastSave = 0;
+	/** counts all changes, it is not reset on save. */
+	private long modificationCount = 0;
 	private final ExtensionContainer extensionContainer;
 	private IconRegistry iconRegistry;
 	final private List<IMapChangeListener> listeners;
@@ -157,6 +159,10 @@ public class MapModel {
 		return changesPerformedSinceLastSave;
 	}
 
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
 	public NodeModel getRootNode() {
 		return root;
 	}
@@ -261,6 +267,7 @@ public class MapModel {
 		}
 		else {
 			++changesPerformedSinceLastSave;
+			++modificationCount;
 		}
 	}
 
@@ -49,7 +49,7 @@ public class MapWriter implements IElementWriter, IAttributeWriter {
 	        + System.getProperty("line.separator");
 
 	public enum Hint {
-		MODE
+		MODE, SUBTREE_CACHE
 	};
 
 	public enum Mode {
@@ -90,15 +90,48 @@ public class MapWriter implements IElementWriter, IAttributeWriter {
 
 	public void writeMapAsXml(final MapModel map, final Writer fileout, final Mode mode, final boolean saveInvisible,
 	                          final boolean forceFormat) throws IOException {
-		final TreeXmlWriter xmlWriter = createTreeWriter(fileout);
-		xmlWriter.setHint(Hint.MODE, mode);
-		if (forceFormat) {
-			xmlWriter.setHint(WriterHint.FORCE_FORMATTING);
+		final SubtreeXmlCache subtreeXmlCache = Mode.FILE.equals(mode) && saveInvisible && ! forceFormat
+		        ? SubtreeXmlCache.getCache(map) : null;
+		if(subtreeXmlCache != null && subtreeXmlCache.isRecording()) {
+			writeMapAsXml(map, fileout, mode, saveInvisible, forceFormat, null);
+		}
+		else
+			writeMapAsXml(map, fileout, mode, saveInvisible, forceFormat, subtreeXmlCache);
+	}
+
+	/**
+	 * Writes the map like a saved file. If incremental saving is switched on, the XML of nodes unchanged
+	 * since the previous snapshot or save is copied instead of serialized again.
+	 */
+	public void writeMapSnapshot(final MapModel map, final Writer snapshot) throws IOException {
+		writeMapAsXml(map, snapshot, Mode.FILE, true, false);
+	}
+
+	private void writeMapAsXml(final MapModel map, final Writer fileout, final Mode mode, final boolean saveInvisible,
+	                           final boolean forceFormat, final SubtreeXmlCache subtreeXmlCache) throws IOException {
+		boolean completed = false;
+		try {
+			final TreeXmlWriter xmlWriter;
+			if (subtreeXmlCache != null) {
+				xmlWriter = createTreeWriter(subtreeXmlCache.startRecording(fileout, isRestrictedCharset()));
+				xmlWriter.setHint(Hint.SUBTREE_CACHE, subtreeXmlCache);
+			}
+			else
+				xmlWriter = createTreeWriter(fileout);
+			xmlWriter.setHint(Hint.MODE, mode);
+			if (forceFormat) {
+				xmlWriter.setHint(WriterHint.FORCE_FORMATTING);
+			}
+			final XMLElement xmlMap = new XMLElement("map");
+			setSaveInvisible(saveInvisible);
+			xmlWriter.addElement(map, xmlMap);
+			xmlWriter.flush();
+			completed = true;
+		}
+		finally {
+			if (subtreeXmlCache != null)
+				subtreeXmlCache.stopRecording(completed);
 		}
-		final XMLElement xmlMap = new XMLElement("map");
-		setSaveInvisible(saveInvisible);
-		xmlWriter.addElement(map, xmlMap);
-		xmlWriter.flush();
 		fileout.close();
 	}
 
@@ -142,8 +175,11 @@ public class MapWriter implements IElementWriter, IAttributeWriter {
 	}
 
 	TreeXmlWriter createTreeWriter(final Writer writer) {
-		return new TreeXmlWriter(writeManager, writer, //
-			ResourceController.getResourceController().getBooleanProperty("useAsciiCharset"));
+		return new TreeXmlWriter(writeManager, writer, isRestrictedCharset());
+	}
+
+	private boolean isRestrictedCharset() {
+		return ResourceController.getResourceController().getBooleanProperty("useAsciiCharset");
 	}
 }
 
@@ -0,0 +1,42 @@
+package org.freeplane.features.map;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Changes of a map made inside of one undo transaction, coalesced per node and property.
+ * Each contained event has the old value of the first change and the new value of the last change.
+ */
+public class NodeChangeBatchEvent {
+	private final MapModel map;
+	private final List<NodeChangeEvent> events;
+
+	NodeChangeBatchEvent(final MapModel map, final List<NodeChangeEvent> events) {
+		this.map = map;
+		this.events = Collections.unmodifiableList(events);
+	}
+
+	public MapModel getMap() {
+		return map;
+	}
+
+	/** changes in the order of the first change of each node and property */
+	public List<NodeChangeEvent> getEvents() {
+		return events;
+	}
+
+	/** changed nodes in the order of their first change */
+	public Collection<NodeModel> getNodes() {
+		final Set<NodeModel> nodes = new LinkedHashSet<>();
+		for (final NodeChangeEvent event : events)
+			nodes.add(event.getNode());
+		return nodes;
+	}
+
+	public boolean isEmpty() {
+		return events.isEmpty();
+	}
+}
@@ -0,0 +1,86 @@
+package org.freeplane.features.map;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.undo.IUndoHandler;
+import org.freeplane.features.map.MapController.NodeRefreshKey;
+
+/**
+ * Collects the node changes made inside of the running undo transaction of a map for the
+ * {@link INodeChangeBatchListener}s and passes them on when the outermost transaction ends.
+ *
+ * Node views and map views are still updated for each change, because dialogs like the style editor
+ * keep a transaction open while they are shown and must repaint the nodes they edit.
+ */
+class NodeChangeBatcher implements IExtension, ChangeListener {
+	private final MapModel map;
+	private final IUndoHandler undoHandler;
+	private final Map<NodeRefreshKey, NodeChangeEvent> events;
+	private final Set<INodeChangeBatchListener> listeners;
+
+	/**
+	 * @return the batcher of the map or null if no undo transaction is running.
+	 */
+	static NodeChangeBatcher ofRunningTransaction(final MapModel map) {
+		final IUndoHandler undoHandler = map.getExtension(IUndoHandler.class);
+		if (undoHandler == null || undoHandler.getTransactionLevel() == 0)
+			return null;
+		NodeChangeBatcher batcher = map.getExtension(NodeChangeBatcher.class);
+		// undo handlers are replaced when maps are restored
+		if (batcher == null || batcher.undoHandler != undoHandler) {
+			batcher = new NodeChangeBatcher(map, undoHandler);
+			map.putExtension(batcher);
+			undoHandler.addChangeListener(batcher);
+		}
+		return batcher;
+	}
+
+	private NodeChangeBatcher(final MapModel map, final IUndoHandler undoHandler) {
+		this.map = map;
+		this.undoHandler = undoHandler;
+		events = new LinkedHashMap<>();
+		listeners = new LinkedHashSet<>();
+	}
+
+	void add(final Collection<INodeChangeBatchListener> batchListeners, final NodeModel node,
+	         final NodeChangeEvent event) {
+		listeners.addAll(batchListeners);
+		for (final NodeModel clone : node.allClones())
+			add(event.forNode(clone));
+	}
+
+	private void add(final NodeChangeEvent event) {
+		final NodeRefreshKey key = new NodeRefreshKey(event.getNode(), event.getProperty());
+		final NodeChangeEvent firstEvent = events.get(key);
+		if (firstEvent == null)
+			events.put(key, event);
+		else
+			events.put(key, new NodeChangeEvent(event.getNode(), event.getProperty(), firstEvent.getOldValue(),
+			    event.getNewValue(), firstEvent.setsDirtyFlag() || event.setsDirtyFlag(),
+			    firstEvent.updatesModificationTime() || event.updatesModificationTime()));
+	}
+
+	@Override
+	public void stateChanged(final ChangeEvent e) {
+		if (undoHandler.getTransactionLevel() == 0 && !events.isEmpty())
+			fireNodesChanged();
+	}
+
+	private void fireNodesChanged() {
+		final NodeChangeBatchEvent batchEvent = new NodeChangeBatchEvent(map, new ArrayList<>(events.values()));
+		final INodeChangeBatchListener[] batchListeners = listeners.toArray(new INodeChangeBatchListener[] {});
+		events.clear();
+		listeners.clear();
+		for (final INodeChangeBatchListener listener : batchListeners)
+			listener.nodesChanged(batchEvent);
+	}
+}
@@ -30,6 +30,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.freeplane.core.extension.ExtensionContainer;
 import org.freeplane.core.extension.IExtension;
@@ -330,6 +331,10 @@ public class NodeModel{
 		return sharedData.getXmlText();
 	}
 
+	public final void forEachStoredText(Consumer<String> consumer) {
+		sharedData.forEachStoredText(consumer);
+	}
+
 	public boolean hasChildren() {
 		return getChildCount() != 0;
 	}
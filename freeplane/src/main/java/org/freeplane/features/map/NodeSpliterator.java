@@ -0,0 +1,132 @@
+package org.freeplane.features.map;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Traverses a subtree top down (pre-order) or bottom up (post-order) using an explicit stack.
+ *
+ * The stack holds the pending subtrees and single nodes, its top is visited next.
+ * Splitting hands the upper half of the stack over to the new spliterator, so that it covers
+ * a prefix of the traversal made of whole subtrees.
+ */
+class NodeSpliterator implements Spliterator<NodeModel> {
+	private static final int INITIAL_CAPACITY = 16;
+	private final boolean bottomUp;
+	private NodeModel[] nodes;
+	private boolean[] singleNodes;
+	private int size;
+	private long estimatedSize;
+
+	NodeSpliterator(final NodeModel root, final boolean bottomUp) {
+		this(bottomUp, new NodeModel[INITIAL_CAPACITY], new boolean[INITIAL_CAPACITY], 0, Long.MAX_VALUE);
+		push(root, false);
+	}
+
+	private NodeSpliterator(final boolean bottomUp, final NodeModel[] nodes, final boolean[] singleNodes,
+	                        final int size, final long estimatedSize) {
+		this.bottomUp = bottomUp;
+		this.nodes = nodes;
+		this.singleNodes = singleNodes;
+		this.size = size;
+		this.estimatedSize = estimatedSize;
+	}
+
+	private void push(final NodeModel node, final boolean single) {
+		if (size == nodes.length) {
+			nodes = Arrays.copyOf(nodes, size * 2);
+			singleNodes = Arrays.copyOf(singleNodes, size * 2);
+		}
+		nodes[size] = node;
+		singleNodes[size] = single;
+		size++;
+	}
+
+	private void pushChildren(final List<NodeModel> children) {
+		for (int i = children.size() - 1; i >= 0; i--)
+			push(children.get(i), false);
+	}
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super NodeModel> action) {
+		while (size > 0) {
+			size--;
+			final NodeModel node = nodes[size];
+			final boolean single = singleNodes[size];
+			nodes[size] = null;
+			if (single) {
+				action.accept(node);
+				return true;
+			}
+			final List<NodeModel> children = node.getChildren();
+			if (!bottomUp) {
+				pushChildren(children);
+				action.accept(node);
+				return true;
+			}
+			if (children.isEmpty()) {
+				action.accept(node);
+				return true;
+			}
+			push(node, true);
+			pushChildren(children);
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(final Consumer<? super NodeModel> action) {
+		while (tryAdvance(action)) {
+		}
+	}
+
+	@Override
+	public Spliterator<NodeModel> trySplit() {
+		if (size == 1 && !singleNodes[0])
+			expandSingleSubtree();
+		if (size < 2)
+			return null;
+		final int prefixSize = size / 2;
+		final int prefixStart = size - prefixSize;
+		final int capacity = Math.max(INITIAL_CAPACITY, prefixSize * 2);
+		final NodeModel[] prefixNodes = new NodeModel[capacity];
+		final boolean[] prefixSingleNodes = new boolean[capacity];
+		System.arraycopy(nodes, prefixStart, prefixNodes, 0, prefixSize);
+		System.arraycopy(singleNodes, prefixStart, prefixSingleNodes, 0, prefixSize);
+		Arrays.fill(nodes, prefixStart, size, null);
+		size = prefixStart;
+		estimatedSize >>>= 1;
+		return new NodeSpliterator(bottomUp, prefixNodes, prefixSingleNodes, prefixSize, estimatedSize);
+	}
+
+	/**
+	 * Replaces the only pending subtree by its root node and its child subtrees, so that they can be split.
+	 */
+	private void expandSingleSubtree() {
+		final NodeModel node = nodes[0];
+		final List<NodeModel> children = node.getChildren();
+		if (children.isEmpty())
+			return;
+		size = 0;
+		if (bottomUp) {
+			push(node, true);
+			pushChildren(children);
+		}
+		else {
+			pushChildren(children);
+			push(node, true);
+		}
+	}
+
+	@Override
+	public long estimateSize() {
+		return size == 0 ? 0 : estimatedSize;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | DISTINCT | NONNULL;
+	}
+}
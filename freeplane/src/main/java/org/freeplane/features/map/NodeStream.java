@@ -1,16 +1,21 @@
 package org.freeplane.features.map;
 
-import java.util.Spliterator;
-import java.util.Spliterators;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class NodeStream {
     public static Stream<NodeModel> bottomUpOf(NodeModel node) {
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(NodeIterator.bottomUpOf(node), Spliterator.ORDERED), false);
+        return StreamSupport.stream(new NodeSpliterator(node, true), false);
     }
 
     public static Stream<NodeModel> of(NodeModel node) {
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(NodeIterator.of(node), Spliterator.ORDERED), false);
+        return StreamSupport.stream(new NodeSpliterator(node, false), false);
     }
-}
\ No newline at end of file
+
+    /**
+     * Parallel stream splitting the subtree at subtree boundaries. Only for operations safe to run outside of the event dispatch thread.
+     */
+    public static Stream<NodeModel> parallelOf(NodeModel node) {
+        return StreamSupport.stream(new NodeSpliterator(node, false), true);
+    }
+}
@@ -57,6 +57,8 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 
 	private final Map<SharedNodeData, NodeModel> alreadyWrittenSharedContent;
 	private final LinkBuilder linkBuilder;
+	private int writtenChildrenStart;
+	private int writtenChildrenEnd;
 
 	public NodeWriter(final MapController mapController, LinkBuilder linkBuilder, final String nodeTag, final boolean writeChildren,
 	                  final boolean writeInvisible) {
@@ -74,6 +76,11 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 	}
 
 	private void saveChildren(final ITreeWriter writer, final NodeModel node) throws IOException {
+		final Object subtreeXmlCache = writer.getHint(Hint.SUBTREE_CACHE);
+		if (subtreeXmlCache instanceof SubtreeXmlCache && writeInvisible) {
+			saveChildren((TreeXmlWriter) writer, node, (SubtreeXmlCache) subtreeXmlCache);
+			return;
+		}
 		for (final NodeModel child: node.getChildren()) {
 		if (writeInvisible || child.isVisible(FilterController.getFilter(node.getMap()))) {
 				writer.setHint(WriterHint.ALREADY_WRITTEN, isAlreadyWritten(child));
@@ -85,6 +92,41 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 		}
 	}
 
+	private void saveChildren(final TreeXmlWriter writer, final NodeModel node, final SubtreeXmlCache subtreeXmlCache)
+	        throws IOException {
+		int childrenStart = -1;
+		for (final NodeModel child : node.getChildren()) {
+			writer.writePendingStartTag();
+			final int start = subtreeXmlCache.outputLength();
+			if (childrenStart < 0)
+				childrenStart = start;
+			final int state = fragmentState(child);
+			final SubtreeXmlCache.Fragment fragment = subtreeXmlCache.getFragment(child, state);
+			if (fragment != null) {
+				writer.addElementContent(fragment.head);
+				if (child.hasChildren())
+					saveChildren(writer, child, subtreeXmlCache);
+				writer.addElementContent(fragment.tail);
+			}
+			else {
+				writer.setHint(WriterHint.ALREADY_WRITTEN, isAlreadyWritten(child));
+				writtenChildrenStart = -1;
+				writer.addElement(child, nodeTag);
+				subtreeXmlCache.storeFragment(child, state, start, writtenChildrenStart, writtenChildrenEnd,
+				    subtreeXmlCache.outputLength());
+			}
+		}
+		writtenChildrenStart = childrenStart;
+		writtenChildrenEnd = subtreeXmlCache.outputLength();
+	}
+
+	private int fragmentState(final NodeModel node) {
+		int state = mapController.isFolded(node) ? 1 : 0;
+		if (node.getParentNode().isRoot() && node.isLeft())
+			state |= 2;
+		return state;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
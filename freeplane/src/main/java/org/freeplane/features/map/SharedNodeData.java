@@ -19,8 +19,11 @@
  */
 package org.freeplane.features.map;
 
+import java.util.function.Consumer;
+
 import org.freeplane.core.extension.ExtensionContainer;
 import org.freeplane.core.extension.SmallExtensionMap;
+import org.freeplane.core.util.CompactTextStorage;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.XmlUtils;
 
@@ -58,6 +61,9 @@ public class SharedNodeData {
 	}
 
 	public Object getUserObject() {
+		final String xhtml = xmlText;
+		if (userObject == null && xhtml != null)
+			return CompactTextStorage.toHtml(xhtml);
 		return userObject;
 	}
 
@@ -77,7 +83,12 @@ public class SharedNodeData {
 
 	public void setXmlText(String content) {
 		xmlText = XmlUtils.makeValidXml(content);
-		userObject = HtmlUtils.toHtml(xmlText);
+		if (CompactTextStorage.isEnabled()) {
+			xmlText = CompactTextStorage.share(xmlText);
+			userObject = null;
+		}
+		else
+			userObject = HtmlUtils.toHtml(xmlText);
 	}
 
 	public void setText(String text) {
@@ -92,6 +103,22 @@ public class SharedNodeData {
 			userObject = " " + text;
 			xmlText = null;
 		}
+		if (CompactTextStorage.isEnabled()) {
+			if (xmlText != null) {
+				xmlText = CompactTextStorage.share(xmlText);
+				userObject = null;
+			}
+			else
+				userObject = CompactTextStorage.share((String) userObject);
+		}
+	}
+
+	/** Passes the stored texts, which are the HTML and the XHTML form or in compact mode only one of them. */
+	public void forEachStoredText(Consumer<String> consumer) {
+		if (userObject instanceof String)
+			consumer.accept((String) userObject);
+		if (xmlText != null)
+			consumer.accept(xmlText);
 	}
 
 	public void setFolded(boolean folded) {
@@ -0,0 +1,284 @@
+package org.freeplane.features.map;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.resources.ResourceController;
+
+/**
+ * Keeps XML fragments written for each node of a map during the last save,
+ * so that the next save can copy the fragments of unchanged nodes
+ * instead of serializing them again.
+ *
+ * Each node owns its start tag with its own content (head) and its end tag (tail),
+ * children are written between them. A fragment is dropped when the node changes,
+ * when its children are inserted, moved or deleted and when the node gets cloned or encrypted.
+ * The total length of the fragments is limited, the least recently used fragments are dropped first.
+ */
+public class SubtreeXmlCache implements IExtension {
+	public static final String INCREMENTAL_SAVE_PROPERTY = "experimental_incremental_save";
+	public static final String CACHE_SIZE_PROPERTY = "incremental_save_cache_size";
+
+	static class Fragment {
+		final String head;
+		final String tail;
+		final int state;
+
+		Fragment(String head, String tail, int state) {
+			super();
+			this.head = head;
+			this.tail = tail;
+			this.state = state;
+		}
+
+		int length() {
+			return head.length() + tail.length();
+		}
+	}
+
+	private static class RecordingWriter extends Writer {
+		private final Writer out;
+		private final StringBuilder record;
+
+		RecordingWriter(Writer out) {
+			this.out = out;
+			this.record = new StringBuilder();
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			out.write(cbuf, off, len);
+			record.append(cbuf, off, len);
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			out.write(str, off, len);
+			record.append(str, off, len);
+		}
+
+		@Override
+		public void write(int c) throws IOException {
+			out.write(c);
+			record.append((char) c);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+
+	public static SubtreeXmlCache getCache(final MapModel map) {
+		if (!ResourceController.getResourceController().getBooleanProperty(INCREMENTAL_SAVE_PROPERTY)) {
+			map.removeExtension(SubtreeXmlCache.class);
+			return null;
+		}
+		SubtreeXmlCache cache = map.getExtension(SubtreeXmlCache.class);
+		if (cache == null) {
+			cache = new SubtreeXmlCache();
+			map.addExtension(cache);
+		}
+		return cache;
+	}
+
+	private final Map<NodeModel, Fragment> fragments;
+	private long fragmentLength;
+	private long maximumFragmentLength;
+	private String configuration;
+	private RecordingWriter recorder;
+	private int reusedNodeCount;
+	private int writtenNodeCount;
+
+	SubtreeXmlCache() {
+		fragments = new LinkedHashMap<NodeModel, Fragment>(16, 0.75f, true);
+	}
+
+	Writer startRecording(final Writer writer, final boolean restrictedCharset) {
+		final ResourceController resourceController = ResourceController.getResourceController();
+		final String currentConfiguration = resourceController.getProperty(NodeBuilder.RESOURCES_SAVE_FOLDING)
+		        + ',' + resourceController.getBooleanProperty(NodeBuilder.RESOURCES_SAVE_MODIFICATION_TIMES)
+		        + ',' + restrictedCharset;
+		// two bytes per character
+		final long maximumLength = resourceController.getIntProperty(CACHE_SIZE_PROPERTY, 32) * 1024L * 512L;
+		return startRecording(writer, currentConfiguration, maximumLength);
+	}
+
+	Writer startRecording(final Writer writer, final String currentConfiguration, final long maximumLength) {
+		if (!currentConfiguration.equals(configuration)) {
+			clear();
+			configuration = currentConfiguration;
+		}
+		maximumFragmentLength = maximumLength;
+		reusedNodeCount = writtenNodeCount = 0;
+		recorder = new RecordingWriter(writer);
+		return recorder;
+	}
+
+	void stopRecording(final boolean completed) {
+		recorder = null;
+		if (!completed)
+			clear();
+	}
+
+	boolean isRecording() {
+		return recorder != null;
+	}
+
+	int outputLength() {
+		return recorder.record.length();
+	}
+
+	Fragment getFragment(final NodeModel node, final int state) {
+		final Fragment fragment = fragments.get(node);
+		if (fragment == null)
+			return null;
+		if (fragment.state != state || !isCacheable(node)) {
+			remove(node);
+			return null;
+		}
+		reusedNodeCount++;
+		return fragment;
+	}
+
+	void storeFragment(final NodeModel node, final int state, final int start, final int childrenStart,
+	                   final int childrenEnd, final int end) {
+		writtenNodeCount++;
+		if (!isCacheable(node)) {
+			return;
+		}
+		final StringBuilder record = recorder.record;
+		final Fragment fragment;
+		if (childrenStart >= 0)
+			fragment = new Fragment(copy(record, start, childrenStart), copy(record, childrenEnd, end), state);
+		else
+			fragment = new Fragment(copy(record, start, end), "", state);
+		if (fragment.length() > maximumFragmentLength) {
+			remove(node);
+			return;
+		}
+		final Fragment oldFragment = fragments.put(node, fragment);
+		if (oldFragment != null)
+			fragmentLength -= oldFragment.length();
+		fragmentLength += fragment.length();
+		for (final Iterator<Fragment> iterator = fragments.values().iterator(); fragmentLength > maximumFragmentLength;) {
+			fragmentLength -= iterator.next().length();
+			iterator.remove();
+		}
+	}
+
+	/** Copies the characters, so that a fragment never keeps the output of the whole map. */
+	private static String copy(final StringBuilder record, final int start, final int end) {
+		final char[] chars = new char[end - start];
+		record.getChars(start, end, chars, 0);
+		return new String(chars);
+	}
+
+	private void remove(final NodeModel node) {
+		final Fragment fragment = fragments.remove(node);
+		if (fragment != null)
+			fragmentLength -= fragment.length();
+	}
+
+	/**
+	 * @return total length of the kept fragments in characters
+	 */
+	public long getFragmentLength() {
+		return fragmentLength;
+	}
+
+	private boolean isCacheable(final NodeModel node) {
+		return !node.containsExtension(EncryptionModel.class) && node.allClones().size() == 1;
+	}
+
+	public void invalidate(final NodeModel node) {
+		remove(node);
+	}
+
+	public void invalidateSubtree(final NodeModel node) {
+		if (fragments.isEmpty())
+			return;
+		remove(node);
+		for (final NodeModel child : node.getChildren())
+			invalidateSubtree(child);
+	}
+
+	public void clear() {
+		fragments.clear();
+		fragmentLength = 0;
+	}
+
+	/**
+	 * @return number of nodes copied from the cache during the last save
+	 */
+	public int getReusedNodeCount() {
+		return reusedNodeCount;
+	}
+
+	/**
+	 * @return number of nodes serialized during the last save
+	 */
+	public int getWrittenNodeCount() {
+		return writtenNodeCount;
+	}
+
+	static class Invalidator implements INodeChangeListener, IMapChangeListener {
+		private SubtreeXmlCache cache(final NodeModel node) {
+			return node.getMap().getExtension(SubtreeXmlCache.class);
+		}
+
+		@Override
+		public void nodeChanged(final NodeChangeEvent event) {
+			final SubtreeXmlCache cache = cache(event.getNode());
+			if (cache != null)
+				cache.invalidate(event.getNode());
+		}
+
+		@Override
+		public void mapChanged(final MapChangeEvent event) {
+			final MapModel map = event.getMap();
+			if (map != null && event.setsDirtyFlag()) {
+				final SubtreeXmlCache cache = map.getExtension(SubtreeXmlCache.class);
+				if (cache != null)
+					cache.clear();
+			}
+		}
+
+		@Override
+		public void onNodeDeleted(final NodeDeletionEvent nodeDeletionEvent) {
+			final SubtreeXmlCache cache = cache(nodeDeletionEvent.parent);
+			if (cache != null) {
+				cache.invalidate(nodeDeletionEvent.parent);
+				cache.invalidateSubtree(nodeDeletionEvent.node);
+			}
+		}
+
+		@Override
+		public void onNodeInserted(final NodeModel parent, final NodeModel child, final int newIndex) {
+			final SubtreeXmlCache cache = cache(parent);
+			if (cache != null) {
+				cache.invalidate(parent);
+				cache.invalidateSubtree(child);
+			}
+		}
+
+		@Override
+		public void onNodeMoved(final NodeMoveEvent nodeMoveEvent) {
+			final SubtreeXmlCache cache = cache(nodeMoveEvent.newParent);
+			if (cache != null) {
+				cache.invalidate(nodeMoveEvent.oldParent);
+				cache.invalidate(nodeMoveEvent.newParent);
+				cache.invalidate(nodeMoveEvent.child);
+			}
+		}
+	}
+}
@@ -31,6 +31,7 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -47,11 +48,14 @@ import org.freeplane.features.clipboard.ClipboardController;
 import org.freeplane.features.filter.FilterController;
 import org.freeplane.features.link.NodeLinks;
 import org.freeplane.features.map.IMapSelection;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.MapReader;
 import org.freeplane.features.map.MapWriter.Mode;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.nodestyle.NodeStyleModel;
+import org.freeplane.features.styles.MapStyleModel;
 import org.freeplane.features.text.TextController;
 
 /**
@@ -88,12 +92,104 @@ public class MapClipboardController implements IExtension, ClipboardController {
 		}
 	}
 
+	/**
+	 * Nodes the text, RTF and HTML flavors of a copied selection are rendered from.
+	 * These are the copied nodes as long as they are unchanged and still belong to the map,
+	 * otherwise nodes restored from the xml taken when copying.
+	 * The nodes are restored into a separate map, so that reading the clipboard never changes the copied map.
+	 */
+	private class CopiedNodes {
+		private final Collection<NodeModel> selectedNodes;
+		private final MapModel map;
+		private final boolean copyInvisible;
+		private final String forNodesFlavor;
+		private Collection<NodeModel> restoredNodes;
+		private long checkedModificationCount = -1;
+		private boolean unchanged;
+
+		CopiedNodes(final Collection<NodeModel> selectedNodes, final boolean copyInvisible, final String forNodesFlavor) {
+			this.selectedNodes = new ArrayList<NodeModel>(selectedNodes);
+			this.map = this.selectedNodes.iterator().next().getMap();
+			this.copyInvisible = copyInvisible;
+			this.forNodesFlavor = forNodesFlavor;
+		}
+
+		Collection<NodeModel> get() {
+			if (restoredNodes == null && areUnchanged())
+				return selectedNodes;
+			if (restoredNodes == null)
+				restoredNodes = restore();
+			return restoredNodes;
+		}
+
+		private boolean areUnchanged() {
+			final long modificationCount = map.getModificationCount();
+			if (modificationCount != checkedModificationCount) {
+				unchanged = compareWithCopiedXml();
+				checkedModificationCount = modificationCount;
+			}
+			return unchanged;
+		}
+
+		private boolean compareWithCopiedXml() {
+			for (final NodeModel node : selectedNodes) {
+				if (!belongsToMap(node))
+					return false;
+			}
+			try {
+				return forNodesFlavor.equals(createForNodesFlavor(selectedNodes, copyInvisible));
+			}
+			catch (final UnsupportedFlavorException | IOException e) {
+				return false;
+			}
+		}
+
+		private boolean belongsToMap(final NodeModel node) {
+			NodeModel ancestor = node;
+			while (ancestor.getParentNode() != null)
+				ancestor = ancestor.getParentNode();
+			return ancestor == map.getRootNode();
+		}
+
+		private Collection<NodeModel> restore() {
+			final MapReader mapReader = Controller.getCurrentModeController().getMapController().getMapReader();
+			final MapModel restoredMap = createRestoredMap();
+			final List<NodeModel> nodes = new ArrayList<NodeModel>(selectedNodes.size());
+			try {
+				for (final String nodeXml : forNodesFlavor.split(NODESEPARATOR)) {
+					final NodeModel node = mapReader.createNodeTreeFromXml(restoredMap, new StringReader(nodeXml), Mode.CLIPBOARD);
+					node.setFolded(false);
+					nodes.add(node);
+				}
+				return nodes;
+			}
+			catch (final Exception e) {
+				LogUtils.warn(e);
+				return selectedNodes;
+			}
+		}
+
+		private MapModel createRestoredMap() {
+			final MapModel restoredMap = new MapModel();
+			final NodeModel restoredRoot = new NodeModel(restoredMap);
+			restoredMap.setRoot(restoredRoot);
+			final MapStyleModel mapStyleModel = map.getRootNode().getExtension(MapStyleModel.class);
+			if (mapStyleModel != null)
+				restoredRoot.addExtension(mapStyleModel);
+			return restoredMap;
+		}
+	}
+
+	/**
+	 * Copies the nodes as xml. The text, RTF and HTML flavors are only rendered
+	 * if they are requested, e.g. by another application pasting the clipboard content.
+	 */
 	public MindMapNodesSelection copy(final Collection<NodeModel> selectedNodes, final boolean copyInvisible) {
 		try {
 			final String forNodesFlavor = createForNodesFlavor(selectedNodes, copyInvisible);
-			final String plainText = getAsPlainText(selectedNodes);
-			return new MindMapNodesSelection(forNodesFlavor, plainText, getAsRTF(selectedNodes),
-			    getAsHTML(selectedNodes));
+			final CopiedNodes copiedNodes = new CopiedNodes(selectedNodes, copyInvisible, forNodesFlavor);
+			return new MindMapNodesSelection(forNodesFlavor, () -> getAsPlainText(copiedNodes.get()),
+			    () -> getAsRTF(copiedNodes.get()), () -> getAsHTML(copiedNodes.get()));
 		}
 		catch (final UnsupportedFlavorException ex) {
 			LogUtils.severe(ex);
@@ -146,18 +242,18 @@ public class MapClipboardController implements IExtension, ClipboardController {
 
 	public String createForNodesFlavor(final Collection<NodeModel> selectedNodes, final boolean copyInvisible)
 	        throws UnsupportedFlavorException, IOException {
-		String forNodesFlavor = "";
+		final StringBuilder forNodesFlavor = new StringBuilder();
 		boolean firstLoop = true;
 		for (final NodeModel tmpNode : selectedNodes) {
 			if (firstLoop) {
 				firstLoop = false;
 			}
 			else {
-				forNodesFlavor += "<nodeseparator>";
+				forNodesFlavor.append(NODESEPARATOR);
 			}
-			forNodesFlavor += copy(tmpNode, copyInvisible).getTransferData(MindMapNodesSelection.mindMapNodesFlavor);
+			forNodesFlavor.append(copy(tmpNode, copyInvisible).getTransferData(MindMapNodesSelection.mindMapNodesFlavor));
 		}
-		return forNodesFlavor;
+		return forNodesFlavor.toString();
 	}
 
 	public String getAsHTML(final Collection<NodeModel> selectedNodes) {
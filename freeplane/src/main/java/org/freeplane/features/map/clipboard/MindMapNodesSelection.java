@@ -19,13 +19,20 @@
  */
 package org.freeplane.features.map.clipboard;
 
+import java.awt.EventQueue;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.ClipboardOwner;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
 import java.awt.datatransfer.UnsupportedFlavorException;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.features.map.NodeModel;
@@ -52,30 +59,80 @@ public class MindMapNodesSelection implements Transferable, ClipboardOwner {
 			LogUtils.severe(e);
 		}
 	}
-	final private String htmlContent;
+
+	/**
+	 * Text flavor rendered when it is first requested.
+	 *
+	 * Rendering accesses the map model, so it always runs on the event dispatch thread.
+	 * Requests from other threads, e.g. from other applications pasting the clipboard content,
+	 * wait for it at most {@link #MAXIMAL_RENDERING_WAIT_MILLISECONDS}.
+	 */
+	static class LazyContent {
+		static final long MAXIMAL_RENDERING_WAIT_MILLISECONDS = 10000;
+		private final FutureTask<String> renderer;
+
+		LazyContent(final Supplier<String> renderer) {
+			this.renderer = new FutureTask<>(renderer::get);
+		}
+
+		String get() throws IOException {
+			if (EventQueue.isDispatchThread())
+				renderer.run();
+			else if (!renderer.isDone())
+				EventQueue.invokeLater(renderer);
+			try {
+				return renderer.get(MAXIMAL_RENDERING_WAIT_MILLISECONDS, TimeUnit.MILLISECONDS);
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+			catch (final ExecutionException | TimeoutException e) {
+				throw new IOException(e);
+			}
+		}
+	}
+
+	final private LazyContent htmlContent;
 	final private String nodesContent;
-	final private String rtfContent;
-	final private String stringContent;
+	final private LazyContent rtfContent;
+	final private LazyContent stringContent;
 	private String dropActionContent;
 	private Collection<NodeModel> nodes;
 	private boolean selectionContainsSingleNodes;
 
 	public MindMapNodesSelection(final String nodesContent, final String stringContent, final String rtfContent,
 	                             final String htmlContent) {
+		this(nodesContent, constant(stringContent), constant(rtfContent), constant(htmlContent));
+	}
+
+	/**
+	 * Creates a selection whose text, RTF and HTML flavors are only rendered if they are requested.
+	 */
+	public MindMapNodesSelection(final String nodesContent, final Supplier<String> stringContent,
+	                             final Supplier<String> rtfContent, final Supplier<String> htmlContent) {
 		this.nodesContent = nodesContent;
-		this.rtfContent = rtfContent;
-		this.stringContent = stringContent;
-		this.htmlContent = htmlContent;
+		this.stringContent = lazy(stringContent);
+		this.rtfContent = lazy(rtfContent);
+		this.htmlContent = lazy(htmlContent);
 		this.dropActionContent = null;
 	}
 
 	public MindMapNodesSelection(final String nodesContent) {
-	    this(nodesContent, null, null, null);
+	    this(nodesContent, (Supplier<String>) null, null, null);
     }
 
-	public Object getTransferData(final DataFlavor flavor) throws UnsupportedFlavorException {
+	private static Supplier<String> constant(final String content) {
+		return content == null ? null : () -> content;
+	}
+
+	private static LazyContent lazy(final Supplier<String> renderer) {
+		return renderer == null ? null : new LazyContent(renderer);
+	}
+
+	public Object getTransferData(final DataFlavor flavor) throws UnsupportedFlavorException, IOException {
 		if (flavor.equals(DataFlavor.stringFlavor)) {
-			return stringContent;
+			return stringContent == null ? null : stringContent.get();
 		}
 		if (flavor.equals(MindMapNodesSelection.mindMapNodesFlavor)) {
 			return nodesContent;
@@ -83,12 +140,15 @@ public class MindMapNodesSelection implements Transferable, ClipboardOwner {
 		if (flavor.equals(MindMapNodesSelection.dropActionFlavor)) {
 			return dropActionContent;
 		}
-		if (flavor.equals(MindMapNodesSelection.rtfFlavor)) {
-			final byte[] byteArray = rtfContent.getBytes();
-			return new ByteArrayInputStream(byteArray);
+		if (flavor.equals(MindMapNodesSelection.rtfFlavor) && rtfContent != null) {
+			final String rtf = rtfContent.get();
+			if (rtf != null) {
+				final byte[] byteArray = rtf.getBytes();
+				return new ByteArrayInputStream(byteArray);
+			}
 		}
 		if (flavor.equals(MindMapNodesSelection.htmlFlavor) && htmlContent != null) {
-			return htmlContent;
+			return htmlContent.get();
 		}
 		if (containsObjectsFor(flavor)) {
 			return nodes;
@@ -353,6 +353,8 @@ public class MMapController extends MapController {
                                   final boolean newNodeIsLeft) {
 	    final MapModel map = parent.getMap();
 		newNode.setLeft(newNodeIsLeft);
+		// keeps the default estimated size: the inserted subtree is retained by the map,
+		// and after its deletion by the deletion actor which accounts for it
 		final IActor actor = new IActor() {
 			@Override
 			public void act() {
@@ -418,6 +420,7 @@ public class MMapController extends MapController {
 		modeController.addAction(new NodeDownAction());
 		modeController.addAction(new ConvertCloneToIndependentNodeAction());
 		modeController.addAction(new CommandSearchAction());
+		modeController.addAction(new MapTextMemoryReportAction());
 	}
 
 	public void deleteNode(NodeModel node) {
@@ -504,6 +507,11 @@ public class MMapController extends MapController {
 			public void undo() {
 				(Controller.getCurrentModeController().getMapController()).insertNodeIntoWithoutUndo(node, parentNode, index);
         	}
+
+        	@Override
+			public long estimatedSize() {
+        		return MapController.estimateSubtreeSize(node);
+        	}
         };
 		Controller.getCurrentModeController().execute(actor, parentNode.getMap());
     }
@@ -0,0 +1,120 @@
+package org.freeplane.features.map.mindmapmode;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.freeplane.core.undo.IUndoHandler;
+import org.freeplane.core.util.CompactTextStorage;
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.attribute.Attribute;
+import org.freeplane.features.attribute.NodeAttributeTableModel;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.NodeStream;
+import org.freeplane.features.note.NoteModel;
+import org.freeplane.features.text.DetailTextModel;
+
+/**
+ * Estimates the heap used by the texts, notes, details and attributes of a map.
+ *
+ * Texts shared by several nodes, e.g. by clones or by {@link CompactTextStorage}, are counted once.
+ * HTML derived from stored XHTML texts is counted while it is cached.
+ * The memory retained by the undo history is reported separately as estimated by its actors.
+ * The estimate assumes a 64 bit JVM with compressed references and compact strings.
+ */
+class MapTextMemoryReport {
+	/** header and fields of the string and header of its value array */
+	private static final int STRING_OVERHEAD_BYTES = 40;
+
+	private final Set<String> countedTexts = Collections.newSetFromMap(new IdentityHashMap<String, Boolean>());
+	private int nodeCount;
+	private long textBytes;
+	private long noteBytes;
+	private long detailBytes;
+	private long attributeBytes;
+	private long derivedHtmlBytes;
+	private final long undoBytes;
+
+	MapTextMemoryReport(MapModel map) {
+		NodeStream.of(map.getRootNode()).forEach(this::count);
+		CompactTextStorage.forEachDerivedHtml((xhtml, html) -> {
+			if (countedTexts.contains(xhtml))
+				derivedHtmlBytes += sizeOf(html);
+		});
+		final IUndoHandler undoHandler = map.getExtension(IUndoHandler.class);
+		undoBytes = undoHandler != null ? undoHandler.getEstimatedMemoryUsage() : 0;
+	}
+
+	private void count(NodeModel node) {
+		nodeCount++;
+		node.forEachStoredText(text -> textBytes += sizeOf(text));
+		final NoteModel note = NoteModel.getNote(node);
+		if (note != null)
+			note.forEachStoredText(text -> noteBytes += sizeOf(text));
+		final DetailTextModel details = DetailTextModel.getDetailText(node);
+		if (details != null)
+			details.forEachStoredText(text -> detailBytes += sizeOf(text));
+		final NodeAttributeTableModel attributes = node.getExtension(NodeAttributeTableModel.class);
+		if (attributes != null) {
+			for (int row = 0; row < attributes.getRowCount(); row++) {
+				final Attribute attribute = attributes.getAttribute(row);
+				attributeBytes += sizeOf(attribute.getName());
+				if (attribute.getValue() instanceof String)
+					attributeBytes += sizeOf((String) attribute.getValue());
+			}
+		}
+	}
+
+	private long sizeOf(String text) {
+		if (!countedTexts.add(text))
+			return 0;
+		return STRING_OVERHEAD_BYTES + (isLatin1(text) ? text.length() : 2L * text.length());
+	}
+
+	private static boolean isLatin1(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) > 0xFF)
+				return false;
+		}
+		return true;
+	}
+
+	int getNodeCount() {
+		return nodeCount;
+	}
+
+	long getTextBytes() {
+		return textBytes;
+	}
+
+	long getNoteBytes() {
+		return noteBytes;
+	}
+
+	long getDetailBytes() {
+		return detailBytes;
+	}
+
+	long getAttributeBytes() {
+		return attributeBytes;
+	}
+
+	long getDerivedHtmlBytes() {
+		return derivedHtmlBytes;
+	}
+
+	long getUndoBytes() {
+		return undoBytes;
+	}
+
+	String format() {
+		return TextUtils.format("map_text_memory_report", nodeCount, kilobytes(textBytes), kilobytes(noteBytes),
+		    kilobytes(detailBytes), kilobytes(attributeBytes), kilobytes(derivedHtmlBytes),
+		    kilobytes(textBytes + noteBytes + detailBytes + attributeBytes + derivedHtmlBytes), kilobytes(undoBytes));
+	}
+
+	private static long kilobytes(long bytes) {
+		return (bytes + 1023) / 1024;
+	}
+}
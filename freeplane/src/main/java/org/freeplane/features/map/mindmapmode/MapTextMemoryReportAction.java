@@ -0,0 +1,23 @@
+package org.freeplane.features.map.mindmapmode;
+
+import java.awt.event.ActionEvent;
+
+import org.freeplane.core.ui.AFreeplaneAction;
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.mode.Controller;
+
+class MapTextMemoryReportAction extends AFreeplaneAction {
+	private static final long serialVersionUID = 1L;
+
+	public MapTextMemoryReportAction() {
+		super("MapTextMemoryReportAction");
+	}
+
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		final MapModel map = Controller.getCurrentController().getMap();
+		if (map != null)
+			UITools.informationMessage(new MapTextMemoryReport(map).format());
+	}
+}
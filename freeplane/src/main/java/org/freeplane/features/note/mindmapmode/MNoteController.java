@@ -264,6 +264,11 @@ public class MNoteController extends NoteController {
 				return "setNoteText";
 			}
 
+			@Override
+			public long estimatedSize() {
+				return IActor.estimatedSizeOf(oldText);
+			}
+
 			private void setText(final String text) {
 				final boolean enabled = !(text == null || text.equals(""));
 				if (enabled) {
@@ -20,11 +20,14 @@
 package org.freeplane.features.styles;
 
 import java.awt.Component;
-import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.core.io.IAttributeHandler;
@@ -38,6 +41,10 @@ import org.freeplane.core.undo.IActor;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.condition.ASelectableCondition;
+import org.freeplane.features.filter.condition.ICondition;
+import org.freeplane.features.filter.condition.SelectedViewCondition;
+import org.freeplane.features.link.ConnectorLabelCondition;
+import org.freeplane.features.map.CloneOfSelectedViewCondition;
 import org.freeplane.features.map.IMapChangeListener;
 import org.freeplane.features.map.INodeChangeListener;
 import org.freeplane.features.map.ITooltipProvider;
@@ -64,13 +71,21 @@ public class LogicalStyleController implements IExtension {
 // 	final private ModeController modeController;
 
 	private static final int STYLE_TOOLTIP = 0;
-	private WeakReference<NodeModel> cachedNode;
-	private Collection<IStyle>  cachedStyle;
 	final private CombinedPropertyChain<Collection<IStyle>, NodeModel> styleHandlers;
+	final private List<ConditionPredicate> uncacheableConditions;
+	final private ThreadLocal<int[]> styleEvaluationDepth = ThreadLocal.withInitial(() -> new int[1]);
 
 	public LogicalStyleController(ModeController modeController) {
 //	    this.modeController = modeController;
 		styleHandlers = new CombinedPropertyChain<Collection<IStyle>, NodeModel>(false);
+		uncacheableConditions = new CopyOnWriteArrayList<ConditionPredicate>();
+		addUncacheableCondition(new ConditionPredicate() {
+			@Override
+			public boolean test(ICondition condition) {
+				return condition instanceof SelectedViewCondition || condition instanceof CloneOfSelectedViewCondition
+				        || condition instanceof ConnectorLabelCondition;
+			}
+		});
 		createBuilder();
 		registerChangeListener();
 		addStyleGetter(IPropertyHandler.NODE, new IPropertyHandler<Collection<IStyle>, NodeModel>() {
@@ -98,7 +113,7 @@ public class LogicalStyleController implements IExtension {
 			public String getTooltip(ModeController modeController, NodeModel node, Component view) {
 				if(!ResourceController.getResourceController().getBooleanProperty("show_styles_in_tooltip"))
 					return null;
-				final Collection<IStyle> styles = getStyles(node);
+				final Collection<IStyle> styles = new ArrayList<IStyle>(getStyles(node));
 				if(styles.size() > 0)
 					styles.remove(styles.iterator().next());
 				final String label = TextUtils.getText("node_styles");
@@ -143,7 +158,6 @@ public class LogicalStyleController implements IExtension {
 			if(conditionalStyleModel == null)
 				return;
 			Collection<IStyle> styles = conditionalStyleModel.getStyles(node);
-			cachedNode = null;
 			addAll(node, styleModel, currentValue, styles);
     }
 
@@ -152,32 +166,35 @@ public class LogicalStyleController implements IExtension {
 		final MapController mapController = modeController.getMapController();
 		mapController.addMapChangeListener(new IMapChangeListener() {
 			public void onPreNodeMoved(NodeMoveEvent nodeMoveEvent) {
-				clearCache();
+				clearCache(nodeMoveEvent.oldParent.getMap());
 			}
 
 			public void onPreNodeDelete(NodeDeletionEvent nodeDeletionEvent) {
-				clearCache();
+				clearCache(nodeDeletionEvent.parent.getMap());
 			}
 
 			public void onNodeMoved(NodeMoveEvent nodeMoveEvent) {
-				clearCache();
+				clearCache(nodeMoveEvent.newParent.getMap());
 			}
 
 			public void onNodeInserted(NodeModel parent, NodeModel child, int newIndex) {
-				clearCache();
+				clearCache(parent.getMap());
 			}
 
 			public void onNodeDeleted(NodeDeletionEvent nodeDeletionEvent) {
-				clearCache();
+				clearCache(nodeDeletionEvent.parent.getMap());
 			}
 
 			public void mapChanged(MapChangeEvent event) {
-				clearCache();
+				clearCache(event.getMap());
 			}
 		});
 		mapController.addNodeChangeListener(new INodeChangeListener() {
 			public void nodeChanged(NodeChangeEvent event) {
-				clearCache();
+				final NodeModel node = event.getNode();
+				final ResolvedStyleCache cache = node.getMap().getExtension(ResolvedStyleCache.class);
+				if (cache != null)
+					cache.invalidate(node);
 			}
 		});
 
@@ -299,14 +316,55 @@ public class LogicalStyleController implements IExtension {
 		return MapStyleModel.DEFAULT_STYLE;
 	}
 	public Collection<IStyle>  getStyles(final NodeModel node) {
-		if(cachedNode != null && node.equals(cachedNode.get())){
-			return cachedStyle;
+		final MapModel map = node.getMap();
+		final ResolvedStyleCache cache = map == null ? null : ResolvedStyleCache.getCache(map);
+		if (cache != null) {
+			final Collection<IStyle> cachedStyles = cache.get(node);
+			if (cachedStyles != null)
+				return cachedStyles;
 		}
-		cachedStyle = null;
-		cachedNode = null;
-		cachedStyle = styleHandlers.getProperty(node, new LinkedHashSet<IStyle>());
-		cachedNode = new WeakReference<NodeModel>(node);
-		return cachedStyle;
+		final Collection<IStyle> styles = Collections.unmodifiableCollection(evaluateStyles(node));
+		if (cache != null) {
+			// styles evaluated by conditions during evaluation of other styles are incomplete
+			// because conditional style models do not evaluate themselves recursively
+			if (!isEvaluatingStyles() && cache.isCacheable(node, uncacheableConditions)) {
+				cache.countMiss();
+				cache.put(node, styles);
+			}
+			else
+				cache.countUncached();
+		}
+		return styles;
+	}
+
+	private Collection<IStyle> evaluateStyles(final NodeModel node) {
+		final int[] depth = styleEvaluationDepth.get();
+		depth[0]++;
+		try {
+			return styleHandlers.getProperty(node, new LinkedHashSet<IStyle>());
+		}
+		finally {
+			depth[0]--;
+		}
+	}
+
+	private boolean isEvaluatingStyles() {
+		return styleEvaluationDepth.get()[0] > 0;
+	}
+
+	/**
+	 * Nodes whose conditional styles contain conditions accepted by the predicate are not cached by {@link #getStyles(NodeModel)},
+	 * because the conditions depend on something changing without node or map change events.
+	 */
+	public void addUncacheableCondition(ConditionPredicate predicate) {
+		uncacheableConditions.add(predicate);
+	}
+
+	/**
+	 * @return styles resolved for nodes of the map and their hit statistics
+	 */
+	public ResolvedStyleCache getResolvedStyleCache(final MapModel map) {
+		return ResolvedStyleCache.getCache(map);
 	}
 
 	public void moveConditionalStyleDown(final ConditionalStyleModel conditionalStyleModel, int index) {
@@ -331,9 +389,12 @@ public class LogicalStyleController implements IExtension {
 	    return conditionalStyleModel.removeCondition(index);
     }
 
-	private void clearCache() {
-	    cachedStyle = null;
-	    cachedNode = null;
+	private void clearCache(final MapModel map) {
+		if (map == null)
+			return;
+		final ResolvedStyleCache cache = map.getExtension(ResolvedStyleCache.class);
+		if (cache != null)
+			cache.clear();
     }
 
 	public IPropertyHandler<Collection<IStyle>, NodeModel> addStyleGetter(
@@ -362,9 +423,15 @@ public class LogicalStyleController implements IExtension {
 
 	public Collection<IStyle>  getConditionalMapStyles(final NodeModel node) {
 		final MapStyleModel styleModel = MapStyleModel.getExtension(node.getMap());
-		Collection<IStyle> condStyles = styleModel.getConditionalStyleModel().getStyles(node);
-		clearCache();
-		return getResursively(node, condStyles);
+		final int[] depth = styleEvaluationDepth.get();
+		depth[0]++;
+		try {
+			Collection<IStyle> condStyles = styleModel.getConditionalStyleModel().getStyles(node);
+			return getResursively(node, condStyles);
+		}
+		finally {
+			depth[0]--;
+		}
 	}
 
 	public Collection<IStyle>  getConditionalNodeStyles(final NodeModel node) {
@@ -374,17 +441,23 @@ public class LogicalStyleController implements IExtension {
 			condStyles.add(style);
 		}
 
-		final ConditionalStyleModel conditionalStyleModel = node.getExtension(ConditionalStyleModel.class);
-		if(conditionalStyleModel != null) {
-			Collection<IStyle> styles = conditionalStyleModel.getStyles(node);
-			clearCache();
-			condStyles.addAll(styles);
+		final int[] depth = styleEvaluationDepth.get();
+		depth[0]++;
+		try {
+			final ConditionalStyleModel conditionalStyleModel = node.getExtension(ConditionalStyleModel.class);
+			if(conditionalStyleModel != null) {
+				Collection<IStyle> styles = conditionalStyleModel.getStyles(node);
+				condStyles.addAll(styles);
+			}
+			final Collection<IStyle> all = getResursively(node, condStyles);
+			if(style != null){
+				all.remove(style);
+			}
+			return all;
 		}
-		final Collection<IStyle> all = getResursively(node, condStyles);
-		if(style != null){
-			all.remove(style);
+		finally {
+			depth[0]--;
 		}
-		return all;
 	}
 
 	public String getNodeStyleNames(NodeModel node, String separator) {
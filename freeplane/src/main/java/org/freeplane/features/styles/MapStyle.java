@@ -425,6 +425,13 @@ public class MapStyle extends PersistentNodeHook implements IExtension, IMapLife
 				return "moveStyle";
 			}
 
+			@Override
+			public long estimatedSize() {
+				if (oldStyleModel instanceof MapStyleModel)
+					return MapController.estimateSubtreeSize(((MapStyleModel) oldStyleModel).getStyleMap().getRootNode());
+				return DEFAULT_ESTIMATED_SIZE;
+			}
+
 			@Override
 			public void act() {
 				targetMap.getRootNode().putExtension(newStyleModel);
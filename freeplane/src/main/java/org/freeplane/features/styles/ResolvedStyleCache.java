@@ -0,0 +1,153 @@
+package org.freeplane.features.styles;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Keeps the styles resolved by {@link LogicalStyleController#getStyles(NodeModel)} for each node of a map.
+ *
+ * Conditions of conditional styles which only depend on the node and its parent are evaluated once
+ * until the node or its parent change. Structural changes and map changes clear the whole cache,
+ * because conditions like node level or leaf depend on them.
+ * Nodes whose conditional styles contain conditions depending on the selection, the current time, scripts or connectors,
+ * as told by the registered predicates, are not cached.
+ */
+public class ResolvedStyleCache implements IExtension {
+	private static final Boolean UNKNOWN = null;
+
+	static ResolvedStyleCache getCache(final MapModel map) {
+		ResolvedStyleCache cache = map.getExtension(ResolvedStyleCache.class);
+		if (cache == null) {
+			cache = new ResolvedStyleCache();
+			map.addExtension(cache);
+		}
+		return cache;
+	}
+
+	private final Map<NodeModel, Collection<IStyle>> styles;
+	private Boolean mapStylesCacheable;
+	private long hitCount;
+	private long missCount;
+	private long uncachedCount;
+	private long invalidationCount;
+
+	private ResolvedStyleCache() {
+		styles = new HashMap<NodeModel, Collection<IStyle>>();
+		mapStylesCacheable = UNKNOWN;
+	}
+
+	synchronized Collection<IStyle> get(final NodeModel node) {
+		final Collection<IStyle> nodeStyles = styles.get(node);
+		if (nodeStyles != null)
+			hitCount++;
+		return nodeStyles;
+	}
+
+	synchronized void put(final NodeModel node, final Collection<IStyle> nodeStyles) {
+		styles.put(node, nodeStyles);
+	}
+
+	synchronized void countMiss() {
+		missCount++;
+	}
+
+	synchronized void countUncached() {
+		uncachedCount++;
+	}
+
+	boolean isCacheable(final NodeModel node, final List<ConditionPredicate> uncacheableConditions) {
+		if (uncacheableConditions.isEmpty())
+			return true;
+		final ConditionalStyleModel nodeConditionalStyles = node.getExtension(ConditionalStyleModel.class);
+		if (nodeConditionalStyles != null && dependsOn(nodeConditionalStyles, uncacheableConditions))
+			return false;
+		synchronized (this) {
+			if (mapStylesCacheable == UNKNOWN)
+				mapStylesCacheable = !mapStylesDependOn(node.getMap(), uncacheableConditions);
+			return mapStylesCacheable;
+		}
+	}
+
+	private static boolean mapStylesDependOn(final MapModel map, final List<ConditionPredicate> conditions) {
+		final MapStyleModel styleModel = MapStyleModel.getExtension(map);
+		if (styleModel == null)
+			return false;
+		if (dependsOn(styleModel.getConditionalStyleModel(), conditions))
+			return true;
+		for (final IStyle style : styleModel.getStyles()) {
+			final NodeModel styleNode = styleModel.getStyleNode(style);
+			if (styleNode == null)
+				continue;
+			final ConditionalStyleModel conditionalStyles = styleNode.getExtension(ConditionalStyleModel.class);
+			if (conditionalStyles != null && dependsOn(conditionalStyles, conditions))
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean dependsOn(final ConditionalStyleModel conditionalStyles,
+	                                 final List<ConditionPredicate> conditions) {
+		for (final ConditionPredicate condition : conditions) {
+			if (conditionalStyles.dependOnCondition(condition))
+				return true;
+		}
+		return false;
+	}
+
+	synchronized void invalidate(final NodeModel node) {
+		if (styles.isEmpty())
+			return;
+		invalidationCount++;
+		styles.remove(node);
+		for (final NodeModel child : node.getChildren())
+			styles.remove(child);
+	}
+
+	synchronized void clear() {
+		if (!styles.isEmpty())
+			invalidationCount++;
+		styles.clear();
+		mapStylesCacheable = UNKNOWN;
+	}
+
+	public synchronized int size() {
+		return styles.size();
+	}
+
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return number of style resolutions for nodes which can not be cached
+	 */
+	public synchronized long getUncachedCount() {
+		return uncachedCount;
+	}
+
+	public synchronized long getInvalidationCount() {
+		return invalidationCount;
+	}
+
+	public synchronized double getHitRate() {
+		final long requestCount = hitCount + missCount + uncachedCount;
+		return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "ResolvedStyleCache [size=" + styles.size() + ", hitCount=" + hitCount + ", missCount=" + missCount
+		        + ", uncachedCount=" + uncachedCount + ", invalidationCount=" + invalidationCount + ", hitRate="
+		        + getHitRate() + "]";
+	}
+}
@@ -547,6 +547,11 @@ public class MLogicalStyleController extends LogicalStyleController {
 						return "set conditional style table cell value";
 					}
 
+					@Override
+					public long estimatedSize() {
+						return IActor.estimatedSizeOf(oldValue);
+					}
+
 					@Override
 					public void act() {
 						tableModel.setValueAt(aValue, rowIndex, columnIndex);
@@ -0,0 +1,168 @@
+package org.freeplane.features.text;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.util.HtmlUtils;
+import org.freeplane.features.filter.condition.StringTransformer;
+import org.freeplane.features.map.IMapChangeListener;
+import org.freeplane.features.map.INodeChangeListener;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeChangeEvent;
+import org.freeplane.features.map.NodeDeletionEvent;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Caches plain texts and their normalized forms compared by filter conditions.
+ *
+ * Every cached text remembers the text it was computed from and is only used while the node still delivers
+ * an equal text, so that conversion from HTML and normalization run once per node and text version.
+ * Node changes and deletions remove the entries to release memory.
+ *
+ * The total length of the cached texts is limited. When the limit is reached, texts of further nodes
+ * are computed without being cached, so that repeated filtering of maps exceeding the limit
+ * still finds the texts cached first instead of replacing them on each pass.
+ */
+public class ComparisonTextCache implements IExtension {
+	static final int NODE_TEXT = 0;
+	static final int DETAILS = 1;
+	static final int NOTE = 2;
+	private static final int ITEM_COUNT = 3;
+	private static final long MAXIMAL_CACHED_LENGTH = 16 * 1024 * 1024;
+
+	static class CachedText {
+		final private String source;
+		final private String plainText;
+		final private String[] normalizedTexts;
+		/** total length of the cache containing this text, null if it is not or no longer cached */
+		private volatile AtomicLong cachedLength;
+
+		private CachedText(String source) {
+			this.source = source;
+			this.plainText = HtmlUtils.htmlToPlain(source);
+			this.normalizedTexts = new String[4];
+		}
+
+		private long length() {
+			long length = source.length();
+			if (plainText != source)
+				length += plainText.length();
+			for (final String normalizedText : normalizedTexts) {
+				if (normalizedText != null && normalizedText != plainText)
+					length += normalizedText.length();
+			}
+			return length;
+		}
+
+		String getPlainText() {
+			return plainText;
+		}
+
+		String getNormalizedText(boolean toLowerCase, boolean removeAccents) {
+			final int index = (toLowerCase ? 1 : 0) + (removeAccents ? 2 : 0);
+			String normalizedText = normalizedTexts[index];
+			if (normalizedText == null) {
+				normalizedText = StringTransformer.transform(plainText, toLowerCase, removeAccents);
+				normalizedTexts[index] = normalizedText;
+				final AtomicLong cacheLength = cachedLength;
+				if (cacheLength != null && normalizedText != plainText)
+					cacheLength.addAndGet(normalizedText.length());
+			}
+			return normalizedText;
+		}
+	}
+
+	static ComparisonTextCache getCache(final MapModel map) {
+		synchronized (map) {
+			ComparisonTextCache cache = map.getExtension(ComparisonTextCache.class);
+			if (cache == null) {
+				cache = new ComparisonTextCache();
+				map.addExtension(cache);
+			}
+			return cache;
+		}
+	}
+
+	private final ConcurrentHashMap<NodeModel, CachedText[]> texts;
+	private final AtomicLong cachedLength;
+	private final long maximalCachedLength;
+
+	private ComparisonTextCache() {
+		this(MAXIMAL_CACHED_LENGTH);
+	}
+
+	ComparisonTextCache(final long maximalCachedLength) {
+		texts = new ConcurrentHashMap<NodeModel, CachedText[]>();
+		cachedLength = new AtomicLong();
+		this.maximalCachedLength = maximalCachedLength;
+	}
+
+	CachedText getText(final NodeModel node, final int item, final String source) {
+		CachedText[] nodeTexts = texts.get(node);
+		final CachedText oldText = nodeTexts == null ? null : nodeTexts[item];
+		if (oldText != null && oldText.source.equals(source))
+			return oldText;
+		final CachedText text = new CachedText(source);
+		if (oldText == null && cachedLength.get() >= maximalCachedLength)
+			return text;
+		if (nodeTexts == null)
+			nodeTexts = texts.computeIfAbsent(node, n -> new CachedText[ITEM_COUNT]);
+		text.cachedLength = cachedLength;
+		nodeTexts[item] = text;
+		if (oldText != null)
+			release(oldText);
+		cachedLength.addAndGet(text.length());
+		return text;
+	}
+
+	void invalidate(final NodeModel node) {
+		final CachedText[] nodeTexts = texts.remove(node);
+		if (nodeTexts != null) {
+			for (final CachedText text : nodeTexts) {
+				if (text != null)
+					release(text);
+			}
+		}
+	}
+
+	private void release(final CachedText text) {
+		text.cachedLength = null;
+		cachedLength.addAndGet(-text.length());
+	}
+
+	void invalidateSubtree(final NodeModel node) {
+		invalidate(node);
+		for (final NodeModel child : node.getChildren())
+			invalidateSubtree(child);
+	}
+
+	public int size() {
+		return texts.size();
+	}
+
+	/**
+	 * @return total length of the cached texts in characters
+	 */
+	public long getCachedLength() {
+		return cachedLength.get();
+	}
+
+	static class Invalidator implements INodeChangeListener, IMapChangeListener {
+		@Override
+		public void nodeChanged(final NodeChangeEvent event) {
+			final NodeModel node = event.getNode();
+			final ComparisonTextCache cache = node.getMap().getExtension(ComparisonTextCache.class);
+			if (cache != null)
+				cache.invalidate(node);
+		}
+
+		@Override
+		public void onNodeDeleted(final NodeDeletionEvent nodeDeletionEvent) {
+			final ComparisonTextCache cache = nodeDeletionEvent.parent.getMap()
+			    .getExtension(ComparisonTextCache.class);
+			if (cache != null)
+				cache.invalidateSubtree(nodeDeletionEvent.node);
+		}
+	}
+}
@@ -0,0 +1,465 @@
+package org.freeplane.features.text;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.features.filter.condition.StringTransformer;
+import org.freeplane.features.map.IMapChangeListener;
+import org.freeplane.features.map.INodeChangeListener;
+import org.freeplane.features.map.MapChangeEvent;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeChangeEvent;
+import org.freeplane.features.map.NodeDeletionEvent;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Inverted index from words to the nodes containing them in their text, details, note or attributes.
+ *
+ * Texts are indexed as compared by filter conditions, converted to lower case and without diacritics,
+ * and split into words at all characters which are neither letters nor digits.
+ * A searched text can only be contained in nodes which have a word containing the longest word of the searched text,
+ * so the index finds candidate nodes which still have to be checked by the condition.
+ *
+ * Changed and inserted nodes are indexed again before the next query.
+ * Map changes like changed styles or formats can change all compared texts, so the whole index is built again.
+ * Nodes whose texts are computed by formulas depend on other nodes and are always returned as candidates.
+ *
+ * Candidates are tested without locking, so that filters checking nodes in parallel do not contend for the index.
+ */
+public class FullTextIndex implements IExtension {
+	public static final String FULL_TEXT_INDEX_PROPERTY = "filter_uses_full_text_index";
+	public static final int NODE_TEXT = 1;
+	public static final int DETAILS = 2;
+	public static final int NOTE = 4;
+	public static final int ATTRIBUTES = 8;
+	public static final int ALL_TEXTS = NODE_TEXT | DETAILS | NOTE;
+
+	/**
+	 * Provides attribute names and values as compared by attribute conditions.
+	 */
+	public interface AttributeTextSource {
+		/**
+		 * @return attribute names and values of the node, or null if some value is computed by a formula
+		 */
+		Collection<String> getAttributeTexts(NodeModel node);
+	}
+
+	private static AttributeTextSource attributeTextSource;
+
+	public static void setAttributeTextSource(AttributeTextSource attributeTextSource) {
+		FullTextIndex.attributeTextSource = attributeTextSource;
+	}
+
+	private static class Entry {
+		final NodeModel node;
+		final int wordCount;
+		boolean removed;
+
+		Entry(NodeModel node, int wordCount) {
+			this.node = node;
+			this.wordCount = wordCount;
+		}
+	}
+
+	private static class Postings {
+		private Entry[] entries = new Entry[2];
+		private int[] fields = new int[2];
+		private int size = 0;
+
+		void add(Entry entry, int field) {
+			if (size == entries.length) {
+				entries = Arrays.copyOf(entries, size * 2);
+				fields = Arrays.copyOf(fields, size * 2);
+			}
+			entries[size] = entry;
+			fields[size] = field;
+			size++;
+		}
+
+		int removeDeadEntries() {
+			int liveSize = 0;
+			for (int i = 0; i < size; i++) {
+				if (!entries[i].removed) {
+					entries[liveSize] = entries[i];
+					fields[liveSize] = fields[i];
+					liveSize++;
+				}
+			}
+			Arrays.fill(entries, liveSize, size, null);
+			size = liveSize;
+			return size;
+		}
+
+		void collect(int fieldMask, Set<NodeModel> nodes) {
+			for (int i = 0; i < size; i++) {
+				if ((fields[i] & fieldMask) != 0 && !entries[i].removed)
+					nodes.add(entries[i].node);
+			}
+		}
+	}
+
+	private class Candidates implements Predicate<NodeModel> {
+		private final Set<NodeModel> nodes;
+
+		Candidates(Set<NodeModel> nodes) {
+			this.nodes = nodes;
+		}
+
+		@Override
+		public boolean test(NodeModel node) {
+			return nodes.contains(node) || !isIndexed(node);
+		}
+	}
+
+	/** Does not lock the index, the entries and the pending nodes are concurrent. */
+	private boolean isIndexed(NodeModel node) {
+		return entries.containsKey(node) && !pendingNodes.contains(node);
+	}
+
+	static int getIndexedFields(final String nodeItem) {
+		if (nodeItem.equals(TextController.FILTER_NODE))
+			return NODE_TEXT;
+		else if (nodeItem.equals(TextController.FILTER_DETAILS))
+			return DETAILS;
+		else if (nodeItem.equals(TextController.FILTER_NOTE))
+			return NOTE;
+		else if (nodeItem.equals(TextController.FILTER_ANYTEXT))
+			return ALL_TEXTS;
+		else
+			return 0;
+	}
+
+	public static FullTextIndex getIndex(final MapModel map) {
+		if (!ResourceController.getResourceController().getBooleanProperty(FULL_TEXT_INDEX_PROPERTY)) {
+			map.removeExtension(FullTextIndex.class);
+			return null;
+		}
+		synchronized (map) {
+			FullTextIndex index = map.getExtension(FullTextIndex.class);
+			if (index == null) {
+				index = new FullTextIndex(map);
+				map.addExtension(index);
+			}
+			return index;
+		}
+	}
+
+	private final MapModel map;
+	/** NodeModel does not override equals, so the concurrent maps compare nodes by identity */
+	private final Map<NodeModel, Entry> entries;
+	private final Map<String, Postings> postings;
+	private final Set<Entry> entriesDependingOnOtherNodes;
+	private final Set<NodeModel> pendingNodes;
+	private boolean built;
+	private int livePostingCount;
+	private int deadPostingCount;
+	private int modificationCount;
+	private String lastQuery;
+	private int lastQueryModificationCount;
+	private Candidates lastCandidates;
+	private long queryCount;
+	private long lastQueryNanos;
+	private long totalQueryNanos;
+	private long lastUpdateNanos;
+
+	FullTextIndex(MapModel map) {
+		this.map = map;
+		entries = new ConcurrentHashMap<NodeModel, Entry>();
+		postings = new HashMap<String, Postings>();
+		entriesDependingOnOtherNodes = Collections.newSetFromMap(new IdentityHashMap<Entry, Boolean>());
+		pendingNodes = Collections.newSetFromMap(new ConcurrentHashMap<NodeModel, Boolean>());
+	}
+
+	/**
+	 * @param text searched text
+	 * @param fieldMask combination of {@link #NODE_TEXT}, {@link #DETAILS}, {@link #NOTE} and {@link #ATTRIBUTES}
+	 * @param wholeText true if the searched text must be equal to a complete text
+	 * @return predicate accepting all nodes which may contain the text,
+	 * or null if the text has no word to be searched
+	 */
+	public synchronized Predicate<NodeModel> getCandidates(final String text, final int fieldMask,
+	                                                       final boolean wholeText) {
+		final String word = longestWord(text);
+		if (word == null)
+			return null;
+		update();
+		final String query = fieldMask + (wholeText ? "=" : "~") + word;
+		if (query.equals(lastQuery) && lastQueryModificationCount == modificationCount)
+			return lastCandidates;
+		final long start = System.nanoTime();
+		final Set<NodeModel> nodes = Collections.newSetFromMap(new IdentityHashMap<NodeModel, Boolean>());
+		for (final Entry entry : entriesDependingOnOtherNodes)
+			nodes.add(entry.node);
+		if (wholeText) {
+			final Postings wordPostings = postings.get(word);
+			if (wordPostings != null)
+				wordPostings.collect(fieldMask, nodes);
+		}
+		else {
+			for (final Map.Entry<String, Postings> wordPostings : postings.entrySet()) {
+				if (wordPostings.getKey().contains(word))
+					wordPostings.getValue().collect(fieldMask, nodes);
+			}
+		}
+		lastQuery = query;
+		lastQueryModificationCount = modificationCount;
+		lastCandidates = new Candidates(nodes);
+		lastQueryNanos = System.nanoTime() - start;
+		totalQueryNanos += lastQueryNanos;
+		queryCount++;
+		LogUtils.getLogger().fine("full text index query '" + word + "' found " + nodes.size() + " of "
+		        + entries.size() + " nodes in " + lastQueryNanos / 1000 + " microseconds");
+		return lastCandidates;
+	}
+
+	private void update() {
+		if (!built) {
+			built = true;
+			pendingNodes.clear();
+			addSubtree(map.getRootNode());
+		}
+		if (pendingNodes.isEmpty())
+			return;
+		final long start = System.nanoTime();
+		for (final NodeModel node : pendingNodes)
+			index(node);
+		pendingNodes.clear();
+		if (deadPostingCount > livePostingCount)
+			removeDeadPostings();
+		lastUpdateNanos = System.nanoTime() - start;
+		modificationCount++;
+	}
+
+	private void addSubtree(final NodeModel node) {
+		pendingNodes.add(node);
+		for (final NodeModel child : node.getChildren())
+			addSubtree(child);
+	}
+
+	private void index(final NodeModel node) {
+		remove(node);
+		final Map<String, Integer> words = new HashMap<String, Integer>();
+		addWords(words, NODE_TEXT, NodeTextConditionController.getItemsForComparison(TextController.FILTER_NODE, node));
+		addWords(words, DETAILS, NodeTextConditionController.getItemsForComparison(TextController.FILTER_DETAILS, node));
+		addWords(words, NOTE, NodeTextConditionController.getItemsForComparison(TextController.FILTER_NOTE, node));
+		boolean dependsOnOtherNodes = NodeTextConditionController.containsFormula(TextController.FILTER_ANYTEXT, node);
+		if (attributeTextSource != null) {
+			final Collection<String> attributeTexts = attributeTextSource.getAttributeTexts(node);
+			if (attributeTexts == null)
+				dependsOnOtherNodes = true;
+			else
+				addWords(words, ATTRIBUTES, attributeTexts.toArray());
+		}
+		final Entry entry = new Entry(node, words.size());
+		entries.put(node, entry);
+		if (dependsOnOtherNodes)
+			entriesDependingOnOtherNodes.add(entry);
+		for (final Map.Entry<String, Integer> word : words.entrySet()) {
+			Postings wordPostings = postings.get(word.getKey());
+			if (wordPostings == null) {
+				wordPostings = new Postings();
+				postings.put(word.getKey(), wordPostings);
+			}
+			wordPostings.add(entry, word.getValue());
+		}
+		livePostingCount += words.size();
+	}
+
+	private void remove(final NodeModel node) {
+		final Entry entry = entries.remove(node);
+		if (entry != null) {
+			entry.removed = true;
+			entriesDependingOnOtherNodes.remove(entry);
+			livePostingCount -= entry.wordCount;
+			deadPostingCount += entry.wordCount;
+			modificationCount++;
+		}
+	}
+
+	private void removeDeadPostings() {
+		livePostingCount = 0;
+		for (final Iterator<Postings> iterator = postings.values().iterator(); iterator.hasNext();) {
+			final int size = iterator.next().removeDeadEntries();
+			if (size == 0)
+				iterator.remove();
+			livePostingCount += size;
+		}
+		deadPostingCount = 0;
+	}
+
+	private static void addWords(final Map<String, Integer> words, final int field, final Object[] texts) {
+		for (final Object text : texts) {
+			if (text == null)
+				continue;
+			final String normalizedText = normalize(text.toString());
+			int wordStart = -1;
+			for (int i = 0; i <= normalizedText.length(); i++) {
+				if (i < normalizedText.length() && Character.isLetterOrDigit(normalizedText.charAt(i))) {
+					if (wordStart < 0)
+						wordStart = i;
+				}
+				else if (wordStart >= 0) {
+					final String word = normalizedText.substring(wordStart, i);
+					final Integer fields = words.get(word);
+					words.put(word, fields == null ? field : fields | field);
+					wordStart = -1;
+				}
+			}
+		}
+	}
+
+	static String longestWord(final String text) {
+		final String normalizedText = normalize(text);
+		int longestStart = 0;
+		int longestEnd = 0;
+		int wordStart = -1;
+		for (int i = 0; i <= normalizedText.length(); i++) {
+			if (i < normalizedText.length() && Character.isLetterOrDigit(normalizedText.charAt(i))) {
+				if (wordStart < 0)
+					wordStart = i;
+			}
+			else if (wordStart >= 0) {
+				if (i - wordStart > longestEnd - longestStart) {
+					longestStart = wordStart;
+					longestEnd = i;
+				}
+				wordStart = -1;
+			}
+		}
+		return longestEnd > longestStart ? normalizedText.substring(longestStart, longestEnd) : null;
+	}
+
+	/**
+	 * Removes diacritics and folds case character by character,
+	 * so that every text matched by a condition ignoring or respecting case and diacritics
+	 * is contained in the normalized text.
+	 */
+	static String normalize(final String text) {
+		final char[] chars = StringTransformer.transform(text, false, true).toCharArray();
+		for (int i = 0; i < chars.length; i++)
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		return new String(chars);
+	}
+
+	synchronized void nodeChanged(final NodeModel node) {
+		if (built)
+			pendingNodes.add(node);
+	}
+
+	synchronized void subtreeInserted(final NodeModel node) {
+		if (built)
+			addSubtree(node);
+	}
+
+	synchronized void subtreeRemoved(final NodeModel node) {
+		pendingNodes.remove(node);
+		remove(node);
+		for (final NodeModel child : node.getChildren())
+			subtreeRemoved(child);
+	}
+
+	/** Drops all entries, the index is built again before the next query. */
+	synchronized void invalidate() {
+		if (!built)
+			return;
+		built = false;
+		for (final Entry entry : entries.values())
+			entry.removed = true;
+		entries.clear();
+		postings.clear();
+		entriesDependingOnOtherNodes.clear();
+		pendingNodes.clear();
+		livePostingCount = 0;
+		deadPostingCount = 0;
+		modificationCount++;
+	}
+
+	/**
+	 * @return number of indexed nodes
+	 */
+	public synchronized int getNodeCount() {
+		return entries.size();
+	}
+
+	/**
+	 * @return number of different indexed words
+	 */
+	public synchronized int getWordCount() {
+		return postings.size();
+	}
+
+	/**
+	 * @return number of word occurrences referencing indexed nodes
+	 */
+	public synchronized int getPostingCount() {
+		return livePostingCount;
+	}
+
+	public synchronized long getQueryCount() {
+		return queryCount;
+	}
+
+	public synchronized long getLastQueryNanos() {
+		return lastQueryNanos;
+	}
+
+	public synchronized long getAverageQueryNanos() {
+		return queryCount == 0 ? 0 : totalQueryNanos / queryCount;
+	}
+
+	public synchronized long getLastUpdateNanos() {
+		return lastUpdateNanos;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "FullTextIndex [nodeCount=" + entries.size() + ", wordCount=" + postings.size() + ", postingCount="
+		        + livePostingCount + ", queryCount=" + queryCount + ", lastQueryNanos=" + lastQueryNanos
+		        + ", averageQueryNanos=" + getAverageQueryNanos() + ", lastUpdateNanos=" + lastUpdateNanos + "]";
+	}
+
+	static class Updater implements INodeChangeListener, IMapChangeListener {
+		@Override
+		public void nodeChanged(final NodeChangeEvent event) {
+			final NodeModel node = event.getNode();
+			final FullTextIndex index = node.getMap().getExtension(FullTextIndex.class);
+			if (index != null)
+				index.nodeChanged(node);
+		}
+
+		@Override
+		public void mapChanged(final MapChangeEvent event) {
+			final MapModel map = event.getMap();
+			if (map != null && event.setsDirtyFlag()) {
+				final FullTextIndex index = map.getExtension(FullTextIndex.class);
+				if (index != null)
+					index.invalidate();
+			}
+		}
+
+		@Override
+		public void onNodeInserted(final NodeModel parent, final NodeModel child, final int newIndex) {
+			final FullTextIndex index = parent.getMap().getExtension(FullTextIndex.class);
+			if (index != null)
+				index.subtreeInserted(child);
+		}
+
+		@Override
+		public void onNodeDeleted(final NodeDeletionEvent nodeDeletionEvent) {
+			final FullTextIndex index = nodeDeletionEvent.parent.getMap().getExtension(FullTextIndex.class);
+			if (index != null)
+				index.subtreeRemoved(nodeDeletionEvent.node);
+		}
+	}
+}
@@ -19,15 +19,20 @@
  */
 package org.freeplane.features.text;
 
+import java.util.function.Predicate;
+
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.StringMatchingStrategy;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.ConditionFactory;
+import org.freeplane.features.filter.condition.IConcurrentCondition;
+import org.freeplane.features.filter.condition.IIndexedCondition;
 import org.freeplane.features.filter.condition.StringConditionAdapter;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.n3.nanoxml.XMLElement;
 
-public class NodeContainsCondition extends StringConditionAdapter implements NodeItemRelation {
+public class NodeContainsCondition extends StringConditionAdapter implements NodeItemRelation, IIndexedCondition, IConcurrentCondition {
 	static final String IGNORE_CASE_NAME = "node_contains_condition";
 	static final String MATCH_CASE_NAME = "match_case_node_contains_condition";
     public static final String VALUE = "VALUE";
@@ -61,20 +66,37 @@ public class NodeContainsCondition extends StringConditionAdapter implements Nod
 	}
 
 	public boolean checkNode(final NodeModel node) {
-		final Object content[] = NodeTextConditionController.getItemsForComparison(nodeItem, node);
+		final String content[] = NodeTextConditionController.getNormalizedItemsForComparison(nodeItem, node,
+		    !matchCase, ignoreDiacritics);
 		return checkText(content);
 	}
 
-	private boolean checkText(Object content[]) {
-		for(Object o : content){
+	@Override
+	public boolean canCheckConcurrently(NodeModel node) {
+		return !NodeTextConditionController.containsFormula(nodeItem, node);
+	}
+
+	@Override
+	public Predicate<NodeModel> getCandidates(MapModel map) {
+		if (matchApproximately)
+			return null;
+		final int fields = FullTextIndex.getIndexedFields(nodeItem);
+		if (fields == 0)
+			return null;
+		final FullTextIndex index = FullTextIndex.getIndex(map);
+		return index == null ? null : index.getCandidates(value, fields, false);
+	}
+
+	private boolean checkText(String content[]) {
+		for(String o : content){
 			if(checkText(o))
 				return true;
 		}
 		return false;
 	}
 
-	private boolean checkText(final Object o) {
-		return o != null && stringMatchingStrategy.matches(normalizedValue(), normalize(o), true);
+	private boolean checkText(final String o) {
+		return o != null && stringMatchingStrategy.matches(normalizedValue(), o, true);
 	}
 
 	@Override
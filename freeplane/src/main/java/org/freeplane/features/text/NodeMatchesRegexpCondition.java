@@ -26,11 +26,12 @@ import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.CompareConditionAdapter;
 import org.freeplane.features.filter.condition.ConditionFactory;
+import org.freeplane.features.filter.condition.IConcurrentCondition;
 import org.freeplane.features.filter.condition.StringConditionAdapter;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.n3.nanoxml.XMLElement;
 
-public class NodeMatchesRegexpCondition extends ASelectableCondition implements NodeItemRelation {
+public class NodeMatchesRegexpCondition extends ASelectableCondition implements NodeItemRelation, IConcurrentCondition {
 	static final String NAME = "node_matches_regexp";
 	static final String SEARCH_PATTERN = "SEARCH_PATTERN";
 
@@ -63,6 +64,11 @@ public class NodeMatchesRegexpCondition extends ASelectableCondition implements
 		return content != null && checkText(content);
 	}
 
+	@Override
+	public boolean canCheckConcurrently(NodeModel node) {
+		return !NodeTextConditionController.containsFormula(nodeItem, node);
+	}
+
 	private boolean checkText(Object content[]) {
 		for(Object o : content){
 			if(o != null && checkText(o.toString()))
@@ -19,16 +19,20 @@
  */
 package org.freeplane.features.text;
 
+import java.util.function.Predicate;
+
 import org.freeplane.core.io.xml.TreeXmlReader;
 import org.freeplane.core.io.xml.TreeXmlWriter;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.core.util.TypeReference;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.CompareConditionAdapter;
+import org.freeplane.features.filter.condition.IIndexedCondition;
+import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.n3.nanoxml.XMLElement;
 
-public class NodeTextCompareCondition extends CompareConditionAdapter implements NodeItemRelation {
+public class NodeTextCompareCondition extends CompareConditionAdapter implements NodeItemRelation, IIndexedCondition {
 	static final String COMPARATION_RESULT = "COMPARATION_RESULT";
 	static final String NAME = "node_compare_condition";
 	static final String SUCCEED = "SUCCEED";
@@ -81,6 +85,17 @@ public class NodeTextCompareCondition extends CompareConditionAdapter implements
 		return content != null && checkContents(content);
 	}
 
+	@Override
+	public Predicate<NodeModel> getCandidates(MapModel map) {
+		if (!(isEqualityCondition() && succeed) || matchApproximately || !(conditionValue() instanceof String))
+			return null;
+		final int fields = FullTextIndex.getIndexedFields(nodeItem);
+		if (fields == 0)
+			return null;
+		final FullTextIndex index = FullTextIndex.getIndex(map);
+		return index == null ? null : index.getCandidates((String) conditionValue(), fields, true);
+	}
+
 	private boolean checkContents(Object content[]) {
 		for(Object o : content){
 			if(o != null && checkContent(o))
@@ -37,6 +37,7 @@ import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.ConditionFactory;
 import org.freeplane.features.filter.condition.IElementaryConditionController;
+import org.freeplane.features.filter.condition.StringTransformer;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.note.NoteModel;
 import org.freeplane.features.ui.FrameController;
@@ -186,31 +187,105 @@ class NodeTextConditionController implements IElementaryConditionController {
 		else
 			return new Object[] { getItemForComparison(nodeItem, node) };
 	}
-	
+
+	/**
+	 * Returns the same items as {@link #getItemsForComparison(Object, NodeModel)}
+	 * converted to strings and normalized by {@link org.freeplane.features.filter.condition.StringTransformer}.
+	 */
+	public static String[] getNormalizedItemsForComparison(Object nodeItem, final NodeModel node,
+	                                                        boolean toLowerCase, boolean removeAccents) {
+		if (nodeItem.equals(TextController.FILTER_ANYTEXT)) {
+			return new String[] { 
+					getNormalizedItemForComparison(TextController.FILTER_NODE, node, toLowerCase, removeAccents), 
+					getNormalizedItemForComparison(TextController.FILTER_DETAILS, node, toLowerCase, removeAccents),
+					getNormalizedItemForComparison(TextController.FILTER_NOTE, node, toLowerCase, removeAccents) };
+		}
+		else
+			return new String[] { getNormalizedItemForComparison(nodeItem, node, toLowerCase, removeAccents) };
+	}
+
 	private static Object getItemForComparison(Object nodeItem, final NodeModel node) {
-		final Object result;
+		final Object result = getSourceItemForComparison(nodeItem, node);
+		if(result instanceof String)
+			return cachedText(nodeItem, node, (String) result).getPlainText();
+		return result;
+    }
+
+	private static String getNormalizedItemForComparison(Object nodeItem, final NodeModel node,
+	                                                     boolean toLowerCase, boolean removeAccents) {
+		final Object result = getSourceItemForComparison(nodeItem, node);
+		if(result instanceof String)
+			return cachedText(nodeItem, node, (String) result).getNormalizedText(toLowerCase, removeAccents);
+		else if (result != null)
+			return StringTransformer.transform(result.toString(), toLowerCase, removeAccents);
+		else
+			return null;
+	}
+
+	private static Object getSourceItemForComparison(Object nodeItem, final NodeModel node) {
 		if(nodeItem.equals(TextController.FILTER_NODE)){
-			result = transformedObject(node);
+			return transformedObject(node);
 		}
 		else if(nodeItem.equals(TextController.FILTER_PARENT)){
 			final NodeModel parentNode = node.getParentNode();
 			if(parentNode == null)
-				result = null;
+				return null;
 			else
-				result = transformedObject(parentNode);
+				return transformedObject(parentNode);
 		}
 		else if(nodeItem.equals(TextController.FILTER_DETAILS)){
-			result = DetailTextModel.getDetailTextText(node);
+			return DetailTextModel.getDetailTextText(node);
 		}
 		else if(nodeItem.equals(TextController.FILTER_NOTE)){
-			result = NoteModel.getNoteText(node);
+			return NoteModel.getNoteText(node);
 		}
 		else
-			result = null;
-		if(result instanceof String)
-			return HtmlUtils.htmlToPlain((String)result);
-		return result;
-    }
+			return null;
+	}
+
+	/**
+	 * @return true if some of the compared items is computed by a formula, so that its value depends on other nodes
+	 */
+	static boolean containsFormula(Object nodeItem, final NodeModel node) {
+		if (nodeItem.equals(TextController.FILTER_ANYTEXT)) {
+			return containsFormula(TextController.FILTER_NODE, node)
+			        || containsFormula(TextController.FILTER_DETAILS, node)
+			        || containsFormula(TextController.FILTER_NOTE, node);
+		}
+		final NodeModel itemNode;
+		final Object item;
+		if (nodeItem.equals(TextController.FILTER_NODE)) {
+			itemNode = node;
+			item = node.getUserObject();
+		}
+		else if (nodeItem.equals(TextController.FILTER_PARENT)) {
+			itemNode = node.getParentNode();
+			item = itemNode == null ? null : itemNode.getUserObject();
+		}
+		else if (nodeItem.equals(TextController.FILTER_DETAILS)) {
+			itemNode = node;
+			item = DetailTextModel.getDetailTextText(node);
+		}
+		else if (nodeItem.equals(TextController.FILTER_NOTE)) {
+			itemNode = node;
+			item = NoteModel.getNoteText(node);
+		}
+		else
+			return false;
+		return item != null && TextController.getController().isFormula(item, itemNode, item);
+	}
+
+	private static ComparisonTextCache.CachedText cachedText(Object nodeItem, final NodeModel node, String source) {
+		final ComparisonTextCache cache = ComparisonTextCache.getCache(node.getMap());
+		if(nodeItem.equals(TextController.FILTER_PARENT))
+			return cache.getText(node.getParentNode(), ComparisonTextCache.NODE_TEXT, source);
+		else if(nodeItem.equals(TextController.FILTER_DETAILS))
+			return cache.getText(node, ComparisonTextCache.DETAILS, source);
+		else if(nodeItem.equals(TextController.FILTER_NOTE))
+			return cache.getText(node, ComparisonTextCache.NOTE, source);
+		else
+			return cache.getText(node, ComparisonTextCache.NODE_TEXT, source);
+	}
 
 	private static Object transformedObject(final NodeModel node) {
 		final Object userObject = node.getUserObject();
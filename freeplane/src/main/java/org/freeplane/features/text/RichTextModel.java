@@ -1,5 +1,8 @@
 package org.freeplane.features.text;
 
+import java.util.function.Consumer;
+
+import org.freeplane.core.util.CompactTextStorage;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.XmlUtils;
 
@@ -9,6 +12,9 @@ public class RichTextModel {
 	private String xml = null;
 
 	public String getHtml() {
+		final String xhtml = xml;
+		if (html == null && xhtml != null)
+			return CompactTextStorage.toHtml(xhtml);
 		return html;
 	}
 
@@ -31,6 +37,8 @@ public class RichTextModel {
 		} catch (Exception e) {
 			html = xml = HtmlUtils.unescapeHTMLUnicodeEntity(pNoteText);
 		}
+		if (CompactTextStorage.isEnabled())
+			storeCompactly();
 	}
 
 	public final void setXml(final String pXmlNoteText) {
@@ -40,6 +48,29 @@ public class RichTextModel {
 			return;
 		}
 		xml = XmlUtils.makeValidXml(pXmlNoteText);
-		html = HtmlUtils.toHtml(xml);
+		if (CompactTextStorage.isEnabled()) {
+			html = null;
+			storeCompactly();
+		}
+		else
+			html = HtmlUtils.toHtml(xml);
+	}
+
+	private void storeCompactly() {
+		if (xml == null)
+			html = CompactTextStorage.share(html);
+		else {
+			final boolean isPlainText = html == xml;
+			xml = CompactTextStorage.share(xml);
+			html = isPlainText ? xml : null;
+		}
+	}
+
+	/** Passes the stored texts, which are the HTML and the XHTML form or in compact mode only one of them. */
+	public void forEachStoredText(Consumer<String> consumer) {
+		if (html != null)
+			consumer.accept(html);
+		if (xml != null && xml != html)
+			consumer.accept(xml);
 	}
 }
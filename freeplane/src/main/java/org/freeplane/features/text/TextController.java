@@ -32,8 +32,10 @@ import javax.swing.Icon;
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.core.io.ReadManager;
 import org.freeplane.core.io.WriteManager;
+import org.freeplane.core.resources.IFreeplanePropertyListener;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.components.html.CssRuleBuilder;
+import org.freeplane.core.util.CompactTextStorage;
 import org.freeplane.core.util.HtmlProcessor;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.LogUtils;
@@ -103,6 +105,12 @@ public class TextController implements IExtension {
 		textBuilder.registerBy(readManager, writeManager);
 		writeManager.addExtensionElementWriter(DetailTextModel.class, textBuilder);
 		writeManager.addExtensionAttributeWriter(ShortenedTextModel.class, textBuilder);
+		final ComparisonTextCache.Invalidator comparisonTextCacheInvalidator = new ComparisonTextCache.Invalidator();
+		mapController.addNodeChangeListener(comparisonTextCacheInvalidator);
+		mapController.addMapChangeListener(comparisonTextCacheInvalidator);
+		final FullTextIndex.Updater fullTextIndexUpdater = new FullTextIndex.Updater();
+		mapController.addNodeChangeListener(fullTextIndexUpdater);
+		mapController.addMapChangeListener(fullTextIndexUpdater);
 		modeController.addAction(new ToggleDetailsAction());
 		modeController.addAction(new SetShortenerStateAction());
 		//		modeController.addAction(new ToggleNodeNumberingAction());
@@ -111,6 +119,19 @@ public class TextController implements IExtension {
 		addTextTransformer(new FormatContentTransformer(this, 50));
 		registerDetailsTooltip();
 		registerNodeTextTooltip();
+		registerCompactTextStorageSwitch();
+	}
+
+	private void registerCompactTextStorageSwitch() {
+		final ResourceController resourceController = ResourceController.getResourceController();
+		CompactTextStorage.setEnabled(resourceController.getBooleanProperty(CompactTextStorage.COMPACT_TEXT_STORAGE_PROPERTY));
+		resourceController.addPropertyChangeListener(new IFreeplanePropertyListener() {
+			@Override
+			public void propertyChanged(String propertyName, String newValue, String oldValue) {
+				if (CompactTextStorage.COMPACT_TEXT_STORAGE_PROPERTY.equals(propertyName))
+					CompactTextStorage.setEnabled(Boolean.parseBoolean(newValue));
+			}
+		});
 	}
 
 	public void addTextTransformer(IContentTransformer textTransformer) {
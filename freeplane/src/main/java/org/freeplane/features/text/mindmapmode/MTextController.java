@@ -532,6 +532,11 @@ public class MTextController extends TextController {
 				return "setNodeText";
 			}
 
+			@Override
+			public long estimatedSize() {
+				return IActor.estimatedSizeOf(oldText);
+			}
+
 			@Override
 			public void undo() {
 				if (!oldText.equals(newObject)) {
@@ -676,6 +681,11 @@ public class MTextController extends TextController {
 				return "setDetailText";
 			}
 
+			@Override
+			public long estimatedSize() {
+				return IActor.estimatedSizeOf(oldText);
+			}
+
 			private void setText(final String text) {
 				final boolean containsDetails = !(text == null || text.equals(""));
 				if (containsDetails) {
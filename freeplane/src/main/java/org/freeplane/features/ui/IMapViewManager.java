@@ -70,6 +70,10 @@ public interface IMapViewManager {
 
 	public String createHtmlMap();
 
+	/**
+	 * Large images can be painted on demand while they are written.
+	 * Such images implement {@link AutoCloseable} and have to be closed after writing.
+	 */
 	public RenderedImage createImage(int dpi);
 
 	public RenderedImage createImage(final Dimension slideSize, NodeModel placedNode, NodePosition placedNodePosition, int imageResolutionInDpi);
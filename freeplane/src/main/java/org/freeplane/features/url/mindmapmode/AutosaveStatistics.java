@@ -0,0 +1,54 @@
+package org.freeplane.features.url.mindmapmode;
+
+import org.freeplane.core.util.LogUtils;
+
+/**
+ * Collects the time the event dispatch thread was blocked by automatic saving.
+ */
+public class AutosaveStatistics {
+	public static final AutosaveStatistics INSTANCE = new AutosaveStatistics();
+	private static final long FRAME_MILLIS = 16;
+
+	private long saveCount;
+	private long lastPauseMillis;
+	private long maximumPauseMillis;
+	private long totalPauseMillis;
+
+	private AutosaveStatistics() {
+	}
+
+	synchronized void addEventDispatchThreadPause(long pauseMillis) {
+		saveCount++;
+		lastPauseMillis = pauseMillis;
+		totalPauseMillis += pauseMillis;
+		maximumPauseMillis = Math.max(maximumPauseMillis, pauseMillis);
+		final String message = "automatic save blocked user interface for " + pauseMillis + " ms";
+		if(pauseMillis > FRAME_MILLIS)
+			LogUtils.info(message);
+		else
+			LogUtils.getLogger().fine(message);
+	}
+
+	public synchronized long getSaveCount() {
+		return saveCount;
+	}
+
+	public synchronized long getLastPauseMillis() {
+		return lastPauseMillis;
+	}
+
+	public synchronized long getMaximumPauseMillis() {
+		return maximumPauseMillis;
+	}
+
+	public synchronized long getAveragePauseMillis() {
+		return saveCount == 0 ? 0 : totalPauseMillis / saveCount;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "AutosaveStatistics [saveCount=" + saveCount + ", lastPauseMillis=" + lastPauseMillis
+		        + ", maximumPauseMillis=" + maximumPauseMillis + ", averagePauseMillis=" + getAveragePauseMillis()
+		        + "]";
+	}
+}
@@ -20,8 +20,13 @@
 package org.freeplane.features.url.mindmapmode;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.LogUtils;
@@ -31,10 +36,21 @@ import org.freeplane.features.map.mindmapmode.MMapModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.mode.mindmapmode.MModeController;
+import org.freeplane.features.ui.ViewController;
 import org.freeplane.features.url.UrlManager;
 
 public class DoAutomaticSave extends TimerTask {
 	static final String AUTOSAVE_EXTENSION = "autosave";
+	static final String SAVE_IN_BACKGROUND_PROPERTY = "save_automatically_in_background";
+	final private static ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			final Thread thread = Executors.defaultThreadFactory().newThread(r);
+			thread.setName("AutomaticSaveWriter");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
 	/**
 	 * This value is compared with the result of
 	 * getNumberOfChangesSinceLastSave(). If the values coincide, no further
@@ -80,19 +96,13 @@ public class DoAutomaticSave extends TimerTask {
 						if(!(currentModeController instanceof MModeController))
 							return;
 						MModeController modeController = ((MModeController) currentModeController);
-						final File pathToStore;
 						final URL url = model.getURL();
 						final File file = new File(url != null ? url.getFile() //
 						        : model.getTitle() + UrlManager.FREEPLANE_FILE_EXTENSION);
-						if (url == null) {
-							pathToStore = new File(ResourceController.getResourceController()
-							    .getFreeplaneUserDirectory(), BACKUP_DIR);
-						}
-						else if (singleBackupDirectory != null) {
-							pathToStore = singleBackupDirectory;
-						}
-						else {
-							pathToStore = new File(file.getParent(), BACKUP_DIR);
+						final File pathToStore = backupDirectory(url, file);
+						if(ResourceController.getResourceController().getBooleanProperty(SAVE_IN_BACKGROUND_PROPERTY)) {
+							saveInBackground(modeController, file, pathToStore);
+							return;
 						}
 						pathToStore.mkdirs();
 						final File tempFile = MFileManager.renameBackupFiles(pathToStore, file, numberOfFiles,
@@ -120,4 +130,84 @@ public class DoAutomaticSave extends TimerTask {
 			LogUtils.severe(e);
 		}
 	}
+
+	private File backupDirectory(final URL url, final File file) {
+		if (url == null) {
+			return new File(ResourceController.getResourceController()
+			    .getFreeplaneUserDirectory(), BACKUP_DIR);
+		}
+		else if (singleBackupDirectory != null) {
+			return singleBackupDirectory;
+		}
+		else {
+			return new File(file.getParent(), BACKUP_DIR);
+		}
+	}
+
+	/**
+	 * Takes an immutable snapshot of the map on the calling (event dispatch) thread and leaves
+	 * backup rotation and file output to the background executor,
+	 * so that the user interface is only blocked while the map model is being read.
+	 * With incremental saving only nodes changed since the previous snapshot are serialized,
+	 * the XML of the other nodes is copied.
+	 */
+	private void saveInBackground(final MModeController modeController, final File file, final File pathToStore)
+	        throws IOException {
+		final MMapModel map = (MMapModel) model;
+		if (map.getTimerForAutomaticSaving() != null) {
+			map.getTimerForAutomaticSaving().cancel();
+		}
+		final long startTime = System.nanoTime();
+		final MapXmlSnapshot snapshot = new MapXmlSnapshot();
+		modeController.getMapController().getMapWriter().writeMapSnapshot(map, snapshot);
+		final long pauseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+		AutosaveStatistics.INSTANCE.addEventDispatchThreadPause(pauseMillis);
+		final ViewController viewController = modeController.getController().getViewController();
+		final MFileManager fileManager = (MFileManager) UrlManager.getController();
+		backgroundExecutor.execute(new Runnable() {
+			@Override
+			public void run() {
+				File tempFile = null;
+				try {
+					pathToStore.mkdirs();
+					tempFile = MFileManager.renameBackupFiles(pathToStore, file, numberOfFiles, AUTOSAVE_EXTENSION);
+					if (tempFile != null) {
+						if (filesShouldBeDeletedAfterShutdown) {
+							tempFile.deleteOnExit();
+						}
+						if (file.canWrite())
+							fileManager.writeToFile(snapshot, tempFile);
+						else
+							tempFile = null;
+					}
+				}
+				catch (final IOException e) {
+					LogUtils.warn(TextUtils.format("save_failed", file.getName()), e);
+					tempFile = null;
+				}
+				catch (final Exception e) {
+					LogUtils.severe("Error in automatic MapModel.save(): ", e);
+					tempFile = null;
+				}
+				final File savedFile = tempFile;
+				viewController.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (savedFile != null)
+							viewController.out(TextUtils.format("automatically_save_message", savedFile));
+						if (!isOpen(map))
+							return;
+						if (map.getTimerForAutomaticSaving() != null) {
+							map.getTimerForAutomaticSaving().cancel();
+						}
+						map.scheduleTimerForAutomaticSaving();
+					}
+				});
+			}
+		});
+	}
+
+	private static boolean isOpen(final MapModel map) {
+		return Controller.getCurrentController().getMapViewManager().getMaps().containsValue(map);
+	}
 }
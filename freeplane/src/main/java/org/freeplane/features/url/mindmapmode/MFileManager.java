@@ -859,6 +859,27 @@ public class MFileManager extends UrlManager implements IMapViewChangeListener {
 	/**@deprecated -- use MMapIO*/
 	@Deprecated
 	public void writeToFile(final MapModel map, final File file) throws FileNotFoundException, IOException {
+		writeLocked(file, fileout -> Controller.getCurrentModeController().getMapController().getMapWriter()
+		    .writeMapAsXml(map, fileout, Mode.FILE, true, false));
+	}
+
+	/**
+	 * Writes a map snapshot taken by {@link DoAutomaticSave}.
+	 * Does not access the map model and can be called from any thread.
+	 */
+	void writeToFile(final MapXmlSnapshot snapshot, final File file) throws FileNotFoundException, IOException {
+		writeLocked(file, fileout -> {
+			snapshot.writeTo(fileout);
+			fileout.close();
+		});
+	}
+
+	private interface ContentWriter {
+		void write(BufferedWriter fileout) throws IOException;
+	}
+
+	private static void writeLocked(final File file, final ContentWriter contentWriter)
+	        throws FileNotFoundException, IOException {
 		FileLock lock = null;
 		try (final FileOutputStream out = new FileOutputStream(file)){
 			boolean lockedByOtherApplication = false;
@@ -874,8 +895,7 @@ public class MFileManager extends UrlManager implements IMapViewChangeListener {
 			}
 			final BufferedWriter fileout = new BufferedWriter(new OutputStreamWriter(out,//
 				StandardCharsets.UTF_8));
-			Controller.getCurrentModeController().getMapController().getMapWriter()
-			    .writeMapAsXml(map, fileout, Mode.FILE, true, false);
+			contentWriter.write(fileout);
 		}
 		finally {
 			if (lock != null && lock.isValid())
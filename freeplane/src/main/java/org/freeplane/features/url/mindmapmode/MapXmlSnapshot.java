@@ -0,0 +1,95 @@
+package org.freeplane.features.url.mindmapmode;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Receives the serialized map on the event dispatch thread and keeps it as a list of immutable chunks,
+ * which can be written to a file by any thread after the snapshot is closed.
+ *
+ * Unlike a StringWriter it needs neither synchronization nor one contiguous buffer growing with the map.
+ */
+class MapXmlSnapshot extends Writer {
+	private static final int CHUNK_LENGTH = 8192;
+
+	private final List<String> chunks = new ArrayList<>();
+	private final StringBuilder chunk = new StringBuilder(CHUNK_LENGTH);
+	private boolean closed;
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		checkOpen();
+		while (len > 0) {
+			final int appendedLength = Math.min(len, CHUNK_LENGTH - chunk.length());
+			chunk.append(cbuf, off, appendedLength);
+			off += appendedLength;
+			len -= appendedLength;
+			completeFullChunk();
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		checkOpen();
+		while (len > 0) {
+			final int appendedLength = Math.min(len, CHUNK_LENGTH - chunk.length());
+			chunk.append(str, off, off + appendedLength);
+			off += appendedLength;
+			len -= appendedLength;
+			completeFullChunk();
+		}
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		checkOpen();
+		chunk.append((char) c);
+		completeFullChunk();
+	}
+
+	private void completeFullChunk() {
+		if (chunk.length() >= CHUNK_LENGTH)
+			completeChunk();
+	}
+
+	private void completeChunk() {
+		if (chunk.length() > 0) {
+			chunks.add(chunk.toString());
+			chunk.setLength(0);
+		}
+	}
+
+	private void checkOpen() throws IOException {
+		if (closed)
+			throw new IOException("snapshot is closed");
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	/** Completes the snapshot, it can not be changed afterwards. */
+	@Override
+	public void close() {
+		if (!closed) {
+			completeChunk();
+			closed = true;
+		}
+	}
+
+	/** Writes the completed snapshot, can be called from any thread after {@link #close()}. */
+	void writeTo(Writer out) throws IOException {
+		for (final String completedChunk : getChunks())
+			out.write(completedChunk);
+		out.flush();
+	}
+
+	List<String> getChunks() {
+		if (!closed)
+			throw new IllegalStateException("snapshot is not closed");
+		return Collections.unmodifiableList(chunks);
+	}
+}
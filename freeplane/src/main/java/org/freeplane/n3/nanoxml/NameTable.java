@@ -0,0 +1,84 @@
+package org.freeplane.n3.nanoxml;
+
+import java.util.Arrays;
+
+/**
+ * Interns element and attribute names scanned by the parser.
+ * Mind map files repeat a small set of names many times,
+ * so reusing one String instance per name saves allocations
+ * and lets hash based handler lookups use the cached String hash.
+ */
+class NameTable {
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int MAX_NAME_LENGTH = 64;
+	private static final int MAX_SIZE = 4096;
+
+	private String[] names = new String[INITIAL_CAPACITY];
+	private int size = 0;
+	private char[] buffer = new char[32];
+	private int length = 0;
+
+	void clearBuffer() {
+		length = 0;
+	}
+
+	void append(char ch) {
+		if (length == buffer.length)
+			buffer = Arrays.copyOf(buffer, length * 2);
+		buffer[length++] = ch;
+	}
+
+	String internBuffer() {
+		if (length > MAX_NAME_LENGTH)
+			return new String(buffer, 0, length);
+		int hash = 0;
+		for (int i = 0; i < length; i++)
+			hash = 31 * hash + buffer[i];
+		final int mask = names.length - 1;
+		int index = mix(hash) & mask;
+		for (;;) {
+			final String name = names[index];
+			if (name == null)
+				break;
+			if (name.hashCode() == hash && matchesBuffer(name))
+				return name;
+			index = (index + 1) & mask;
+		}
+		final String name = new String(buffer, 0, length);
+		if (size < MAX_SIZE) {
+			names[index] = name;
+			size++;
+			if (size * 2 > names.length)
+				rehash();
+		}
+		return name;
+	}
+
+	private boolean matchesBuffer(String name) {
+		if (name.length() != length)
+			return false;
+		for (int i = 0; i < length; i++) {
+			if (name.charAt(i) != buffer[i])
+				return false;
+		}
+		return true;
+	}
+
+	private void rehash() {
+		final String[] oldNames = names;
+		names = new String[oldNames.length * 2];
+		final int mask = names.length - 1;
+		for (String name : oldNames) {
+			if (name != null) {
+				int index = mix(name.hashCode()) & mask;
+				while (names[index] != null)
+					index = (index + 1) & mask;
+				names[index] = name;
+			}
+		}
+	}
+
+	private static int mix(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+}
@@ -46,6 +46,10 @@ public class StdXMLParser implements IXMLParser {
 	 * data.
 	 */
 	private IXMLValidator validator;
+	/**
+	 * Interned names of elements and attributes.
+	 */
+	private final NameTable names = new NameTable();
 
 	/**
 	 * Creates a new parser.
@@ -140,7 +144,7 @@ public class StdXMLParser implements IXMLParser {
 	 */
 	protected void processAttribute(final Vector<String> attrNames, final Vector<String> attrValues,
 	                                final Vector<String> attrTypes) throws Exception {
-		final String key = XMLUtil.scanIdentifier(reader);
+		final String key = XMLUtil.scanIdentifier(reader, names);
 		XMLUtil.skipWhitespace(reader, null);
 		if (!XMLUtil.read(reader, '&').equals("=")) {
 			XMLUtil.errorExpectedInput(reader.getSystemID(), reader.getLineNr(), "`='");
@@ -224,7 +228,7 @@ public class StdXMLParser implements IXMLParser {
 	 *             if something went wrong
 	 */
 	protected void processElement(String defaultNamespace, final Properties namespaces) throws Exception {
-		final String fullName = XMLUtil.scanIdentifier(reader);
+		final String fullName = XMLUtil.scanIdentifier(reader, names);
 		String name = fullName;
 		XMLUtil.skipWhitespace(reader, null);
 		String prefix = null;
@@ -312,7 +316,7 @@ public class StdXMLParser implements IXMLParser {
 		}
 		processElementContent(defaultNamespace, namespaces, fullName, name, prefix);
 		XMLUtil.skipWhitespace(reader, null);
-		final String str = XMLUtil.scanIdentifier(reader);
+		final String str = XMLUtil.scanIdentifier(reader, names);
 		if (!str.equals(fullName)) {
 			XMLUtil.errorWrongClosingTag(reader.getSystemID(), reader.getLineNr(), name, str);
 		}
@@ -379,6 +379,32 @@ class XMLUtil {
 		return ch;
 	}
 
+	/**
+	 * Retrieves an identifier from the data and interns it using the given name table.
+	 * 
+	 * @param reader
+	 *            the reader
+	 * @param names
+	 *            the name table
+	 * @throws java.io.IOException
+	 *             if an error occurred reading the data
+	 */
+	static String scanIdentifier(final IXMLReader reader, final NameTable names) throws IOException {
+		names.clearBuffer();
+		for (;;) {
+			final char ch = reader.read();
+			if ((ch == '_') || (ch == ':') || (ch == '-') || (ch == '.') || ((ch >= 'a') && (ch <= 'z'))
+			        || ((ch >= 'A') && (ch <= 'Z')) || ((ch >= '0') && (ch <= '9')) || (ch > '\u007E')) {
+				names.append(ch);
+			}
+			else {
+				reader.unread(ch);
+				break;
+			}
+		}
+		return names.internBuffer();
+	}
+
 	/**
 	 * Retrieves an identifier from the data.
 	 * 
@@ -446,22 +472,16 @@ class XMLUtil {
 			XMLUtil.errorExpectedInput(reader.getSystemID(), reader.getLineNr(), "delimited string");
 		}
 		for (;;) {
-			String str = XMLUtil.read(reader, entityChar);
-			final char ch = str.charAt(0);
-			if (ch == entityChar) {
+			final char ch = reader.read();
+			if (ch == entityChar || ch == '&') {
+				reader.unread(ch);
+				final String str = XMLUtil.read(reader, ch);
 				if (str.charAt(1) == '#') {
 					result.append(XMLUtil.processCharLiteral(str));
 				}
-				else {
+				else if (ch == entityChar) {
 					XMLUtil.processEntity(str, reader, entityResolver);
 				}
-			}
-			else if (ch == '&') {
-				reader.unread(ch);
-				str = XMLUtil.read(reader, '&');
-				if (str.charAt(1) == '#') {
-					result.append(XMLUtil.processCharLiteral(str));
-				}
 				else {
 					result.append(str);
 				}
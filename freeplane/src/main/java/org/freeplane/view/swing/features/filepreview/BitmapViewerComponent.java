@@ -19,12 +19,12 @@
  */
 package org.freeplane.view.swing.features.filepreview;
 
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ref.WeakReference;
@@ -35,20 +35,16 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Iterator;
 
-import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 import javax.swing.JComponent;
-import javax.swing.JFileChooser;
 import javax.swing.SwingUtilities;
 
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.view.swing.map.MapView;
 
-import com.thebuzzmedia.imgscalr.Scalr;
-
 /**
  * @author Dimitry Polivaev
  * 22.08.2009
@@ -60,21 +56,22 @@ public class BitmapViewerComponent extends JComponent implements ScalableCompone
 	}
 
 	private static final long serialVersionUID = 1L;
-	private File cacheFile;
 	private int hint;
 	private BufferedImage cachedImage;
 	private WeakReference<BufferedImage> cachedImageWeakRef;
 	private final URL url;
+	private final long lastModified;
 	private final Dimension originalSize;
 	private int imageX;
 	private int imageY;
 	private boolean scaleEnabled;
 	private Dimension maximumSize = null;
-	private final static Object LOCK = new Object();
+	private ScaledImageCache.Key failedKey;
 	private static boolean disabledDueToJavaBug = false;
 
 	public BitmapViewerComponent(final URI uri) throws MalformedURLException, IOException {
 		url = uri.toURL();
+		lastModified = "file".equals(uri.getScheme()) ? new File(uri).lastModified() : 0;
 		originalSize = readImageSize(url);
 		hint = Image.SCALE_SMOOTH;
 		scaleEnabled = true;
@@ -136,41 +133,19 @@ public class BitmapViewerComponent extends JComponent implements ScalableCompone
             paintOriginalImage(g);
             return null;
         }
-		if (cachedImage == null && cachedImageWeakRef != null) {
-			cachedImage = cachedImageWeakRef.get();
-			cachedImageWeakRef = null;
-		}
-		if (cachedImage == null && cacheFile != null) {
-			loadImageFromCacheFile();
-			if (!isCachedImageValid()) {
-				cacheFile.delete();
-				cacheFile = null;
-			}
-		}
-		if (!isCachedImageValid()) {
-			final BufferedImage image = loadImageFromURL();
-			if (image == null || hasNoArea(image)) {
+		BufferedImage image = cachedImage;
+		if (image == null && cachedImageWeakRef != null)
+			image = cachedImageWeakRef.get();
+		if (image == null || !isImageValid(image)) {
+			final BufferedImage scaledImage = requestScaledImage();
+			if (scaledImage == null) {
+				paintPlaceholder(g, image);
 				return null;
 			}
-			BufferedImage scaledImage = null;
-			try {
-				scaledImage = Scalr.resize(image, Scalr.Mode.BEST_FIT_BOTH, getWidth(), getHeight());
-			}
-			catch (final Exception e) {
-				LogUtils.severe(e);
-				return null;
-			}
-			finally {
-				image.flush();
-			}
-			final int scaledImageHeight = scaledImage.getHeight();
-			final int scaledImageWidth = scaledImage.getWidth();
-			centerImagePosition(scaledImageWidth, scaledImageHeight);
-			cachedImage = scaledImage;
-			if (getCacheType().equals(CacheType.IC_FILE)) {
-				writeCacheFile();
-			}
+			image = scaledImage;
+			centerImagePosition(image.getWidth(), image.getHeight());
 		}
+		cachedImage = image;
 		try {
 			g.drawImage(cachedImage, imageX, imageY, null);
 		}
@@ -182,6 +157,27 @@ public class BitmapViewerComponent extends JComponent implements ScalableCompone
 		return null;
     }
 
+	private BufferedImage requestScaledImage() {
+		final ScaledImageCache.Key key = new ScaledImageCache.Key(url, lastModified, getWidth(), getHeight());
+		if (key.equals(failedKey))
+			return null;
+		return ScaledImageCache.getInstance().getImage(url, key, image -> {
+			if (image == null)
+				failedKey = key;
+			repaint();
+		});
+	}
+
+	private void paintPlaceholder(final Graphics g, final BufferedImage previousImage) {
+		if (previousImage != null) {
+			g.drawImage(previousImage, 0, 0, getWidth(), getHeight(), null);
+		}
+		else if (failedKey == null) {
+			g.setColor(Color.LIGHT_GRAY);
+			g.drawRect(0, 0, getWidth() - 1, getHeight() - 1);
+		}
+	}
+
 	private void paintOriginalImage(Graphics g) {
         final BufferedImage image = loadImageFromURL();
         if (image != null && !hasNoArea(image)) {
@@ -219,36 +215,26 @@ public class BitmapViewerComponent extends JComponent implements ScalableCompone
 		return false;
 	}
 
-	private void loadImageFromCacheFile() {
-		try {
-			cachedImage = ImageIO.read(cacheFile);
-		}
-		catch (final IOException e) {
-			logImageReadingException(e);
-		}
+	private boolean isImageValid(final BufferedImage image) {
+		return !scaleEnabled || componentHasSameWidthAsImage(image)
+		        && imageHeightFitsComponentHeight(image) || imageWidthFitsComponentWidth(image)
+		        && componentHasSameHeightAsImage(image);
 	}
 
-	private boolean isCachedImageValid() {
-		return cachedImage != null
-		        && (!scaleEnabled || componentHasSameWidthAsCachedImage()
-		                && cachedImageHeightFitsComponentHeight() || cachedImageWidthFitsComponentWidth()
-		                && componentHasSameHeightAsCachedImage());
+	private boolean componentHasSameHeightAsImage(final BufferedImage image) {
+		return 1 >= Math.abs(getHeight() - image.getHeight());
 	}
 
-	private boolean componentHasSameHeightAsCachedImage() {
-		return 1 >= Math.abs(getHeight() - cachedImage.getHeight());
+	private boolean imageWidthFitsComponentWidth(final BufferedImage image) {
+		return getWidth() >= image.getWidth();
 	}
 
-	private boolean cachedImageWidthFitsComponentWidth() {
-		return getWidth() >= cachedImage.getWidth();
+	private boolean imageHeightFitsComponentHeight(final BufferedImage image) {
+		return getHeight() >= image.getHeight();
 	}
 
-	private boolean cachedImageHeightFitsComponentHeight() {
-		return getHeight() >= cachedImage.getHeight();
-	}
-
-	private boolean componentHasSameWidthAsCachedImage() {
-		return 1 >= Math.abs(getWidth() - cachedImage.getWidth());
+	private boolean componentHasSameWidthAsImage(final BufferedImage image) {
+		return 1 >= Math.abs(getWidth() - image.getWidth());
 	}
 
 	private BufferedImage loadImageFromURL() {
@@ -257,25 +243,11 @@ public class BitmapViewerComponent extends JComponent implements ScalableCompone
 			tempImage = ImageIO.read(url);
 		}
 		catch (final IOException e) {
-			logImageReadingException(e);
+			ScaledImageCache.logImageReadingException(e);
 		}
 		return tempImage;
 	}
 
-	private void logImageReadingException(final IOException e) {
-		if((e instanceof FileNotFoundException) || (e instanceof IIOException)) {
-			LogUtils.warn(e.getMessage());
-			return;
-		}
-		final Throwable cause = e.getCause();
-		if((cause instanceof FileNotFoundException) || (cause instanceof IIOException)) {
-			LogUtils.warn(cause.getMessage());
-			return;
-		}
-
-		LogUtils.severe(e);
-	}
-
 	private void flushImage() {
 		final CacheType cacheType = getCacheType();
 		if (CacheType.IC_RAM.equals(cacheType)) {
@@ -291,38 +263,6 @@ public class BitmapViewerComponent extends JComponent implements ScalableCompone
 		return ResourceController.getResourceController().getEnumProperty("image_cache", CacheType.IC_DISABLE);
 	}
 
-	private void writeCacheFile() {
-		final File tempDir = new File(System.getProperty("java.io.tmpdir"), "freeplane");
-		tempDir.mkdirs();
-		try {
-			synchronized(LOCK) {
-				if(cacheFile == null)
-					cacheFile = File.createTempFile("cachedImage", ".jpg", tempDir);
-				else{
-					cacheFile.delete();
-					cacheFile.createNewFile();
-				}
-
-			}
-			ImageIO.write(cachedImage, "jpg", cacheFile);
-		}
-		catch (final IOException e) {
-			if(cacheFile != null) {
-				cacheFile.delete();
-				cacheFile = null;
-			}
-		}
-	}
-
-	@Override
-	public void removeNotify() {
-		super.removeNotify();
-		if (cacheFile != null) {
-			cacheFile.delete();
-			cacheFile = null;
-		}
-	}
-
 	@Override
 	public void setFinalViewerSize(final Dimension size) {
 		final Dimension sizeWithScaleCorrection = fitToMaximumSize(size);
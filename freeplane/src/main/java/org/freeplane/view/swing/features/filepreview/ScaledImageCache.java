@@ -0,0 +1,410 @@
+package org.freeplane.view.swing.features.filepreview;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.SwingUtilities;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.view.swing.features.filepreview.BitmapViewerComponent.CacheType;
+
+import com.thebuzzmedia.imgscalr.Scalr;
+
+/**
+ * Decodes bitmap images in background threads and keeps them scaled to the sizes of their views.
+ *
+ * The scaled images are shared by all views of all maps. The cache is bounded by the bytes of its images
+ * and evicts the least recently used images first. Images are read with source subsampling,
+ * so that large photos are not decoded in full resolution for small views.
+ * If image_cache is set to ic_file the scaled images are also kept as thumbnails in the user directory.
+ * The thumbnails are bounded by their total file size and the least recently used ones are deleted first.
+ * Thumbnails of images not read from files are decoded again after a day, because their changes can not be detected.
+ */
+class ScaledImageCache {
+	static final String MEMORY_LIMIT_PROPERTY = "image_memory_cache_size";
+	static final String THUMBNAIL_LIMIT_PROPERTY = "image_thumbnail_cache_size";
+	private static final String THUMBNAIL_DIRECTORY = "thumbnails";
+	private static final String THUMBNAIL_EXTENSION = ".png";
+	static final long REMOTE_THUMBNAIL_MAX_AGE_MILLIS = TimeUnit.DAYS.toMillis(1);
+	private static final int BYTES_PER_PIXEL = 4;
+	private static final ScaledImageCache INSTANCE = new ScaledImageCache();
+
+	static ScaledImageCache getInstance() {
+		return INSTANCE;
+	}
+
+	static class Key {
+		final String url;
+		final long lastModified;
+		final int width;
+		final int height;
+
+		Key(final URL url, final long lastModified, final int width, final int height) {
+			this.url = url.toExternalForm();
+			this.lastModified = lastModified;
+			this.width = width;
+			this.height = height;
+		}
+
+		boolean isFile() {
+			return url.startsWith("file:");
+		}
+
+		@Override
+		public int hashCode() {
+			return ((url.hashCode() * 31 + Long.hashCode(lastModified)) * 31 + width) * 31 + height;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			final Key other = (Key) obj;
+			return width == other.width && height == other.height && lastModified == other.lastModified
+			        && url.equals(other.url);
+		}
+
+		@Override
+		public String toString() {
+			return url + "#" + lastModified + "#" + width + "x" + height;
+		}
+	}
+
+	private final LinkedHashMap<Key, BufferedImage> images;
+	private final Map<Key, List<Consumer<BufferedImage>>> pendingRequests;
+	private long cachedBytes;
+	private ExecutorService executor;
+	private final File thumbnailDirectory;
+	private final Object thumbnailLock = new Object();
+	/** total size of the thumbnail files, negative until the thumbnail directory is scanned */
+	private long thumbnailBytes = -1;
+
+	ScaledImageCache() {
+		this(null);
+	}
+
+	/** @param thumbnailDirectory directory of the thumbnails, null for the user directory */
+	ScaledImageCache(final File thumbnailDirectory) {
+		images = new LinkedHashMap<Key, BufferedImage>(16, 0.75f, true);
+		pendingRequests = new HashMap<Key, List<Consumer<BufferedImage>>>();
+		cachedBytes = 0;
+		this.thumbnailDirectory = thumbnailDirectory;
+	}
+
+	/**
+	 * Returns the cached image or starts decoding it in background and returns null.
+	 * The consumer is called on the event dispatch thread with the decoded image, or with null if decoding failed.
+	 */
+	synchronized BufferedImage getImage(final URL url, final Key key, final Consumer<BufferedImage> consumer) {
+		final BufferedImage image = images.get(key);
+		if (image != null)
+			return image;
+		List<Consumer<BufferedImage>> consumers = pendingRequests.get(key);
+		if (consumers == null) {
+			consumers = new ArrayList<Consumer<BufferedImage>>(1);
+			pendingRequests.put(key, consumers);
+			getExecutor().execute(new Runnable() {
+				@Override
+				public void run() {
+					load(url, key);
+				}
+			});
+		}
+		consumers.add(consumer);
+		return null;
+	}
+
+	private ExecutorService getExecutor() {
+		if (executor == null) {
+			final int threadCount = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+			executor = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread thread = new Thread(r, "ImageDecoder");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	private void load(final URL url, final Key key) {
+		BufferedImage image = null;
+		try {
+			final boolean usesThumbnails = getCacheType().equals(CacheType.IC_FILE);
+			if (usesThumbnails)
+				image = readThumbnail(key);
+			if (image == null) {
+				image = decode(url, key.width, key.height);
+				if (image != null && usesThumbnails)
+					writeThumbnail(key, image, getThumbnailLimit());
+			}
+		}
+		catch (final IOException e) {
+			logImageReadingException(e);
+		}
+		catch (final RuntimeException | OutOfMemoryError e) {
+			LogUtils.severe(e);
+		}
+		final List<Consumer<BufferedImage>> consumers;
+		synchronized (this) {
+			consumers = pendingRequests.remove(key);
+			if (image != null)
+				put(key, image, getMemoryLimit());
+		}
+		final BufferedImage loadedImage = image;
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				for (final Consumer<BufferedImage> consumer : consumers)
+					consumer.accept(loadedImage);
+			}
+		});
+	}
+
+	synchronized void put(final Key key, final BufferedImage image, final long memoryLimit) {
+		final BufferedImage oldImage = images.put(key, image);
+		if (oldImage != null)
+			cachedBytes -= byteCount(oldImage);
+		cachedBytes += byteCount(image);
+		for (final Iterator<BufferedImage> iterator = images.values().iterator(); cachedBytes > memoryLimit
+		        && images.size() > 1;) {
+			final BufferedImage evictedImage = iterator.next();
+			iterator.remove();
+			cachedBytes -= byteCount(evictedImage);
+			evictedImage.flush();
+		}
+	}
+
+	synchronized boolean contains(final Key key) {
+		return images.containsKey(key);
+	}
+
+	synchronized long getCachedBytes() {
+		return cachedBytes;
+	}
+
+	private static long byteCount(final BufferedImage image) {
+		return (long) image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
+	}
+
+	private long getMemoryLimit() {
+		return ResourceController.getResourceController().getIntProperty(MEMORY_LIMIT_PROPERTY, 64) * 1024L * 1024L;
+	}
+
+	private long getThumbnailLimit() {
+		return ResourceController.getResourceController().getIntProperty(THUMBNAIL_LIMIT_PROPERTY, 256) * 1024L * 1024L;
+	}
+
+	private CacheType getCacheType() {
+		return ResourceController.getResourceController().getEnumProperty("image_cache", CacheType.IC_DISABLE);
+	}
+
+	static BufferedImage decode(final URL url, final int width, final int height) throws IOException {
+		try (InputStream inputStream = url.openStream();
+		     ImageInputStream in = ImageIO.createImageInputStream(inputStream)) {
+			final Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+			if (!readers.hasNext())
+				throw new IOException("can not create image");
+			final ImageReader reader = readers.next();
+			final BufferedImage image;
+			try {
+				reader.setInput(in, true, true);
+				final ImageReadParam param = reader.getDefaultReadParam();
+				final int subsampling = subsampling(reader.getWidth(0), reader.getHeight(0), width, height);
+				param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+				image = reader.read(0, param);
+			}
+			finally {
+				reader.dispose();
+			}
+			if (image.getWidth() == 0 || image.getHeight() == 0)
+				return null;
+			try {
+				return Scalr.resize(image, Scalr.Mode.BEST_FIT_BOTH, width, height);
+			}
+			finally {
+				image.flush();
+			}
+		}
+	}
+
+	/**
+	 * Subsampling keeps at least twice the target resolution, so that the final scaling can still smooth the image.
+	 */
+	static int subsampling(final int sourceWidth, final int sourceHeight, final int targetWidth,
+	                       final int targetHeight) {
+		final int factor = Math.min(sourceWidth / Math.max(1, targetWidth), sourceHeight / Math.max(1, targetHeight));
+		return Math.max(1, factor / 2);
+	}
+
+	/**
+	 * Returns the thumbnail of the key or null if there is no valid one.
+	 * Reading a thumbnail of a file marks it as recently used,
+	 * thumbnails of other images keep their creation time and expire after {@link #REMOTE_THUMBNAIL_MAX_AGE_MILLIS}.
+	 */
+	BufferedImage readThumbnail(final Key key) {
+		final File file = thumbnailFile(key);
+		if (file == null || !file.exists())
+			return null;
+		final long now = System.currentTimeMillis();
+		if (!key.isFile() && now - file.lastModified() > REMOTE_THUMBNAIL_MAX_AGE_MILLIS) {
+			deleteThumbnail(file);
+			return null;
+		}
+		try {
+			final BufferedImage image = ImageIO.read(file);
+			if (image != null && key.isFile())
+				file.setLastModified(now);
+			return image;
+		}
+		catch (final IOException e) {
+			deleteThumbnail(file);
+			return null;
+		}
+	}
+
+	void writeThumbnail(final Key key, final BufferedImage image, final long thumbnailLimit) {
+		final File file = thumbnailFile(key);
+		if (file == null)
+			return;
+		file.getParentFile().mkdirs();
+		final File tempFile = new File(file.getPath() + ".tmp");
+		try {
+			if (ImageIO.write(image, "png", tempFile) && tempFile.renameTo(file)) {
+				addThumbnail(file, thumbnailLimit);
+				return;
+			}
+		}
+		catch (final IOException e) {
+			LogUtils.warn(e.getMessage());
+		}
+		tempFile.delete();
+	}
+
+	private void addThumbnail(final File file, final long thumbnailLimit) {
+		synchronized (thumbnailLock) {
+			if (thumbnailBytes < 0)
+				thumbnailBytes = totalLength(listThumbnails());
+			else
+				thumbnailBytes += file.length();
+			if (thumbnailBytes > thumbnailLimit)
+				evictThumbnails(thumbnailLimit);
+		}
+	}
+
+	/** Deletes the least recently used thumbnails until they use at most three quarters of the limit. */
+	private void evictThumbnails(final long thumbnailLimit) {
+		final File[] thumbnails = listThumbnails();
+		final long[] lastModified = new long[thumbnails.length];
+		for (int i = 0; i < thumbnails.length; i++)
+			lastModified[i] = thumbnails[i].lastModified();
+		final Integer[] order = new Integer[thumbnails.length];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.sort(order, Comparator.comparingLong(i -> lastModified[i]));
+		thumbnailBytes = totalLength(thumbnails);
+		final long retainedBytes = thumbnailLimit / 4 * 3;
+		int evictedThumbnailCount = 0;
+		for (int i = 0; i < order.length && thumbnailBytes > retainedBytes; i++) {
+			final File thumbnail = thumbnails[order[i]];
+			final long length = thumbnail.length();
+			if (thumbnail.delete()) {
+				thumbnailBytes -= length;
+				evictedThumbnailCount++;
+			}
+		}
+		LogUtils.info("removed " + evictedThumbnailCount + " least recently used thumbnails from " + getThumbnailDirectory());
+	}
+
+	private void deleteThumbnail(final File file) {
+		synchronized (thumbnailLock) {
+			final long length = file.length();
+			if (file.delete() && thumbnailBytes >= 0)
+				thumbnailBytes -= length;
+		}
+	}
+
+	private File[] listThumbnails() {
+		final File[] thumbnails = getThumbnailDirectory().listFiles(file -> file.getName().endsWith(THUMBNAIL_EXTENSION));
+		return thumbnails != null ? thumbnails : new File[0];
+	}
+
+	private static long totalLength(final File[] files) {
+		long length = 0;
+		for (final File file : files)
+			length += file.length();
+		return length;
+	}
+
+	long getThumbnailBytes() {
+		synchronized (thumbnailLock) {
+			return thumbnailBytes;
+		}
+	}
+
+	private File getThumbnailDirectory() {
+		if (thumbnailDirectory != null)
+			return thumbnailDirectory;
+		return new File(ResourceController.getResourceController().getFreeplaneUserDirectory(), THUMBNAIL_DIRECTORY);
+	}
+
+	private File thumbnailFile(final Key key) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			final byte[] hash = digest.digest(key.toString().getBytes(StandardCharsets.UTF_8));
+			final StringBuilder name = new StringBuilder(hash.length * 2 + 4);
+			for (final byte b : hash)
+				name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			name.append(THUMBNAIL_EXTENSION);
+			return new File(getThumbnailDirectory(), name.toString());
+		}
+		catch (final NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	static void logImageReadingException(final IOException e) {
+		if((e instanceof FileNotFoundException) || (e instanceof IIOException)) {
+			LogUtils.warn(e.getMessage());
+			return;
+		}
+		final Throwable cause = e.getCause();
+		if((cause instanceof FileNotFoundException) || (cause instanceof IIOException)) {
+			LogUtils.warn(cause.getMessage());
+			return;
+		}
+
+		LogUtils.severe(e);
+	}
+}
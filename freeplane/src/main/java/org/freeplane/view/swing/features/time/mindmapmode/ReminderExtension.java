@@ -19,11 +19,7 @@
  */
 package org.freeplane.view.swing.features.time.mindmapmode;
 
-import java.util.Date;
-import java.util.Timer;
-
 import org.freeplane.core.extension.IExtension;
-import org.freeplane.core.util.SysUtils;
 import org.freeplane.features.map.IMapChangeListener;
 import org.freeplane.features.map.MapChangeEvent;
 import org.freeplane.features.map.NodeDeletionEvent;
@@ -46,7 +42,6 @@ public class ReminderExtension implements IExtension, IMapChangeListener {
 	private long remindUserAt = 0;
 	private PeriodUnit periodUnit;
 	private int period;
-	private Timer timer;
 	private String script;
 	private TimerBlinkTask task;
 
@@ -99,20 +94,24 @@ public class ReminderExtension implements IExtension, IMapChangeListener {
     	this.script = script;
     }
 
-	public void scheduleTimer(final TimerBlinkTask task, final Date date) {
-		if (timer == null) {
-			timer = SysUtils.createTimer(getClass().getSimpleName());
-		}
-		timer.schedule(task, date, BLINKING_PERIOD);
+	public void scheduleTimer(final TimerBlinkTask task) {
+		setTimerTask(task);
+		ReminderScheduler.getInstance().schedule(task);
+	}
+
+	/**
+	 * Sets the task without arming it, the caller passes it to {@link ReminderScheduler#scheduleAll} later.
+	 */
+	void setTimerTask(final TimerBlinkTask task) {
+		deactivateTimer();
 		this.task = task;
 	}
 
 	public void deactivateTimer() {
-		if (timer == null) {
+		if (task == null) {
 			return;
 		}
-		timer.cancel();
-		timer = null;
+		ReminderScheduler.getInstance().cancel(task);
 		task = null;
 	}
 
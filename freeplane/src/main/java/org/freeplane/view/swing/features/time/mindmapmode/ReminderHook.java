@@ -23,12 +23,15 @@ import java.awt.Component;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
 import org.freeplane.core.extension.IExtension;
@@ -39,11 +42,13 @@ import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.FilterController;
+import org.freeplane.features.filter.condition.ICondition;
 import org.freeplane.features.icon.IStateIconProvider;
 import org.freeplane.features.icon.IconController;
 import org.freeplane.features.icon.IconStore;
 import org.freeplane.features.icon.UIIcon;
 import org.freeplane.features.icon.factory.IconStoreFactory;
+import org.freeplane.features.map.IMapLifeCycleListener;
 import org.freeplane.features.map.INodeChangeListener;
 import org.freeplane.features.map.INodeSelectionListener;
 import org.freeplane.features.map.ITooltipProvider;
@@ -56,6 +61,8 @@ import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.mode.NodeHookDescriptor;
 import org.freeplane.features.mode.PersistentNodeHook;
 import org.freeplane.features.script.IScriptStarter;
+import org.freeplane.features.styles.ConditionPredicate;
+import org.freeplane.features.styles.LogicalStyleController;
 import org.freeplane.features.text.TextController;
 import org.freeplane.n3.nanoxml.XMLElement;
 import org.freeplane.view.swing.features.time.mindmapmode.TimeManagement.JTimePanel;
@@ -123,6 +130,7 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 	static final String SCRIPT = "SCRIPT";
 	private static final Integer REMINDER_TOOLTIP = 12;
 	private ModeController modeController;
+	private final List<TimerBlinkTask> tasksToArm = new ArrayList<TimerBlinkTask>();
 
 	/**
 	 *
@@ -140,8 +148,26 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 
 		FilterController.getCurrentFilterController().getConditionFactory().addConditionController(90,
 			new ReminderConditionController());
+		registerUncacheableStyleConditions();
 		createCalendarPanel();
+		modeController.getMapController().addMapLifeCycleListener(new IMapLifeCycleListener() {
+			@Override
+			public void onRemove(final MapModel map) {
+				ReminderScheduler.getInstance().cancelAll(map);
+			}
+		});
+	}
+	private void registerUncacheableStyleConditions() {
+		final LogicalStyleController logicalStyleController = LogicalStyleController.getController(modeController);
+		if (logicalStyleController != null)
+			logicalStyleController.addUncacheableCondition(new ConditionPredicate() {
+				@Override
+				public boolean test(ICondition condition) {
+					return condition instanceof ReminderConditionLater || condition instanceof ReminderConditionExecuted;
+				}
+			});
 	}
+
 	private static final IconStore STORE = IconStoreFactory.ICON_STORE;
 	private static UIIcon bellIcon;
 	private static UIIcon clockIcon;
@@ -325,8 +351,35 @@ public class ReminderHook extends PersistentNodeHook implements IExtension {
 	}
 
 	private void scheduleTimer(final ReminderExtension model, final TimerBlinkTask task) {
-		final Date date = new Date(model.getRemindUserAt());
-		model.scheduleTimer(task, date);
+		if (modeController.getMapController().getMapReader().isMapLoadingInProcess()) {
+			model.setTimerTask(task);
+			armLater(task);
+		}
+		else
+			model.scheduleTimer(task);
+	}
+
+	private void armLater(final TimerBlinkTask task) {
+		synchronized (tasksToArm) {
+			if (tasksToArm.isEmpty()) {
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						armTasks();
+					}
+				});
+			}
+			tasksToArm.add(task);
+		}
+	}
+
+	private void armTasks() {
+		final List<TimerBlinkTask> tasks;
+		synchronized (tasksToArm) {
+			tasks = new ArrayList<TimerBlinkTask>(tasksToArm);
+			tasksToArm.clear();
+		}
+		ReminderScheduler.getInstance().scheduleAll(tasks);
 	}
 
 	ModeController getModeController() {
@@ -0,0 +1,179 @@
+package org.freeplane.view.swing.features.time.mindmapmode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import javax.swing.SwingUtilities;
+
+import org.freeplane.features.map.MapModel;
+
+/**
+ * Runs the blink tasks of the reminders of all maps on one daemon thread.
+ *
+ * Tasks wait in a queue ordered by their reminder time. Due tasks blink on common ticks,
+ * all tasks of a tick run in a single event dispatch thread invocation.
+ */
+class ReminderScheduler {
+	private static final ReminderScheduler INSTANCE = new ReminderScheduler(ReminderExtension.BLINKING_PERIOD, true);
+	private static final Comparator<TimerBlinkTask> TIME_ORDER = new Comparator<TimerBlinkTask>() {
+		@Override
+		public int compare(final TimerBlinkTask t1, final TimerBlinkTask t2) {
+			return Long.compare(t1.getTime(), t2.getTime());
+		}
+	};
+
+	static ReminderScheduler getInstance() {
+		return INSTANCE;
+	}
+
+	private final long period;
+	private final boolean usesThread;
+	private final Set<TimerBlinkTask> scheduledTasks;
+	private final PriorityQueue<TimerBlinkTask> waitingTasks;
+	private final Set<TimerBlinkTask> dueTasks;
+	private long nextTickTime;
+	private Thread thread;
+
+	ReminderScheduler(final long period, final boolean usesThread) {
+		this.period = period;
+		this.usesThread = usesThread;
+		scheduledTasks = new HashSet<TimerBlinkTask>();
+		waitingTasks = new PriorityQueue<TimerBlinkTask>(11, TIME_ORDER);
+		dueTasks = new LinkedHashSet<TimerBlinkTask>();
+		nextTickTime = 0;
+	}
+
+	void schedule(final TimerBlinkTask task) {
+		scheduleAll(Collections.singletonList(task));
+	}
+
+	/**
+	 * Arms all tasks at once, e.g. the reminders of a loaded map.
+	 * Tasks cancelled before are ignored.
+	 */
+	synchronized void scheduleAll(final Collection<TimerBlinkTask> tasks) {
+		boolean added = false;
+		for (final TimerBlinkTask task : tasks) {
+			if (!task.isCancelled() && scheduledTasks.add(task)) {
+				waitingTasks.add(task);
+				added = true;
+			}
+		}
+		if (!added)
+			return;
+		if (usesThread && thread == null) {
+			thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					runTasks();
+				}
+			}, getClass().getSimpleName());
+			thread.setDaemon(true);
+			thread.start();
+		}
+		notifyAll();
+	}
+
+	synchronized void cancel(final TimerBlinkTask task) {
+		task.cancel();
+		if (scheduledTasks.remove(task) && !dueTasks.remove(task))
+			waitingTasks.remove(task);
+	}
+
+	/**
+	 * Cancels the tasks of all reminders of a closed map.
+	 */
+	synchronized void cancelAll(final MapModel map) {
+		boolean removed = false;
+		for (final Iterator<TimerBlinkTask> iterator = scheduledTasks.iterator(); iterator.hasNext();) {
+			final TimerBlinkTask task = iterator.next();
+			if (task.getMap() == map) {
+				task.cancel();
+				iterator.remove();
+				removed = true;
+			}
+		}
+		if (!removed)
+			return;
+		for (final Iterator<TimerBlinkTask> iterator = waitingTasks.iterator(); iterator.hasNext();) {
+			if (iterator.next().isCancelled())
+				iterator.remove();
+		}
+		for (final Iterator<TimerBlinkTask> iterator = dueTasks.iterator(); iterator.hasNext();) {
+			if (iterator.next().isCancelled())
+				iterator.remove();
+		}
+	}
+
+	synchronized int size() {
+		return scheduledTasks.size();
+	}
+
+	/**
+	 * @return all due tasks if a tick is reached at the given time, an empty list otherwise
+	 */
+	synchronized List<TimerBlinkTask> takeTasksToRun(final long now) {
+		while (!waitingTasks.isEmpty() && waitingTasks.peek().getTime() <= now)
+			dueTasks.add(waitingTasks.poll());
+		if (dueTasks.isEmpty() || now < nextTickTime)
+			return Collections.emptyList();
+		nextTickTime = now + period;
+		return new ArrayList<TimerBlinkTask>(dueTasks);
+	}
+
+	/**
+	 * @return the time of the next tick or task, Long.MAX_VALUE if nothing is scheduled
+	 */
+	synchronized long getWakeUpTime() {
+		long wakeUpTime = dueTasks.isEmpty() ? Long.MAX_VALUE : nextTickTime;
+		if (!waitingTasks.isEmpty())
+			wakeUpTime = Math.min(wakeUpTime, waitingTasks.peek().getTime());
+		return wakeUpTime;
+	}
+
+	private void runTasks() {
+		for (;;) {
+			final List<TimerBlinkTask> tasksToRun;
+			synchronized (this) {
+				try {
+					tasksToRun = waitForTasksToRun();
+				}
+				catch (final InterruptedException e) {
+					thread = null;
+					return;
+				}
+			}
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					for (final TimerBlinkTask task : tasksToRun) {
+						if (!task.isCancelled())
+							task.run();
+					}
+				}
+			});
+		}
+	}
+
+	private List<TimerBlinkTask> waitForTasksToRun() throws InterruptedException {
+		for (;;) {
+			final long now = System.currentTimeMillis();
+			final List<TimerBlinkTask> tasksToRun = takeTasksToRun(now);
+			if (!tasksToRun.isEmpty())
+				return tasksToRun;
+			final long wakeUpTime = getWakeUpTime();
+			if (wakeUpTime == Long.MAX_VALUE)
+				wait();
+			else
+				wait(Math.max(1, wakeUpTime - now));
+		}
+	}
+}
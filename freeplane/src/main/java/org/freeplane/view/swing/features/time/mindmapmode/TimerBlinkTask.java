@@ -19,18 +19,17 @@
  */
 package org.freeplane.view.swing.features.time.mindmapmode;
 
-import java.util.TimerTask;
-
 import javax.swing.SwingUtilities;
 
 import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.map.MapModel;
 
 
 /**
  * @author Dimitry Polivaev
  * Feb 20, 2009
  */
-class TimerBlinkTask extends TimerTask {
+class TimerBlinkTask {
 	private final ReminderHook reminderController;
 	/**
 	 *
@@ -39,45 +38,60 @@ class TimerBlinkTask extends TimerTask {
 	private boolean stateAdded = false;
 	private boolean reminderTimeInTheFuture;
 	private boolean alreadyExecuted;
+	private final long time;
+	private volatile boolean cancelled;
 
 	/**
 	 * @param b
 	 */
 	public TimerBlinkTask(final ReminderHook reminderController, final ReminderExtension reminderExtension,
 	                      final boolean stateAdded, boolean reminderTimeInTheFuture) {
-		super();
 		this.reminderController = reminderController;
 		this.reminderExtension = reminderExtension;
 		this.stateAdded = stateAdded;
 		this.reminderTimeInTheFuture = reminderTimeInTheFuture;
 		alreadyExecuted = false;
+		time = reminderExtension.getRemindUserAt();
+		cancelled = false;
+	}
+
+	long getTime() {
+		return time;
+	}
+
+	MapModel getMap() {
+		return reminderExtension.getNode().getMap();
 	}
 
-	@Override
-	public void run() {
-		SwingUtilities.invokeLater(new Runnable() {
+	void cancel() {
+		cancelled = true;
+	}
+
+	boolean isCancelled() {
+		return cancelled;
+	}
 
-			@Override
-			public void run() {
-				if(reminderTimeInTheFuture && reminderExtension.containsScript()){
-					reminderTimeInTheFuture = false;
-					reminderController.runScript(reminderExtension);
-				}
-				if(! alreadyExecuted){
-					if(reminderTimeInTheFuture && ResourceController.getResourceController().getBooleanProperty("remindersShowNotifications"))
-						SwingUtilities.invokeLater(new Runnable() {
-							@Override
-							public void run() {
-								reminderController.showNotificationPopup(reminderExtension);
-							}
-						});
+	/**
+	 * Called by {@link ReminderScheduler} on the event dispatch thread.
+	 */
+	void run() {
+		if(reminderTimeInTheFuture && reminderExtension.containsScript()){
+			reminderTimeInTheFuture = false;
+			reminderController.runScript(reminderExtension);
+		}
+		if(! alreadyExecuted){
+			if(reminderTimeInTheFuture && ResourceController.getResourceController().getBooleanProperty("remindersShowNotifications"))
+				SwingUtilities.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						reminderController.showNotificationPopup(reminderExtension);
+					}
+				});
 
-					alreadyExecuted = true;
-				}
-				stateAdded = !stateAdded;
-				reminderController.blink(reminderExtension, stateAdded);
-			}
-		});
+			alreadyExecuted = true;
+		}
+		stateAdded = !stateAdded;
+		reminderController.blink(reminderExtension, stateAdded);
 	}
 
 	public boolean alreadyExecuted(){
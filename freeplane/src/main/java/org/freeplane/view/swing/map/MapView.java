@@ -60,7 +60,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.Vector;
 
 import javax.swing.JComponent;
 import javax.swing.JOptionPane;
@@ -120,6 +119,7 @@ import org.freeplane.view.swing.map.MapViewScrollPane.MapViewPort;
 import org.freeplane.view.swing.map.link.ConnectorView;
 import org.freeplane.view.swing.map.link.EdgeLinkView;
 import org.freeplane.view.swing.map.link.ILinkView;
+import org.freeplane.view.swing.map.link.LinkViewIndex;
 
 /**
  * This class represents the view of a whole MindMap (in analogy to class
@@ -564,11 +564,12 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	};
 
 	private static final long serialVersionUID = 1L;
+	private static final int COLLISION_AREA_SIZE = 16;
 	static boolean standardDrawRectangleForSelection;
 	static Color standardSelectColor;
 	static Color standardSelectRectangleColor;
-	/** Used to identify a right click onto a link curve. */
-	private Vector<ILinkView> arrowLinkViews;
+	/** Used to paint and to identify a right click onto a link curve. */
+	private final LinkViewIndex linkViews = new LinkViewIndex();
 	private Color background = null;
 	private JComponent backgroundComponent;
 	private Rectangle boundingRectangle = null;
@@ -680,8 +681,10 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 			@Override
 			public void nodeChanged(final NodeChangeEvent event) {
 				if(NodeLinks.CONNECTOR.equals(event.getProperty()) &&
-						event.getNode().getMap().equals(getModel()))
+						event.getNode().getMap().equals(getModel())) {
+					linkViews.clear();
 					repaint();
+				}
 			}
 		};
 		addPropertyChangeListener(SPOTLIGHT_ENABLED, repaintOnClientPropertyChangeListener);
@@ -824,18 +827,19 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	}
 
 	public Object detectCollision(final Point p) {
-		if (arrowLinkViews == null) {
+		if (HIDE_CONNECTORS == showConnectors || !linkViews.isValid()) {
 			return null;
 		}
-		for (int i = 0; i < arrowLinkViews.size(); ++i) {
-			final ILinkView arrowView = arrowLinkViews.get(i);
-			if (arrowView.detectCollision(p, true)) {
+		final Rectangle area = new Rectangle(p.x - COLLISION_AREA_SIZE / 2, p.y - COLLISION_AREA_SIZE / 2,
+		    COLLISION_AREA_SIZE, COLLISION_AREA_SIZE);
+		final List<ILinkView> arrowLinkViews = linkViews.getViews(area);
+		for (final ILinkView arrowView : arrowLinkViews) {
+			if (isShown(arrowView.getModel()) && arrowView.detectCollision(p, true)) {
 				return arrowView.getModel();
 			}
 		}
-		for (int i = 0; i < arrowLinkViews.size(); ++i) {
-			final ILinkView arrowView = arrowLinkViews.get(i);
-			if (arrowView.detectCollision(p, false)) {
+		for (final ILinkView arrowView : arrowLinkViews) {
+			if (isShown(arrowView.getModel()) && arrowView.detectCollision(p, false)) {
 				return arrowView.getModel();
 			}
 		}
@@ -882,11 +886,13 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	public Rectangle getInnerBounds() {
 		final Rectangle innerBounds = rootView.getBounds();
 		final Rectangle maxBounds = new Rectangle(0, 0, getWidth(), getHeight());
-		if(arrowLinkViews != null)
-			for (int i = 0; i < arrowLinkViews.size(); ++i) {
-				final ILinkView arrowView = arrowLinkViews.get(i);
-				arrowView.increaseBounds(innerBounds);
+		if(HIDE_CONNECTORS != showConnectors && hasNodeLinks()) {
+			updateLinkViews();
+			for (final ILinkView arrowView : linkViews.getViews()) {
+				if (isShown(arrowView.getModel()))
+					arrowView.increaseBounds(innerBounds);
 			}
+		}
 		return innerBounds.intersection(maxBounds);
 	}
 
@@ -1264,6 +1270,7 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 
 	@Override
 	public void mapChanged(final MapChangeEvent event) {
+		linkViews.clear();
 		final Object property = event.getProperty();
 		if (property.equals(MapStyle.RESOURCES_BACKGROUND_COLOR)) {
 			setBackground(requiredBackground());
@@ -1394,6 +1401,9 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
    public void setBackground(Color background) {
        super.setBackground(background);
        updateBackground();
+       // connector views paint their labels on the background color, called by super constructor first
+       if(linkViews != null)
+           linkViews.clear();
    }
 
     private void updateIconsRecursively(final NodeView node) {
@@ -1716,41 +1726,13 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 		return paintingMode;
 	}
 
-	private void paintConnectors(final Collection<? extends NodeLinkModel> links, final Graphics2D graphics,
-	                        final HashSet<ConnectorModel> alreadyPaintedLinks) {
+	private void paintConnectors(final Collection<ILinkView> views, final Graphics2D graphics) {
 		final Font font = graphics.getFont();
 		try {
-			final Iterator<? extends NodeLinkModel> linkIterator = links.iterator();
-			while (linkIterator.hasNext()) {
-				final NodeLinkModel next = linkIterator.next();
-				if (!(next instanceof ConnectorModel)) {
-					continue;
-				}
-				final ConnectorModel ref = (ConnectorModel) next;
-				if (alreadyPaintedLinks.add(ref)) {
-					final NodeModel target = ref.getTarget();
-					if (target == null) {
-						continue;
-					}
-					final NodeModel source = ref.getSource();
-					final NodeView sourceView = getNodeView(source);
-					final NodeView targetView = getNodeView(target);
-					final ILinkView arrowLink;
-					final boolean areBothNodesVisible = sourceView != null && targetView != null && source.hasVisibleContent(filter) && target.hasVisibleContent(filter);
-					final boolean showConnector = SHOW_CONNECTOR_LINES == showConnectors
-							|| HIDE_CONNECTOR_LINES == showConnectors
-							|| SHOW_CONNECTORS_FOR_SELECTION == showConnectors && (sourceView != null && sourceView.isSelected()
-							|| targetView != null && targetView.isSelected());
-					if(showConnector) {
-						if (areBothNodesVisible && (Shape.EDGE_LIKE.equals(ref.getShape()) || sourceView.getMap().getLayoutType() == MapViewLayout.OUTLINE))
-							arrowLink = new EdgeLinkView(ref, getModeController(), sourceView, targetView);
-						else if(areBothNodesVisible || ! hideSingleEndConnectors)
-							arrowLink = new ConnectorView(ref, sourceView, targetView, getBackground());
-						else
-							break;
-						arrowLink.paint(graphics);
-						arrowLinkViews.add(arrowLink);
-					}
+			for (final ILinkView arrowLink : views) {
+				if (isShown(arrowLink.getModel())) {
+					arrowLink.paint(graphics);
+					linkViews.update(arrowLink);
 				}
 			}
 		}
@@ -1759,21 +1741,51 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 		}
 	}
 
+	private boolean isShown(final ConnectorModel ref) {
+		final NodeModel source = ref.getSource();
+		final NodeModel target = ref.getTarget();
+		final NodeView sourceView = getNodeView(source);
+		final NodeView targetView = getNodeView(target);
+		final boolean showConnector = SHOW_CONNECTOR_LINES == showConnectors
+				|| HIDE_CONNECTOR_LINES == showConnectors
+				|| SHOW_CONNECTORS_FOR_SELECTION == showConnectors && (sourceView != null && sourceView.isSelected()
+				|| targetView != null && targetView.isSelected());
+		return showConnector && (! hideSingleEndConnectors || areBothNodesVisible(ref, sourceView, targetView));
+	}
+
+	private boolean areBothNodesVisible(final ConnectorModel ref, final NodeView sourceView, final NodeView targetView) {
+		return sourceView != null && targetView != null && ref.getSource().hasVisibleContent(filter)
+				&& ref.getTarget().hasVisibleContent(filter);
+	}
+
 	private void paintConnectors(final Graphics2D graphics) {
-		arrowLinkViews = new Vector<ILinkView>();
 		final Object renderingHint = getModeController().getController().getMapViewManager().setEdgesRenderingHint(
 		    graphics);
-		if(hasNodeLinks())
-			paintConnectors(rootView, graphics, new HashSet<ConnectorModel>());
+		if(hasNodeLinks()) {
+			updateLinkViews();
+			final Rectangle clipBounds = graphics.getClipBounds();
+			final Rectangle paintedArea = clipBounds != null ? clipBounds : new Rectangle(0, 0, getWidth(), getHeight());
+			paintConnectors(linkViews.getViews(paintedArea), graphics);
+		}
+		else
+			linkViews.clear();
 		graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, renderingHint);
 	}
 
-	private void paintConnectors(final NodeView source, final Graphics2D graphics, final HashSet<ConnectorModel> alreadyPaintedConnectors) {
+	private void updateLinkViews() {
+		if (linkViews.isValid())
+			return;
+		linkViews.startUpdate();
+		addLinkViews(rootView, new HashSet<ConnectorModel>());
+		linkViews.finishUpdate();
+	}
+
+	private void addLinkViews(final NodeView source, final HashSet<ConnectorModel> alreadyAddedConnectors) {
 		final NodeModel node = source.getModel();
 		final Collection<? extends NodeLinkModel> outLinks = getLinksFrom(node);
-		paintConnectors(outLinks, graphics, alreadyPaintedConnectors);
+		addLinkViews(outLinks, alreadyAddedConnectors);
 		final Collection<? extends NodeLinkModel> inLinks = getLinksTo(node);
-		paintConnectors(inLinks, graphics, alreadyPaintedConnectors);
+		addLinkViews(inLinks, alreadyAddedConnectors);
 		final int nodeViewCount = source.getComponentCount();
 		for (int i = 0; i < nodeViewCount; i++) {
 			final Component component = source.getComponent(i);
@@ -1781,21 +1793,36 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 				continue;
 			}
 			final NodeView child = (NodeView) component;
-			if (!isPrinting) {
-				if(!child.isHierarchyVisible())
-					continue;
-				final Rectangle bounds = SwingUtilities.convertRectangle(source, child.getBounds(), this);
-				final JViewport vp = (JViewport) getParent();
-				final Rectangle viewRect = vp.getViewRect();
-				viewRect.x -= viewRect.width;
-				viewRect.y -= viewRect.height;
-				viewRect.width *= 3;
-				viewRect.height *= 3;
-				if (!viewRect.intersects(bounds)) {
+			if(!child.isHierarchyVisible())
+				continue;
+			addLinkViews(child, alreadyAddedConnectors);
+		}
+	}
+
+	private void addLinkViews(final Collection<? extends NodeLinkModel> links,
+	                          final HashSet<ConnectorModel> alreadyAddedConnectors) {
+		for (final NodeLinkModel next : links) {
+			if (!(next instanceof ConnectorModel)) {
+				continue;
+			}
+			final ConnectorModel ref = (ConnectorModel) next;
+			if (alreadyAddedConnectors.add(ref)) {
+				final NodeModel target = ref.getTarget();
+				if (target == null) {
 					continue;
 				}
+				final NodeModel source = ref.getSource();
+				final NodeView sourceView = getNodeView(source);
+				final NodeView targetView = getNodeView(target);
+				final ILinkView arrowLink;
+				if (areBothNodesVisible(ref, sourceView, targetView) && (Shape.EDGE_LIKE.equals(ref.getShape()) || sourceView.getMap().getLayoutType() == MapViewLayout.OUTLINE))
+					arrowLink = new EdgeLinkView(ref, getModeController(), sourceView, targetView);
+				else {
+					final ConnectorView previousView = linkViews.getPreviousConnectorView(ref, sourceView, targetView);
+					arrowLink = previousView != null ? previousView : new ConnectorView(ref, sourceView, targetView, getBackground());
+				}
+				linkViews.add(arrowLink);
 			}
-			paintConnectors(child, graphics, alreadyPaintedConnectors);
 		}
 	}
 
@@ -2194,6 +2221,12 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 		selectAsTheOnlyOneSelected(getRoot());
 	}
 
+	@Override
+	public void doLayout() {
+		super.doLayout();
+		linkViews.invalidate();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.awt.Container#validateTree()
@@ -30,7 +30,6 @@ import java.awt.KeyboardFocusManager;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
-import java.awt.SystemColor;
 import java.awt.Window;
 import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
@@ -62,7 +61,6 @@ import org.freeplane.core.resources.IFreeplanePropertyListener;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.components.JComboBoxWithBorder;
 import org.freeplane.core.ui.components.UITools;
-import org.freeplane.core.ui.svgicons.GraphicsHints;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.map.IMapLifeCycleListener;
 import org.freeplane.features.map.IMapSelection;
@@ -409,36 +407,21 @@ public class MapViewController implements IMapViewManager , IMapViewChangeListen
 		return createImage(dpi, printedGraphicsBounds);
 	}
 
+	/**
+	 * Images larger than one band are painted on demand while they are written
+	 * and keep the map view prepared for printing until they are closed.
+	 */
 	public RenderedImage createImage(int dpi, final Rectangle printedArea) {
 		final MapView view = getMapView();
 		view.preparePrinting();
-		final BufferedImage myImage = printToImage(dpi, view, printedArea);
+		final TiledMapImage image = new TiledMapImage(view, dpi, printedArea);
+		if (! image.fitsIntoOneBand())
+			return image;
+		final BufferedImage myImage = image.toBufferedImage();
 		view.endPrinting();
 		return myImage;
 	}
 
-	private BufferedImage printToImage(int dpi, final MapView view, final Rectangle innerBounds) {
-		double scaleFactor = (double) dpi / (double) (UITools.FONT_SCALE_FACTOR * 72);
-
-		int imageWidth = (int) Math.ceil(innerBounds.width * scaleFactor);
-		int imageHeight = (int) Math.ceil(innerBounds.height * scaleFactor);
-
-		final BufferedImage myImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
-		final Graphics2D g = (Graphics2D) myImage.getGraphics();
-		Color background = view.getBackground();
-        if(background == null) {
-            background = SystemColor.window;
-        }
-
-		g.setBackground(background);
-		g.clearRect(0, 0, imageWidth, imageHeight);
-		g.scale(scaleFactor, scaleFactor);
-		g.translate(-innerBounds.x, -innerBounds.y);
-		g.setRenderingHint(GraphicsHints.CACHE_ICONS, Boolean.TRUE);
-		view.print(g);
-		return myImage;
-	}
-
 	/* (non-Javadoc)
 	 * @see org.freeplane.core.frame.IMapViewController#getBackgroundColor(org.freeplane.core.model.NodeModel)
 	 */
@@ -0,0 +1,225 @@
+package org.freeplane.view.swing.map;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.SystemColor;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Vector;
+
+import javax.swing.JComponent;
+
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.ui.svgicons.GraphicsHints;
+
+/**
+ * Image of a printed map area which paints the map on demand in horizontal bands.
+ *
+ * Image writers like the PNG writer request the image row by row, so only one band
+ * is kept in memory however large the image is. Each band is clipped, so that only the nodes
+ * intersecting it are painted. The map view stays prepared for printing until the image is closed.
+ */
+class TiledMapImage implements RenderedImage, AutoCloseable {
+	static final int MAXIMAL_BAND_PIXEL_COUNT = 4 * 1024 * 1024;
+	private static final ColorModel RGB_MODEL = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).getColorModel();
+
+	private final JComponent view;
+	private final Runnable endPrinting;
+	private final Rectangle printedArea;
+	private final double scaleFactor;
+	private final int width;
+	private final int height;
+	private final int bandHeight;
+	private final Color background;
+	private BufferedImage band;
+	private int paintedBandIndex;
+
+	TiledMapImage(final MapView view, final int dpi, final Rectangle printedArea) {
+		this(view, view::endPrinting, (double) dpi / (double) (UITools.FONT_SCALE_FACTOR * 72), printedArea,
+		    MAXIMAL_BAND_PIXEL_COUNT);
+	}
+
+	TiledMapImage(final JComponent view, final Runnable endPrinting, final double scaleFactor,
+	              final Rectangle printedArea, final int maximalBandPixelCount) {
+		this.view = view;
+		this.endPrinting = endPrinting;
+		this.printedArea = printedArea;
+		this.scaleFactor = scaleFactor;
+		width = Math.max(1, (int) Math.ceil(printedArea.width * scaleFactor));
+		height = Math.max(1, (int) Math.ceil(printedArea.height * scaleFactor));
+		bandHeight = Math.max(1, Math.min(height, maximalBandPixelCount / width));
+		final Color viewBackground = view.getBackground();
+		background = viewBackground != null ? viewBackground : SystemColor.window;
+		paintedBandIndex = -1;
+	}
+
+	boolean fitsIntoOneBand() {
+		return bandHeight == height;
+	}
+
+	/**
+	 * Paints the whole image at once, used for images fitting into one band.
+	 */
+	BufferedImage toBufferedImage() {
+		final BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		paint(image, 0);
+		return image;
+	}
+
+	private void paint(final BufferedImage image, final int y) {
+		final Graphics2D g = image.createGraphics();
+		try {
+			g.setBackground(background);
+			g.clearRect(0, 0, image.getWidth(), image.getHeight());
+			g.translate(0, -y);
+			g.setClip(0, y, image.getWidth(), image.getHeight());
+			g.scale(scaleFactor, scaleFactor);
+			g.translate(-printedArea.x, -printedArea.y);
+			g.setRenderingHint(GraphicsHints.CACHE_ICONS, Boolean.TRUE);
+			view.print(g);
+		}
+		finally {
+			g.dispose();
+		}
+	}
+
+	/**
+	 * Returns the raster of the requested band. The raster is reused for the next band.
+	 */
+	@Override
+	public Raster getTile(final int tileX, final int tileY) {
+		if (band == null)
+			band = new BufferedImage(width, bandHeight, BufferedImage.TYPE_INT_RGB);
+		final int y = tileY * bandHeight;
+		if (paintedBandIndex != tileY) {
+			paint(band, y);
+			paintedBandIndex = tileY;
+		}
+		final int currentBandHeight = Math.min(bandHeight, height - y);
+		return band.getRaster().createChild(0, 0, width, currentBandHeight, 0, y, null);
+	}
+
+	@Override
+	public Raster getData() {
+		return getData(new Rectangle(0, 0, width, height));
+	}
+
+	@Override
+	public Raster getData(final Rectangle rect) {
+		final WritableRaster raster = Raster.createWritableRaster(
+		    getSampleModel().createCompatibleSampleModel(rect.width, rect.height), new Point(rect.x, rect.y));
+		return copyData(raster);
+	}
+
+	@Override
+	public WritableRaster copyData(final WritableRaster raster) {
+		final WritableRaster target = raster != null ? raster
+		        : Raster.createWritableRaster(getSampleModel(), new Point(0, 0));
+		final Rectangle bounds = target.getBounds().intersection(new Rectangle(0, 0, width, height));
+		if (bounds.isEmpty())
+			return target;
+		final int lastBand = (bounds.y + bounds.height - 1) / bandHeight;
+		for (int bandIndex = bounds.y / bandHeight; bandIndex <= lastBand; bandIndex++)
+			target.setRect(getTile(0, bandIndex));
+		return target;
+	}
+
+	@Override
+	public void close() {
+		band = null;
+		paintedBandIndex = -1;
+		endPrinting.run();
+	}
+
+	@Override
+	public Vector<RenderedImage> getSources() {
+		return null;
+	}
+
+	@Override
+	public Object getProperty(final String name) {
+		return Image.UndefinedProperty;
+	}
+
+	@Override
+	public String[] getPropertyNames() {
+		return null;
+	}
+
+	@Override
+	public ColorModel getColorModel() {
+		return RGB_MODEL;
+	}
+
+	@Override
+	public SampleModel getSampleModel() {
+		return RGB_MODEL.createCompatibleSampleModel(width, height);
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public int getMinX() {
+		return 0;
+	}
+
+	@Override
+	public int getMinY() {
+		return 0;
+	}
+
+	@Override
+	public int getNumXTiles() {
+		return 1;
+	}
+
+	@Override
+	public int getNumYTiles() {
+		return (height + bandHeight - 1) / bandHeight;
+	}
+
+	@Override
+	public int getMinTileX() {
+		return 0;
+	}
+
+	@Override
+	public int getMinTileY() {
+		return 0;
+	}
+
+	@Override
+	public int getTileWidth() {
+		return width;
+	}
+
+	@Override
+	public int getTileHeight() {
+		return bandHeight;
+	}
+
+	@Override
+	public int getTileGridXOffset() {
+		return 0;
+	}
+
+	@Override
+	public int getTileGridYOffset() {
+		return 0;
+	}
+}
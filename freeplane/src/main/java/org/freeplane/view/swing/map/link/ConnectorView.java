@@ -21,7 +21,9 @@ package org.freeplane.view.swing.map.link;
 
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Point;
@@ -55,7 +57,21 @@ public class ConnectorView extends AConnectorView{
 	static final Stroke DEF_STROKE = new BasicStroke(1);
 	private static final int LABEL_GAP = 4;
 	private static final double PRECISION = 2;
+	private Shape connectorCurve;
 	private Shape arrowLinkCurve;
+	private Point startPoint;
+	private Point startPoint2;
+	private Point endPoint2;
+	private Point endPoint;
+	private Point centerPoint;
+	private boolean sourceIsLeft;
+	private boolean targetIsLeft;
+	private Point startInclination;
+	private Point endInclination;
+	private double zoom;
+	private boolean showsConnectors;
+	private boolean showsControlPoints;
+	private Rectangle bounds;
 	private Rectangle sourceTextRectangle;
 	private Rectangle middleTextRectangle;
 	private Rectangle targetTextRectangle;
@@ -273,18 +289,46 @@ public class ConnectorView extends AConnectorView{
 	 * @see org.freeplane.view.swing.map.link.ILinkView#paint(java.awt.Graphics)
 	 */
 	public void paint(final Graphics graphics) {
-        final boolean selfLink = getSource() == getTarget();
-		if (!isSourceVisible() && !isTargetVisible()) {
+		updateGeometry();
+		sourceTextRectangle = null;
+		middleTextRectangle = null;
+		targetTextRectangle = null;
+		if (bounds == null) {
 			return;
 		}
-		Point startPoint = null, endPoint = null, startPoint2 = null, endPoint2 = null;
-		boolean targetIsLeft = false;
-		boolean sourceIsLeft = false;
 		final Graphics2D g = (Graphics2D) graphics.create();
 		final Color oldColor = g.getColor();
 		g.setColor(color);
 		/* set stroke. */
 		g.setStroke(stroke);
+		paintCurve(g, startPoint, startPoint2, endPoint2, endPoint, showsConnectors);
+		if(showsConnectors) {
+			drawLabels(g, startPoint, startPoint2, endPoint2, endPoint);
+		}
+		g.setColor(oldColor);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.freeplane.view.swing.map.link.ILinkView#getBounds()
+	 */
+	public Rectangle getBounds() {
+		updateGeometry();
+		return bounds == null ? null : new Rectangle(bounds);
+	}
+
+	/**
+	 * Computes the connector points and curve, unless neither end point nor inclination nor zoom
+	 * changed since the last computation.
+	 */
+	private void updateGeometry() {
+		final boolean selfLink = getSource() == getTarget();
+		if (!isSourceVisible() && !isTargetVisible()) {
+			clearGeometry();
+			return;
+		}
+		Point startPoint = null, endPoint = null;
+		boolean targetIsLeft = false;
+		boolean sourceIsLeft = false;
 		if (isSourceVisible()) {
 			startPoint = source.getLinkPoint(connectorModel.getStartInclination());
 			sourceIsLeft = source.isLeft();
@@ -311,31 +355,153 @@ public class ConnectorView extends AConnectorView{
 			}
 		}
 		final MapView map = getMap();
+		final Point startInclination = connectorModel.getStartInclination();
+		final Point endInclination = connectorModel.getEndInclination();
+		final double zoom = map.getZoom();
+		final boolean showsConnectors = map.showsConnectorLines();
+		final boolean showsControlPoints = connectorModel.getShowControlPointsFlag();
+		if (bounds != null
+				&& samePoint(startPoint, this.startPoint) && samePoint(endPoint, this.endPoint)
+				&& sourceIsLeft == this.sourceIsLeft && targetIsLeft == this.targetIsLeft
+				&& samePoint(startInclination, this.startInclination) && samePoint(endInclination, this.endInclination)
+				&& zoom == this.zoom && showsConnectors == this.showsConnectors
+				&& showsControlPoints == this.showsControlPoints) {
+			return;
+		}
+		this.startPoint = startPoint;
+		this.endPoint = endPoint;
+		this.sourceIsLeft = sourceIsLeft;
+		this.targetIsLeft = targetIsLeft;
+		this.startInclination = startInclination;
+		this.endInclination = endInclination;
+		this.zoom = zoom;
+		this.showsConnectors = showsConnectors;
+		this.showsControlPoints = showsControlPoints;
+		startPoint2 = null;
+		endPoint2 = null;
+		centerPoint = null;
 		if (startPoint != null) {
 			startPoint2 = new Point(startPoint);
-			Point startInclination = connectorModel.getStartInclination();
+			Point inclination = connectorModel.getStartInclination();
 			if(endPoint == null){
-				normalizeLength(NORMAL_LENGTH, startInclination);
+				normalizeLength(NORMAL_LENGTH, inclination);
 			}
-			startPoint2.translate(((sourceIsLeft) ? -1 : 1) * map.getZoomed(startInclination.x),
-				map.getZoomed(startInclination.y));
+			startPoint2.translate(((sourceIsLeft) ? -1 : 1) * map.getZoomed(inclination.x),
+				map.getZoomed(inclination.y));
 
 		}
 		if (endPoint != null) {
 			endPoint2 = new Point(endPoint);
-			Point endInclination = connectorModel.getEndInclination();
+			Point inclination = connectorModel.getEndInclination();
 			if(startPoint == null){
-				normalizeLength(NORMAL_LENGTH, endInclination);
+				normalizeLength(NORMAL_LENGTH, inclination);
 			}
-			endPoint2.translate(((targetIsLeft) ? -1 : 1) * map.getZoomed(endInclination.x), map
-				.getZoomed(endInclination.y));
+			endPoint2.translate(((targetIsLeft) ? -1 : 1) * map.getZoomed(inclination.x), map
+				.getZoomed(inclination.y));
 		}
-		final boolean showsConnectors = map.showsConnectorLines();
-		paintCurve(g, startPoint, startPoint2, endPoint2, endPoint, showsConnectors);
-		if(showsConnectors) {
-			drawLabels(g, startPoint, startPoint2, endPoint2, endPoint);
+		createCurves(startPoint, startPoint2, endPoint2, endPoint);
+		bounds = calculateBounds();
+	}
+
+	private void clearGeometry() {
+		startPoint = startPoint2 = endPoint2 = endPoint = null;
+		centerPoint = null;
+		connectorCurve = null;
+		arrowLinkCurve = null;
+		bounds = null;
+	}
+
+	private static boolean samePoint(final Point p1, final Point p2) {
+		return p1 == null ? p2 == null : p1.equals(p2);
+	}
+
+	private void createCurves(Point startPoint, Point startPoint2, Point endPoint2, Point endPoint) {
+		final boolean selfLink = getSource() == getTarget();
+		final boolean isLine = ConnectorModel.Shape.LINE.equals(connectorModel.getShape());
+		connectorCurve = null;
+		if (showsConnectors && startPoint != null && endPoint != null) {
+			if(isLine) {
+				if (selfLink) {
+					connectorCurve = createLine(startPoint, startPoint2);
+				}
+				else {
+					connectorCurve = createLine(startPoint, endPoint);
+				}
+			}
+			else if (ConnectorModel.Shape.LINEAR_PATH.equals(connectorModel.getShape()))
+				connectorCurve = createLinearPath(startPoint, startPoint2, endPoint2, endPoint);
+			else
+				connectorCurve = createCubicCurve2D(startPoint, startPoint2, endPoint2, endPoint);
 		}
-		g.setColor(oldColor);
+		arrowLinkCurve = connectorCurve;
+		if (showsConnectors && arrowLinkCurve == null
+				&& (showsControlPoints || !isSourceVisible() || !isTargetVisible())) {
+			if (startPoint != null) {
+				arrowLinkCurve = createLine(startPoint, startPoint2);
+			}
+			else if (endPoint != null && !(selfLink && isLine)) {
+				arrowLinkCurve = createLine(endPoint, endPoint2);
+			}
+		}
+	}
+
+	private Rectangle calculateBounds() {
+		final Rectangle bounds = arrowLinkCurve != null ? arrowLinkCurve.getBounds() : null;
+		final Rectangle pointBounds = addPoint(addPoint(addPoint(addPoint(bounds, startPoint), startPoint2), endPoint2), endPoint);
+		final int foldingSymbolHalfWidth = Math.max(source != null ? source.getZoomedFoldingSymbolHalfWidth() : 0,
+		    target != null ? target.getZoomedFoldingSymbolHalfWidth() : 0);
+		final int margin = (int) Math.ceil(getZoom() * 10 + stroke.getLineWidth()) + foldingSymbolHalfWidth + 1;
+		pointBounds.grow(margin, margin);
+		if (showsConnectors) {
+			final Dimension labelSize = getMaximumLabelSize();
+			if (labelSize != null) {
+				pointBounds.grow(labelSize.width + LABEL_GAP, labelSize.height + LABEL_GAP);
+			}
+		}
+		return pointBounds;
+	}
+
+	private static Rectangle addPoint(final Rectangle bounds, final Point p) {
+		if (p == null) {
+			return bounds;
+		}
+		if (bounds == null) {
+			return new Rectangle(p);
+		}
+		bounds.add(p);
+		return bounds;
+	}
+
+	private Dimension getMaximumLabelSize() {
+		final String sourceLabel = connectorModel.getSourceLabel();
+		final String middleLabel = connectorModel.getMiddleLabel();
+		final String targetLabel = connectorModel.getTargetLabel();
+		if (sourceLabel == null && middleLabel == null && targetLabel == null) {
+			return null;
+		}
+		final FontMetrics fontMetrics = getMap().getFontMetrics(getLabelFont());
+		final Dimension labelSize = new Dimension();
+		addLabelSize(labelSize, fontMetrics, sourceLabel);
+		addLabelSize(labelSize, fontMetrics, middleLabel);
+		addLabelSize(labelSize, fontMetrics, targetLabel);
+		return labelSize;
+	}
+
+	private void addLabelSize(final Dimension labelSize, final FontMetrics fontMetrics, final String text) {
+		if (text == null || text.equals("")) {
+			return;
+		}
+		final String[] lines = text.split("\n");
+		for(final String line : lines){
+			labelSize.width = Math.max(labelSize.width, fontMetrics.stringWidth(line));
+		}
+		labelSize.height = Math.max(labelSize.height, fontMetrics.getHeight() * lines.length + fontMetrics.getDescent());
+	}
+
+	private Font getLabelFont() {
+		final String fontFamily = connectorModel.getLabelFontFamily();
+		final int fontSize = Math.round (connectorModel.getLabelFontSize() * UITools.FONT_SCALE_FACTOR);
+		return new Font(fontFamily, 0, getZoomed(fontSize));
 	}
 
 	private void normalizeLength(int normalLength, Point startInclination) {
@@ -360,26 +526,9 @@ public class ConnectorView extends AConnectorView{
 	private void paintCurve(final Graphics2D g, Point startPoint, Point startPoint2, Point endPoint2, Point endPoint, boolean showsConnectors) {
 		final boolean selfLink = getSource() == getTarget();
 		final boolean isLine = ConnectorModel.Shape.LINE.equals(connectorModel.getShape());
-		arrowLinkCurve = null;
-		if (showsConnectors) {
-			if (startPoint != null && endPoint != null) {
-				if(isLine) {
-			                    if (selfLink) {
-					arrowLinkCurve = createLine(startPoint, startPoint2);
-			                    }
-			                    else {
-					arrowLinkCurve = createLine(startPoint, endPoint);
-			                    }
-			                }
-			                else if (ConnectorModel.Shape.LINEAR_PATH.equals(connectorModel.getShape()))
-			                    arrowLinkCurve = createLinearPath(startPoint, startPoint2, endPoint2, endPoint);
-			                else
-			                    arrowLinkCurve = createCubicCurve2D(startPoint, startPoint2, endPoint2, endPoint);
-			} 
-			if (arrowLinkCurve != null) {
-				g.draw(arrowLinkCurve);
-			}
-		} 
+		if (connectorCurve != null) {
+			g.draw(connectorCurve);
+		}
 		if (isSourceVisible() && !(showsConnectors && connectorModel.getStartArrow().equals(ArrowType.NONE))) {
 			if(!selfLink && isLine && endPoint != null)
 				paintArrow(g, endPoint, startPoint);
@@ -405,16 +554,10 @@ public class ConnectorView extends AConnectorView{
 				if (startPoint != null) {
 					g.drawLine(startPoint.x, startPoint.y, startPoint2.x, startPoint2.y);
 					drawCircle(g, startPoint2, source.getZoomedFoldingSymbolHalfWidth());
-					if (arrowLinkCurve == null) {
-						arrowLinkCurve = createLine(startPoint, startPoint2);
-					}
 				}
 				if (endPoint != null && !(selfLink && isLine)) {
 					g.drawLine(endPoint.x, endPoint.y, endPoint2.x, endPoint2.y);
 					drawCircle(g, endPoint2, target.getZoomedFoldingSymbolHalfWidth());
-					if (arrowLinkCurve == null) {
-						arrowLinkCurve = createLine(endPoint, endPoint2);
-					}
 				}
 			}
 		}
@@ -438,10 +581,7 @@ public class ConnectorView extends AConnectorView{
 		}
 
 		final Font oldFont = g.getFont();
-		final String fontFamily = connectorModel.getLabelFontFamily();
-        final int fontSize = Math.round (connectorModel.getLabelFontSize() * UITools.FONT_SCALE_FACTOR);
-        final Font linksFont = new Font(fontFamily, 0, getZoomed(fontSize));
-        g.setFont(linksFont);
+		g.setFont(getLabelFont());
 
 		if (startPoint != null) {
 			sourceTextRectangle = drawEndPointText(g, sourceLabel, startPoint, startPoint2);
@@ -456,7 +596,10 @@ public class ConnectorView extends AConnectorView{
 			}
 		}
                 if (startPoint != null && endPoint != null) {
-                    middleTextRectangle = drawMiddleLabel(g, middleLabel, getCenterPoint());
+                    if (centerPoint == null) {
+                        centerPoint = getCenterPoint();
+                    }
+                    middleTextRectangle = drawMiddleLabel(g, middleLabel, centerPoint);
 		}
 		g.setFont(oldFont);
     }
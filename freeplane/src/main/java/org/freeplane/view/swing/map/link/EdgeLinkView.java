@@ -25,6 +25,7 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
 
+import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.ColorUtils;
 import org.freeplane.features.link.ArrowType;
 import org.freeplane.features.link.ConnectorModel;
@@ -32,6 +33,7 @@ import org.freeplane.features.link.LinkController;
 import org.freeplane.features.link.ConnectorModel.Shape;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.styles.MapViewLayout;
+import org.freeplane.view.swing.map.MainView;
 import org.freeplane.view.swing.map.MapView;
 import org.freeplane.view.swing.map.NodeView;
 import org.freeplane.view.swing.map.edge.EdgeView;
@@ -42,6 +44,7 @@ import org.freeplane.view.swing.map.edge.EdgeViewFactory;
  * 09.08.2009
  */
 public class EdgeLinkView extends AConnectorView {
+	private static final int BOUNDS_MARGIN = 30;
 	private final EdgeView edgeView;
 
 	public EdgeLinkView(final ConnectorModel model, final ModeController modeController, final NodeView source,
@@ -92,6 +95,22 @@ public class EdgeLinkView extends AConnectorView {
 		//edge link does not increase inner bounds 
 	}
 
+	public Rectangle getBounds() {
+		final MapView map = getMap();
+		final Rectangle bounds = getMainViewBounds(source, map);
+		bounds.add(getMainViewBounds(target, map));
+		final int margin = map.getZoomed(BOUNDS_MARGIN);
+		bounds.grow(margin, margin);
+		return bounds;
+	}
+
+	private Rectangle getMainViewBounds(final NodeView nodeView, final MapView map) {
+		final MainView mainView = nodeView.getMainView();
+		final Rectangle bounds = new Rectangle(mainView.getSize());
+		UITools.convertRectangleToAncestor(mainView, bounds, map);
+		return bounds;
+	}
+
 	public void paint(final Graphics graphics) {
 		edgeView.paint((Graphics2D) graphics);
 		if(Shape.EDGE_LIKE.equals(connectorModel.getShape())){
@@ -50,4 +50,10 @@ public interface ILinkView {
 	public abstract void paint(final Graphics graphics);
 
 	public abstract void increaseBounds(final Rectangle innerBounds);
+
+	/**
+	 * @return rectangle containing everything painted by the view in map view coordinates,
+	 * or null if nothing is painted
+	 */
+	public abstract Rectangle getBounds();
 }
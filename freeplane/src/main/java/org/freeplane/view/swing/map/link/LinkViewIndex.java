@@ -0,0 +1,100 @@
+package org.freeplane.view.swing.map.link;
+
+import java.awt.Rectangle;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.freeplane.features.link.ConnectorModel;
+import org.freeplane.view.swing.map.NodeView;
+
+/**
+ * Spatial index of the connector views of a map view.
+ *
+ * The map view rebuilds it after its layout changed and uses it to paint and to hit test
+ * only the connectors intersecting the clip or the mouse position.
+ * Connector views connecting the same node views are reused by the rebuild,
+ * so that their geometry is computed again only if one of their end points moved.
+ */
+public class LinkViewIndex {
+	private static final int CELL_SIZE = 256;
+	private final SpatialGrid<ILinkView> grid;
+	private Map<ConnectorModel, ILinkView> views;
+	private Map<ConnectorModel, ILinkView> previousViews;
+	private boolean valid;
+
+	public LinkViewIndex() {
+		grid = new SpatialGrid<ILinkView>(CELL_SIZE);
+		views = new LinkedHashMap<ConnectorModel, ILinkView>();
+		previousViews = Collections.emptyMap();
+		valid = false;
+	}
+
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Requests a rebuild keeping the views for reuse, e.g. after layout.
+	 */
+	public void invalidate() {
+		valid = false;
+	}
+
+	/**
+	 * Requests a rebuild dropping all views, e.g. after connector properties changed.
+	 */
+	public void clear() {
+		views.clear();
+		grid.clear();
+		valid = false;
+	}
+
+	public void startUpdate() {
+		previousViews = views;
+		views = new LinkedHashMap<ConnectorModel, ILinkView>();
+		grid.clear();
+	}
+
+	/**
+	 * @return the view of the connector before the update if it connects the same node views, null otherwise
+	 */
+	public ConnectorView getPreviousConnectorView(final ConnectorModel connector, final NodeView source,
+	                                              final NodeView target) {
+		final ILinkView view = previousViews.get(connector);
+		if (view instanceof ConnectorView) {
+			final ConnectorView connectorView = (ConnectorView) view;
+			if (connectorView.getSource() == source && connectorView.getTarget() == target)
+				return connectorView;
+		}
+		return null;
+	}
+
+	public void add(final ILinkView view) {
+		views.put(view.getModel(), view);
+		grid.put(view, view.getBounds());
+	}
+
+	public void finishUpdate() {
+		previousViews = Collections.emptyMap();
+		valid = true;
+	}
+
+	/**
+	 * Moves the view in the index if its bounds changed since it was added.
+	 */
+	public void update(final ILinkView view) {
+		if (views.get(view.getModel()) == view)
+			grid.put(view, view.getBounds());
+	}
+
+	public List<ILinkView> getViews(final Rectangle area) {
+		return grid.query(area);
+	}
+
+	public Collection<ILinkView> getViews() {
+		return Collections.unmodifiableCollection(views.values());
+	}
+}
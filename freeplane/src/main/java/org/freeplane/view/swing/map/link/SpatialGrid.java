@@ -0,0 +1,186 @@
+package org.freeplane.view.swing.map.link;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Uniform grid of square cells storing elements by their bounding rectangles.
+ *
+ * Elements covering too many cells are kept in a separate list which is checked on every query.
+ * Queries return the intersecting elements in the order they were put first.
+ */
+class SpatialGrid<T> {
+	private static final int MAXIMAL_CELL_COUNT_PER_ELEMENT = 1024;
+	private static final Comparator<Entry<?>> ORDINAL_ORDER = new Comparator<Entry<?>>() {
+		@Override
+		public int compare(final Entry<?> e1, final Entry<?> e2) {
+			return Integer.compare(e1.ordinal, e2.ordinal);
+		}
+	};
+
+	private static class Entry<T> {
+		final T element;
+		final Rectangle bounds;
+		final int ordinal;
+		int queryMark;
+
+		Entry(final T element, final Rectangle bounds, final int ordinal) {
+			this.element = element;
+			this.bounds = bounds;
+			this.ordinal = ordinal;
+		}
+	}
+
+	private final int cellSize;
+	private final Map<Long, List<Entry<T>>> cells;
+	private final Map<T, Entry<T>> entries;
+	private final List<Entry<T>> largeEntries;
+	private int nextOrdinal;
+	private int queryCount;
+
+	SpatialGrid(final int cellSize) {
+		this.cellSize = cellSize;
+		cells = new HashMap<Long, List<Entry<T>>>();
+		entries = new HashMap<T, Entry<T>>();
+		largeEntries = new ArrayList<Entry<T>>();
+	}
+
+	/**
+	 * Puts the element or moves it to the new bounds. Null bounds remove the element.
+	 */
+	void put(final T element, final Rectangle bounds) {
+		final Entry<T> oldEntry = entries.get(element);
+		final int ordinal;
+		if (oldEntry != null) {
+			if (oldEntry.bounds.equals(bounds))
+				return;
+			remove(oldEntry);
+			ordinal = oldEntry.ordinal;
+		}
+		else
+			ordinal = nextOrdinal;
+		if (bounds == null)
+			return;
+		if (oldEntry == null)
+			nextOrdinal++;
+		final Entry<T> entry = new Entry<T>(element, new Rectangle(bounds), ordinal);
+		entries.put(element, entry);
+		if (cellCount(bounds) > MAXIMAL_CELL_COUNT_PER_ELEMENT) {
+			largeEntries.add(entry);
+			return;
+		}
+		final int maxCellX = maxCell(bounds.x, bounds.width);
+		final int maxCellY = maxCell(bounds.y, bounds.height);
+		for (int cellX = minCell(bounds.x); cellX <= maxCellX; cellX++) {
+			for (int cellY = minCell(bounds.y); cellY <= maxCellY; cellY++) {
+				final Long key = key(cellX, cellY);
+				List<Entry<T>> cell = cells.get(key);
+				if (cell == null) {
+					cell = new ArrayList<Entry<T>>(4);
+					cells.put(key, cell);
+				}
+				cell.add(entry);
+			}
+		}
+	}
+
+	void remove(final T element) {
+		final Entry<T> entry = entries.get(element);
+		if (entry != null)
+			remove(entry);
+	}
+
+	private void remove(final Entry<T> entry) {
+		entries.remove(entry.element);
+		final Rectangle bounds = entry.bounds;
+		if (cellCount(bounds) > MAXIMAL_CELL_COUNT_PER_ELEMENT) {
+			largeEntries.remove(entry);
+			return;
+		}
+		final int maxCellX = maxCell(bounds.x, bounds.width);
+		final int maxCellY = maxCell(bounds.y, bounds.height);
+		for (int cellX = minCell(bounds.x); cellX <= maxCellX; cellX++) {
+			for (int cellY = minCell(bounds.y); cellY <= maxCellY; cellY++) {
+				final Long key = key(cellX, cellY);
+				final List<Entry<T>> cell = cells.get(key);
+				if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty())
+						cells.remove(key);
+				}
+			}
+		}
+	}
+
+	List<T> query(final Rectangle area) {
+		if (entries.isEmpty())
+			return Collections.emptyList();
+		final int queryMark = ++queryCount;
+		final List<Entry<T>> found = new ArrayList<Entry<T>>();
+		if (cellCount(area) > cells.size()) {
+			for (final Entry<T> entry : entries.values())
+				addIntersecting(found, entry, area, queryMark);
+		}
+		else {
+			final int maxCellX = maxCell(area.x, area.width);
+			final int maxCellY = maxCell(area.y, area.height);
+			for (int cellX = minCell(area.x); cellX <= maxCellX; cellX++) {
+				for (int cellY = minCell(area.y); cellY <= maxCellY; cellY++) {
+					final List<Entry<T>> cell = cells.get(key(cellX, cellY));
+					if (cell != null) {
+						for (final Entry<T> entry : cell)
+							addIntersecting(found, entry, area, queryMark);
+					}
+				}
+			}
+			for (final Entry<T> entry : largeEntries)
+				addIntersecting(found, entry, area, queryMark);
+		}
+		Collections.sort(found, ORDINAL_ORDER);
+		final List<T> elements = new ArrayList<T>(found.size());
+		for (final Entry<T> entry : found)
+			elements.add(entry.element);
+		return elements;
+	}
+
+	private void addIntersecting(final List<Entry<T>> found, final Entry<T> entry, final Rectangle area,
+	                             final int queryMark) {
+		if (entry.queryMark != queryMark) {
+			entry.queryMark = queryMark;
+			if (entry.bounds.intersects(area))
+				found.add(entry);
+		}
+	}
+
+	void clear() {
+		cells.clear();
+		entries.clear();
+		largeEntries.clear();
+		nextOrdinal = 0;
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	private long cellCount(final Rectangle r) {
+		return (long) (maxCell(r.x, r.width) - minCell(r.x) + 1) * (maxCell(r.y, r.height) - minCell(r.y) + 1);
+	}
+
+	private int minCell(final int coordinate) {
+		return Math.floorDiv(coordinate, cellSize);
+	}
+
+	private int maxCell(final int coordinate, final int length) {
+		return Math.floorDiv(coordinate + Math.max(length, 0), cellSize);
+	}
+
+	private static Long key(final int cellX, final int cellY) {
+		return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,100 @@
+package org.freeplane.core.io.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.core.io.IElementDOMHandler;
+import org.freeplane.core.io.ReadManager;
+import org.freeplane.n3.nanoxml.XMLElement;
+import org.junit.Test;
+
+public class TreeXmlReaderShould {
+	private static final int CHILD_COUNT = 10;
+	private static final int LEVEL_COUNT = 5;
+
+	private static class ReadCounter {
+		int nodes;
+		int texts;
+		int ids;
+		int icons;
+		int attributes;
+	}
+
+	private final ReadCounter counter = new ReadCounter();
+
+	private ReadManager createReadManager() {
+		final ReadManager readManager = new ReadManager();
+		readManager.addElementHandler("map", (parent, tag, attributes) -> counter);
+		readManager.addElementHandler("node", (parent, tag, attributes) -> {
+			counter.nodes++;
+			return counter;
+		});
+		readManager.addAttributeHandler("node", "TEXT", (node, value) -> counter.texts++);
+		readManager.addAttributeHandler("node", "ID", (node, value) -> counter.ids++);
+		readManager.addAttributeHandler("node", "CREATED", (node, value) -> {});
+		readManager.addAttributeHandler("node", "MODIFIED", (node, value) -> {});
+		readManager.addElementHandler("icon", (parent, tag, attributes) -> {
+			counter.icons++;
+			return counter;
+		});
+		readManager.addElementHandler("attribute", new IElementDOMHandler() {
+			@Override
+			public Object createElement(Object parent, String tag, XMLElement attributes) {
+				return attributes == null ? null : counter;
+			}
+
+			@Override
+			public void endElement(Object parent, String tag, Object element, XMLElement dom) {
+				counter.attributes++;
+			}
+		});
+		return readManager;
+	}
+
+	private static String generateMap() {
+		final StringBuilder xml = new StringBuilder("<map version=\"freeplane 1.9.13\">\n");
+		appendNode(xml, 0, "0");
+		return xml.append("</map>\n").toString();
+	}
+
+	private static void appendNode(StringBuilder xml, int level, String id) {
+		xml.append("<node TEXT=\"node ").append(id).append("\" ID=\"ID_").append(id)
+		    .append("\" CREATED=\"1600000000000\" MODIFIED=\"1600000000000\">\n")
+		    .append("<icon BUILTIN=\"yes\"/>\n")
+		    .append("<attribute NAME=\"level\" VALUE=\"").append(level).append("\"/>\n");
+		if (level < LEVEL_COUNT) {
+			for (int child = 0; child < CHILD_COUNT; child++)
+				appendNode(xml, level + 1, id + "_" + child);
+		}
+		xml.append("</node>\n");
+	}
+
+	@Test
+	public void resolveReferencesInAttributeValues() throws Exception {
+		final ReadManager readManager = new ReadManager();
+		final StringBuilder text = new StringBuilder();
+		readManager.addElementHandler("node", (parent, tag, attributes) -> counter);
+		readManager.addAttributeHandler("node", "TEXT", (node, value) -> text.append(value));
+		new TreeXmlReader(readManager).load(new StringReader("<node TEXT=\"a &amp; b&#x41;&#66;&lt;&quot;\nc\"/>"));
+		assertThat(text.toString()).isEqualTo("a & bAB<\" c");
+	}
+
+	@Test
+	public void readLargeGeneratedMap() throws Exception {
+		final String map = generateMap();
+		final ReadManager readManager = createReadManager();
+		final long start = System.nanoTime();
+		new TreeXmlReader(readManager).load(new StringReader(map));
+		final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		final int expectedNodeCount = 111111;
+		assertThat(counter.nodes).isEqualTo(expectedNodeCount);
+		assertThat(counter.texts).isEqualTo(expectedNodeCount);
+		assertThat(counter.ids).isEqualTo(expectedNodeCount);
+		assertThat(counter.icons).isEqualTo(expectedNodeCount);
+		assertThat(counter.attributes).isEqualTo(expectedNodeCount);
+		System.out.println("Read " + expectedNodeCount + " nodes (" + map.length() / 1024 + " KB) in "
+		        + elapsedMillis + " ms");
+	}
+}
@@ -0,0 +1,49 @@
+package org.freeplane.core.undo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedList;
+
+import org.junit.Test;
+
+public class CompoundActorShould {
+	private static IActor actorOfSize(final long size) {
+		return new IActor() {
+			@Override
+			public void act() {
+			}
+
+			@Override
+			public String getDescription() {
+				return "";
+			}
+
+			@Override
+			public void undo() {
+			}
+
+			@Override
+			public long estimatedSize() {
+				return size;
+			}
+		};
+	}
+
+	@Test
+	public void sumEstimatedSizesOfAddedActors() throws Exception {
+		final CompoundActor compoundActor = new CompoundActor();
+		compoundActor.add(actorOfSize(100));
+		compoundActor.add(actorOfSize(1000));
+		assertThat(compoundActor.estimatedSize()).isEqualTo(1100);
+	}
+
+	@Test
+	public void sumEstimatedSizesOfActorsPassedToConstructor() throws Exception {
+		final LinkedList<IActor> actors = new LinkedList<IActor>();
+		actors.add(actorOfSize(10));
+		actors.add(new CompoundActor());
+		final CompoundActor compoundActor = new CompoundActor(actors);
+		compoundActor.add(actorOfSize(5));
+		assertThat(compoundActor.estimatedSize()).isEqualTo(15);
+	}
+}
@@ -0,0 +1,39 @@
+package org.freeplane.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class CompactTextStorageShould {
+	@Test
+	public void shareEqualTexts() throws Exception {
+		final String text = CompactTextStorage.share(new String("shared text"));
+		assertThat(CompactTextStorage.share(new String("shared text"))).isSameAs(text);
+	}
+
+	@Test
+	public void notShareDifferentTexts() throws Exception {
+		final String text = CompactTextStorage.share(new String("one text"));
+		assertThat(CompactTextStorage.share(new String("other text"))).isNotSameAs(text).isEqualTo("other text");
+	}
+
+	@Test
+	public void returnCachedHtmlDerivedFromSameXhtml() throws Exception {
+		final String xhtml = "<html><body><p>derived</p></body></html>";
+		final String html = CompactTextStorage.toHtml(xhtml);
+		assertThat(html).isEqualTo(HtmlUtils.toHtml(xhtml));
+		assertThat(CompactTextStorage.toHtml(new String(xhtml))).isSameAs(html);
+	}
+
+	@Test
+	public void limitNumberOfCachedHtmlTexts() throws Exception {
+		for (int i = 0; i < 2000; i++)
+			CompactTextStorage.toHtml("<html><body><p>text " + i + "</p></body></html>");
+		final AtomicInteger cachedHtmlCount = new AtomicInteger();
+		CompactTextStorage.forEachDerivedHtml((xhtml, html) -> cachedHtmlCount.incrementAndGet());
+		assertThat(cachedHtmlCount.get()).isLessThanOrEqualTo(
+		    CompactTextStorage.DERIVED_HTML_STRIPE_COUNT * CompactTextStorage.DERIVED_HTML_STRIPE_SIZE);
+	}
+}
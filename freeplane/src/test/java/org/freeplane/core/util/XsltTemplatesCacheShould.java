@@ -0,0 +1,42 @@
+package org.freeplane.core.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.xml.transform.Templates;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XsltTemplatesCacheShould {
+	private static final String STYLESHEET = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\"/>";
+	private File xsltFile;
+
+	@Before
+	public void createStylesheet() throws Exception {
+		xsltFile = File.createTempFile("stylesheet", ".xsl");
+		Files.write(xsltFile.toPath(), STYLESHEET.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void deleteStylesheet() {
+		xsltFile.delete();
+	}
+
+	@Test
+	public void compileUnchangedStylesheetOnce() throws Exception {
+		final Templates templates = XsltTemplatesCache.getTemplates(xsltFile);
+		assertThat(XsltTemplatesCache.getTemplates(xsltFile)).isSameAs(templates);
+	}
+
+	@Test
+	public void compileModifiedStylesheetAgain() throws Exception {
+		final Templates templates = XsltTemplatesCache.getTemplates(xsltFile);
+		xsltFile.setLastModified(xsltFile.lastModified() - 10000);
+		assertThat(XsltTemplatesCache.getTemplates(xsltFile)).isNotSameAs(templates);
+	}
+}
@@ -0,0 +1,47 @@
+package org.freeplane.features.explorer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class NodeMatcherSpec {
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel root = new NodeModel("root", map);
+
+	public NodeMatcherSpec() {
+		map.setRoot(root);
+	}
+
+	private NodeModel child(NodeModel parent, String text) {
+		final NodeModel child = new NodeModel(text, map);
+		parent.insert(child);
+		return child;
+	}
+
+	@Test
+	public void findsDescendantsByTextStartInTreeOrder() throws Exception {
+		final NodeModel first = child(root, "Q3 sales");
+		final NodeModel second = child(child(root, "other"), "Q3 costs");
+		final NodeModel firstChild = child(first, "Q3 plan");
+		child(root, "Q4 sales");
+		assertThat(new NodeMatcher("'Q3...'").getMatchingDescendants(root)).containsExactly(first, firstChild, second);
+	}
+
+	@Test
+	public void findsOnlyDescendantsOfStartNode() throws Exception {
+		final NodeModel branch = child(root, "branch");
+		final NodeModel descendant = child(branch, "text");
+		child(root, "text");
+		assertThat(new NodeMatcher("\"text\"").getMatchingDescendants(branch)).containsExactly(descendant);
+	}
+
+	@Test
+	public void findsDescendantByChangedAlias() throws Exception {
+		final NodeModel node = child(root, "node");
+		assertThat(new NodeMatcher("~totals").getMatchingDescendants(root)).isEmpty();
+		NodeAlias.setAlias(node, "totals");
+		assertThat(new NodeMatcher("~totals").getMatchingDescendants(root)).containsExactly(node);
+	}
+}
@@ -0,0 +1,64 @@
+package org.freeplane.features.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BitParallelPseudoDamerauLevenshteinShould {
+	private final BitParallelPseudoDamerauLevenshtein bitParallel = new BitParallelPseudoDamerauLevenshtein();
+	private final PseudoDamerauLevenshtein dynamicProgramming = new PseudoDamerauLevenshtein();
+
+	private static String randomString(Random random, String alphabet, int maximalLength) {
+		final StringBuilder builder = new StringBuilder();
+		for (int length = random.nextInt(maximalLength); length > 0; length--)
+			builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		return builder.toString();
+	}
+
+	private int bitParallelDistance(String searchTerm, String searchText, boolean subStringMatch) {
+		bitParallel.init(searchTerm, searchText, subStringMatch);
+		return bitParallel.distance();
+	}
+
+	private int dynamicProgrammingDistance(String searchTerm, String searchText, boolean subStringMatch) {
+		dynamicProgramming.init(searchTerm, searchText, subStringMatch);
+		return dynamicProgramming.distance();
+	}
+
+	@Test
+	public void countTranspositionAsOneEdit() throws Exception {
+		assertThat(bitParallelDistance("files", "flies", false)).isEqualTo(1);
+	}
+
+	@Test
+	public void shiftSearchTermFreeOfCostForSubstringMatch() throws Exception {
+		assertThat(bitParallelDistance("file", "a file is", true)).isEqualTo(0);
+	}
+
+	@Test
+	public void computeSameDistancesAsDynamicProgramming() throws Exception {
+		final Random random = new Random(1);
+		for (int i = 0; i < 2000; i++) {
+			final int maximalLength = i % 10 == 0 ? 150 : 12;
+			final String searchTerm = randomString(random, "ab-c", maximalLength);
+			final String searchText = randomString(random, "ab-c", maximalLength + 8);
+			for (boolean subStringMatch : new boolean[] { true, false })
+				assertThat(bitParallelDistance(searchTerm, searchText, subStringMatch))
+				    .as("%s / %s", searchTerm, searchText)
+				    .isEqualTo(dynamicProgrammingDistance(searchTerm, searchText, subStringMatch));
+		}
+	}
+
+	@Test
+	public void matchTextsAboveThreshold() throws Exception {
+		assertThat(bitParallel.matches("approximately", "matches aproximately here", true, 0.65)).isTrue();
+		assertThat(bitParallel.matches("approximately", "matches nothing here", true, 0.65)).isFalse();
+	}
+
+	@Test
+	public void notMatchEmptySearchTerm() throws Exception {
+		assertThat(bitParallel.matches("", "text", true, 0.65)).isFalse();
+	}
+}
@@ -0,0 +1,61 @@
+package org.freeplane.features.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class FilterInfoAccessorShould {
+	private final Filter.FilterInfoAccessor accessor = new Filter.FilterInfoAccessor();
+
+	@Test
+	public void returnNotCheckedInfoForNewNode() throws Exception {
+		final NodeModel node = new NodeModel("node", null);
+		assertThat(accessor.getFilterInfo(node).isNotChecked()).isTrue();
+	}
+
+	@Test
+	public void keepInfoOfManyNodes() throws Exception {
+		final List<NodeModel> nodes = new ArrayList<NodeModel>();
+		for (int i = 0; i < 1000; i++) {
+			final NodeModel node = new NodeModel("node " + i, null);
+			nodes.add(node);
+			if (i % 2 == 0)
+				accessor.getFilterInfo(node).add(FilterInfo.FILTER_SHOW_AS_MATCHED);
+			else
+				accessor.getFilterInfo(node).add(FilterInfo.FILTER_SHOW_AS_HIDDEN);
+		}
+		for (int i = 0; i < nodes.size(); i++)
+			assertThat(accessor.getFilterInfo(nodes.get(i)).isMatched()).isEqualTo(i % 2 == 0);
+	}
+
+	@Test
+	public void assignDenseOrdinalsInAccessOrder() throws Exception {
+		final NodeModel first = new NodeModel("first", null);
+		final NodeModel second = new NodeModel("second", null);
+		assertThat(accessor.ordinalOf(first)).isEqualTo(0);
+		assertThat(accessor.ordinalOf(second)).isEqualTo(1);
+		assertThat(accessor.ordinalOf(first)).isEqualTo(0);
+	}
+
+	@Test
+	public void resetInfoThroughView() throws Exception {
+		final NodeModel node = new NodeModel("node", null);
+		accessor.getFilterInfo(node).add(FilterInfo.FILTER_SHOW_AS_MATCHED);
+		accessor.getFilterInfo(node).reset();
+		assertThat(accessor.getFilterInfo(node).isNotChecked()).isTrue();
+	}
+
+	@Test
+	public void addFlagsWithoutView() throws Exception {
+		final NodeModel node = new NodeModel("node", null);
+		accessor.addFlag(node, FilterInfo.FILTER_SHOW_AS_MATCHED);
+		assertThat(FilterInfo.isMatched(accessor.getInfo(node))).isTrue();
+		assertThat(FilterInfo.isNotChecked(accessor.getInfo(node))).isFalse();
+		accessor.reset(node);
+		assertThat(FilterInfo.isNotChecked(accessor.getInfo(node))).isTrue();
+	}
+}
@@ -0,0 +1,70 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.freeplane.core.undo.IUndoHandler;
+import org.freeplane.core.undo.UndoHandler;
+import org.junit.Test;
+
+public class NodeChangeBatcherShould {
+	private final MapModel map = new MapModel(null, null);
+	private final IUndoHandler undoHandler = new UndoHandler(map);
+	private final NodeModel node = new NodeModel("node", map);
+	private final List<NodeChangeBatchEvent> batches = new ArrayList<>();
+	private final INodeChangeBatchListener listener = new INodeChangeBatchListener() {
+		@Override
+		public void nodeChanged(NodeChangeEvent event) {
+		}
+
+		@Override
+		public void nodesChanged(NodeChangeBatchEvent event) {
+			batches.add(event);
+		}
+	};
+
+	{
+		map.addExtension(IUndoHandler.class, undoHandler);
+		node.attach();
+	}
+
+	private void change(Object property, Object oldValue, Object newValue) {
+		NodeChangeBatcher.ofRunningTransaction(map).add(Collections.singletonList(listener), node,
+		    new NodeChangeEvent(node, property, oldValue, newValue, true, false));
+	}
+
+	@Test
+	public void notBatchOutsideOfTransactions() throws Exception {
+		assertThat(NodeChangeBatcher.ofRunningTransaction(map)).isNull();
+	}
+
+	@Test
+	public void coalesceChangesOfSameNodeAndPropertyUntilCommit() throws Exception {
+		undoHandler.startTransaction();
+		change(NodeModel.NODE_TEXT, "a", "b");
+		change(NodeModel.NODE_TEXT, "b", "c");
+		change(NodeModel.NOTE_TEXT, null, "note");
+		assertThat(batches).isEmpty();
+		undoHandler.commit();
+		assertThat(batches).hasSize(1);
+		final List<NodeChangeEvent> events = batches.get(0).getEvents();
+		assertThat(events).extracting(NodeChangeEvent::getProperty).containsExactly(NodeModel.NODE_TEXT, NodeModel.NOTE_TEXT);
+		assertThat(events.get(0).getOldValue()).isEqualTo("a");
+		assertThat(events.get(0).getNewValue()).isEqualTo("c");
+		assertThat(batches.get(0).getNodes()).containsExactly(node);
+	}
+
+	@Test
+	public void deliverBatchWhenOutermostTransactionEnds() throws Exception {
+		undoHandler.startTransaction();
+		undoHandler.startTransaction();
+		change(NodeModel.NODE_TEXT, "a", "b");
+		undoHandler.commit();
+		assertThat(batches).isEmpty();
+		undoHandler.rollback();
+		assertThat(batches).hasSize(1);
+	}
+}
@@ -0,0 +1,85 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+public class NodeStreamShould {
+	private final NodeModel root = node("root");
+
+	private static NodeModel node(String text) {
+		return new NodeModel(text, null);
+	}
+
+	private static NodeModel child(NodeModel parent, String text) {
+		final NodeModel child = node(text);
+		parent.insert(child);
+		return child;
+	}
+
+	private List<NodeModel> iteratedNodes(NodeIterator iterator) {
+		final List<NodeModel> nodes = new ArrayList<>();
+		iterator.forEachRemaining(nodes::add);
+		return nodes;
+	}
+
+	private void createTree() {
+		for (int i = 0; i < 20; i++) {
+			final NodeModel branch = child(root, "branch " + i);
+			for (int j = 0; j < i; j++)
+				child(child(branch, "child " + j), "leaf " + j);
+		}
+	}
+
+	@Test
+	public void visitNodesTopDownLikeNodeIterator() throws Exception {
+		createTree();
+		assertThat(NodeStream.of(root).collect(Collectors.toList())).isEqualTo(iteratedNodes(NodeIterator.of(root)));
+	}
+
+	@Test
+	public void visitNodesBottomUpLikeNodeIterator() throws Exception {
+		createTree();
+		assertThat(NodeStream.bottomUpOf(root).collect(Collectors.toList()))
+		    .isEqualTo(iteratedNodes(NodeIterator.bottomUpOf(root)));
+	}
+
+	@Test
+	public void keepTopDownOrderInParallelStream() throws Exception {
+		createTree();
+		assertThat(NodeStream.parallelOf(root).collect(Collectors.toList()))
+		    .isEqualTo(iteratedNodes(NodeIterator.of(root)));
+	}
+
+	@Test
+	public void splitSingleRootIntoPrefixContainingRoot() throws Exception {
+		final NodeModel first = child(root, "first");
+		final NodeModel second = child(root, "second");
+		final Spliterator<NodeModel> suffix = new NodeSpliterator(root, false);
+		final Spliterator<NodeModel> prefix = suffix.trySplit();
+		final List<NodeModel> prefixNodes = new ArrayList<>();
+		prefix.forEachRemaining(prefixNodes::add);
+		final List<NodeModel> suffixNodes = new ArrayList<>();
+		suffix.forEachRemaining(suffixNodes::add);
+		assertThat(prefixNodes).containsExactly(root);
+		assertThat(suffixNodes).containsExactly(first, second);
+	}
+
+	@Test
+	public void notSplitLeaf() throws Exception {
+		assertThat(new NodeSpliterator(root, false).trySplit()).isNull();
+	}
+
+	@Test
+	public void traverseDeepChainWithoutRecursion() throws Exception {
+		NodeModel node = root;
+		for (int i = 0; i < 100000; i++)
+			node = child(node, "node " + i);
+		assertThat(NodeStream.of(root).count()).isEqualTo(100001);
+	}
+}
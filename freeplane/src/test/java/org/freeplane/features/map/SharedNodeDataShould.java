@@ -0,0 +1,94 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.freeplane.core.util.CompactTextStorage;
+import org.freeplane.core.util.HtmlUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SharedNodeDataShould {
+	private static final String XHTML = "<html>\n  <head>\n    \n  </head>\n  <body>\n    <p>\n      rich<br/>text\n    </p>\n  </body>\n</html>\n";
+
+	private final SharedNodeData data = new SharedNodeData();
+
+	@Before
+	public void enableCompactTextStorage() {
+		CompactTextStorage.setEnabled(true);
+	}
+
+	@After
+	public void disableCompactTextStorage() {
+		CompactTextStorage.setEnabled(false);
+	}
+
+	private List<String> storedTexts(SharedNodeData data) {
+		final List<String> texts = new ArrayList<>();
+		data.forEachStoredText(texts::add);
+		return texts;
+	}
+
+	@Test
+	public void keepOnlyXhtmlOfLoadedText() throws Exception {
+		data.setXmlText(XHTML);
+		assertThat(storedTexts(data)).containsExactly(XHTML);
+		assertThat(data.getUserObject()).isEqualTo(HtmlUtils.toHtml(XHTML));
+	}
+
+	@Test
+	public void saveLoadedXhtmlUnchanged() throws Exception {
+		data.setXmlText(XHTML);
+		final SharedNodeData loadedData = new SharedNodeData();
+		loadedData.setXmlText(data.getXmlText());
+		assertThat(loadedData.getXmlText()).isEqualTo(XHTML);
+		assertThat(loadedData.getUserObject()).isEqualTo(data.getUserObject());
+	}
+
+	@Test
+	public void deriveHtmlOfSetHtmlText() throws Exception {
+		data.setText("<html><body><p>rich text</p></body></html>");
+		assertThat(data.getXmlText()).contains("rich text");
+		assertThat(storedTexts(data)).containsExactly(data.getXmlText());
+		assertThat(data.getUserObject()).isEqualTo(HtmlUtils.toHtml(data.getXmlText()));
+	}
+
+	@Test
+	public void returnSameDerivedHtmlOnRepeatedAccess() throws Exception {
+		data.setXmlText(XHTML);
+		assertThat(data.getUserObject()).isSameAs(data.getUserObject());
+	}
+
+	@Test
+	public void deriveHtmlOfNewTextAfterChange() throws Exception {
+		data.setXmlText(XHTML);
+		data.getUserObject();
+		data.setText("<html><body><p>changed text</p></body></html>");
+		assertThat((String) data.getUserObject()).contains("changed text");
+	}
+
+	@Test
+	public void keepPlainText() throws Exception {
+		data.setText("plain text");
+		assertThat(data.getUserObject()).isEqualTo("plain text");
+		assertThat(data.getXmlText()).isNull();
+	}
+
+	@Test
+	public void shareEqualTextsOfDifferentNodes() throws Exception {
+		data.setXmlText(new String(XHTML));
+		final SharedNodeData otherData = new SharedNodeData();
+		otherData.setXmlText(new String(XHTML));
+		assertThat(otherData.getXmlText()).isSameAs(data.getXmlText());
+	}
+
+	@Test
+	public void keepHtmlAndXhtmlWithoutCompactTextStorage() throws Exception {
+		CompactTextStorage.setEnabled(false);
+		data.setXmlText(XHTML);
+		assertThat(storedTexts(data)).containsExactly(HtmlUtils.toHtml(XHTML), XHTML);
+	}
+}
@@ -0,0 +1,64 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.StringWriter;
+import java.io.Writer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class SubtreeXmlCacheShould {
+	private final SubtreeXmlCache cache = new SubtreeXmlCache();
+	private MapModel map;
+
+	@Before
+	public void createMap() {
+		map = new MapModel(null, null);
+	}
+
+	private Writer startRecording(long maximumLength) {
+		return cache.startRecording(new StringWriter(), "configuration", maximumLength);
+	}
+
+	@Test
+	public void keepFragmentsWithinLimit() throws Exception {
+		final Writer writer = startRecording(12);
+		final NodeModel first = new NodeModel("first", map);
+		final NodeModel second = new NodeModel("second", map);
+		writer.write("<node/><node/>");
+		cache.storeFragment(first, 0, 0, -1, -1, 7);
+		cache.storeFragment(second, 0, 7, -1, -1, 14);
+		assertThat(cache.getFragment(first, 0)).isNull();
+		assertThat(cache.getFragment(second, 0).head).isEqualTo("<node/>");
+		assertThat(cache.getFragmentLength()).isEqualTo(7);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedFragment() throws Exception {
+		final Writer writer = startRecording(14);
+		final NodeModel first = new NodeModel("first", map);
+		final NodeModel second = new NodeModel("second", map);
+		final NodeModel third = new NodeModel("third", map);
+		writer.write("<node/><node/><node/>");
+		cache.storeFragment(first, 0, 0, -1, -1, 7);
+		cache.storeFragment(second, 0, 7, -1, -1, 14);
+		cache.getFragment(first, 0);
+		cache.storeFragment(third, 0, 14, -1, -1, 21);
+		assertThat(cache.getFragment(first, 0)).isNotNull();
+		assertThat(cache.getFragment(second, 0)).isNull();
+		assertThat(cache.getFragment(third, 0)).isNotNull();
+	}
+
+	@Test
+	public void countReplacedAndInvalidatedFragments() throws Exception {
+		final Writer writer = startRecording(100);
+		final NodeModel node = new NodeModel("node", map);
+		writer.write("<node><node/></node>");
+		cache.storeFragment(node, 0, 0, 6, 13, 20);
+		cache.storeFragment(node, 0, 0, 6, 13, 20);
+		assertThat(cache.getFragmentLength()).isEqualTo(13);
+		cache.invalidate(node);
+		assertThat(cache.getFragmentLength()).isZero();
+	}
+}
@@ -0,0 +1,31 @@
+package org.freeplane.features.map.clipboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.datatransfer.DataFlavor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class MindMapNodesSelectionShould {
+	private final AtomicInteger renderingCount = new AtomicInteger();
+	private final Supplier<String> textRenderer = () -> {
+		renderingCount.incrementAndGet();
+		return "text";
+	};
+	private final MindMapNodesSelection selection = new MindMapNodesSelection("<node/>", textRenderer, null, null);
+
+	@Test
+	public void renderTextFlavorOnlyWhenRequested() throws Exception {
+		assertThat(selection.getTransferData(MindMapNodesSelection.mindMapNodesFlavor)).isEqualTo("<node/>");
+		assertThat(renderingCount.get()).isZero();
+	}
+
+	@Test
+	public void renderTextFlavorOnce() throws Exception {
+		assertThat(selection.getTransferData(DataFlavor.stringFlavor)).isEqualTo("text");
+		assertThat(selection.getTransferData(DataFlavor.stringFlavor)).isEqualTo("text");
+		assertThat(renderingCount.get()).isEqualTo(1);
+	}
+}
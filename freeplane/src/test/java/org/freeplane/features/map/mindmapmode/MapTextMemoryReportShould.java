@@ -0,0 +1,92 @@
+package org.freeplane.features.map.mindmapmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.freeplane.core.undo.IUndoHandler;
+import org.freeplane.core.util.CompactTextStorage;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.note.NoteModel;
+import org.junit.After;
+import org.junit.Test;
+
+public class MapTextMemoryReportShould {
+	private static final String RICH_TEXT = "<html><body><p>rich text</p></body></html>";
+
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel root = new NodeModel("root", map);
+
+	{
+		map.setRoot(root);
+	}
+
+	@After
+	public void disableCompactTextStorage() {
+		CompactTextStorage.setEnabled(false);
+	}
+
+	private NodeModel addChild(String text) {
+		final NodeModel child = new NodeModel(text, map);
+		root.insert(child);
+		return child;
+	}
+
+	@Test
+	public void countNodesAndTheirTexts() throws Exception {
+		addChild("child");
+		final MapTextMemoryReport report = new MapTextMemoryReport(map);
+		assertThat(report.getNodeCount()).isEqualTo(2);
+		assertThat(report.getTextBytes()).isEqualTo(40 + "root".length() + 40 + "child".length());
+	}
+
+	@Test
+	public void countTextsOfClonesOnce() throws Exception {
+		final NodeModel child = addChild("child");
+		final long textBytes = new MapTextMemoryReport(map).getTextBytes();
+		root.insert(child.cloneTree());
+		final MapTextMemoryReport report = new MapTextMemoryReport(map);
+		assertThat(report.getNodeCount()).isEqualTo(3);
+		assertThat(report.getTextBytes()).isEqualTo(textBytes);
+	}
+
+	@Test
+	public void countTwoBytesPerCharacterOfNonLatinTexts() throws Exception {
+		addChild("\u0416");
+		assertThat(new MapTextMemoryReport(map).getTextBytes()).isEqualTo(40 + "root".length() + 40 + 2);
+	}
+
+	@Test
+	public void countNotes() throws Exception {
+		NoteModel.createNote(addChild("child")).setHtml("note");
+		assertThat(new MapTextMemoryReport(map).getNoteBytes()).isEqualTo(40 + "note".length());
+	}
+
+	@Test
+	public void countSharedTextsOnceInCompactTextStorage() throws Exception {
+		CompactTextStorage.setEnabled(true);
+		addChild(new String(RICH_TEXT));
+		final long textBytes = new MapTextMemoryReport(map).getTextBytes();
+		addChild(new String(RICH_TEXT));
+		assertThat(new MapTextMemoryReport(map).getTextBytes()).isEqualTo(textBytes);
+	}
+
+	@Test
+	public void countCachedHtmlOfRichTexts() throws Exception {
+		CompactTextStorage.setEnabled(true);
+		final NodeModel child = addChild("<html><body><p>text with cached html</p></body></html>");
+		assertThat(new MapTextMemoryReport(map).getDerivedHtmlBytes()).isZero();
+		final String html = child.getText();
+		assertThat(new MapTextMemoryReport(map).getDerivedHtmlBytes()).isEqualTo(40 + html.length());
+	}
+
+	@Test
+	public void reportEstimatedMemoryOfUndoHistory() throws Exception {
+		assertThat(new MapTextMemoryReport(map).getUndoBytes()).isZero();
+		final IUndoHandler undoHandler = mock(IUndoHandler.class);
+		when(undoHandler.getEstimatedMemoryUsage()).thenReturn(4096L);
+		map.putExtension(IUndoHandler.class, undoHandler);
+		assertThat(new MapTextMemoryReport(map).getUndoBytes()).isEqualTo(4096L);
+	}
+}
@@ -0,0 +1,50 @@
+package org.freeplane.features.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class ComparisonTextCacheShould {
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel first = new NodeModel("first", map);
+	private final NodeModel second = new NodeModel("second", map);
+
+	@Test
+	public void reuseCachedTextForEqualSource() throws Exception {
+		final ComparisonTextCache cache = new ComparisonTextCache(100);
+		final ComparisonTextCache.CachedText text = cache.getText(first, ComparisonTextCache.NODE_TEXT, "text");
+		assertThat(cache.getText(first, ComparisonTextCache.NODE_TEXT, new String("text"))).isSameAs(text);
+		assertThat(cache.getCachedLength()).isEqualTo("text".length());
+	}
+
+	@Test
+	public void notCacheTextsOfFurtherNodesAfterLimitIsReached() throws Exception {
+		final ComparisonTextCache cache = new ComparisonTextCache(10);
+		cache.getText(first, ComparisonTextCache.NODE_TEXT, "0123456789");
+		final ComparisonTextCache.CachedText text = cache.getText(second, ComparisonTextCache.NODE_TEXT, "text");
+		assertThat(text.getPlainText()).isEqualTo("text");
+		assertThat(cache.getText(second, ComparisonTextCache.NODE_TEXT, "text")).isNotSameAs(text);
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.getCachedLength()).isEqualTo(10);
+	}
+
+	@Test
+	public void releaseLengthOfInvalidatedTexts() throws Exception {
+		final ComparisonTextCache cache = new ComparisonTextCache(10);
+		cache.getText(first, ComparisonTextCache.NODE_TEXT, "0123456789").getNormalizedText(true, false);
+		cache.invalidate(first);
+		assertThat(cache.getCachedLength()).isZero();
+		final ComparisonTextCache.CachedText text = cache.getText(second, ComparisonTextCache.NODE_TEXT, "text");
+		assertThat(cache.getText(second, ComparisonTextCache.NODE_TEXT, "text")).isSameAs(text);
+	}
+
+	@Test
+	public void replaceTextOfChangedSource() throws Exception {
+		final ComparisonTextCache cache = new ComparisonTextCache(100);
+		cache.getText(first, ComparisonTextCache.NODE_TEXT, "old text");
+		assertThat(cache.getText(first, ComparisonTextCache.NODE_TEXT, "new").getPlainText()).isEqualTo("new");
+		assertThat(cache.getCachedLength()).isEqualTo("new".length());
+	}
+}
@@ -0,0 +1,119 @@
+package org.freeplane.features.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.function.Predicate;
+
+import org.freeplane.features.filter.condition.StringTransformer;
+import org.freeplane.features.map.MapChangeEvent;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeChangeEvent;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ModeController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FullTextIndexShould {
+	private final MapModel map = new MapModel(null, null);
+	private final NodeModel root = new NodeModel("root", map);
+	private final NodeModel apple = new NodeModel("apple pie", map);
+	private final NodeModel banana = new NodeModel("banana bread", map);
+	private final FullTextIndex.Updater updater = new FullTextIndex.Updater();
+	private FullTextIndex index;
+
+	@Before
+	public void setup() {
+		final Controller controller = mock(Controller.class);
+		final ModeController modeController = mock(ModeController.class);
+		final TextController textController = mock(TextController.class);
+		when(controller.getModeController()).thenReturn(modeController);
+		when(modeController.getExtension(TextController.class)).thenReturn(textController);
+		when(textController.getTransformedObjectNoFormattingNoThrow(any(), any(), any()))
+		    .thenAnswer(invocation -> invocation.getArgument(0));
+		Controller.setCurrentController(controller);
+		map.setRoot(root);
+		root.insert(apple);
+		root.insert(banana);
+		index = new FullTextIndex(map);
+		map.addExtension(index);
+	}
+
+	@After
+	public void resetController() {
+		Controller.setCurrentController(null);
+	}
+
+	private Predicate<NodeModel> nodesContaining(String text) {
+		return index.getCandidates(text, FullTextIndex.NODE_TEXT, false);
+	}
+
+	@Test
+	public void findNodesContainingSearchedWord() throws Exception {
+		final Predicate<NodeModel> candidates = nodesContaining("pie");
+		assertThat(candidates.test(apple)).isTrue();
+		assertThat(candidates.test(banana)).isFalse();
+		assertThat(candidates.test(root)).isFalse();
+	}
+
+	@Test
+	public void findChangedNodeAfterEdit() throws Exception {
+		assertThat(nodesContaining("pie").test(banana)).isFalse();
+		banana.setText("banana pie");
+		updater.nodeChanged(new NodeChangeEvent(banana, NodeModel.NODE_TEXT, "banana bread", "banana pie", true, true));
+		final Predicate<NodeModel> candidates = nodesContaining("pie");
+		assertThat(candidates.test(banana)).isTrue();
+		assertThat(nodesContaining("bread").test(banana)).isFalse();
+	}
+
+	@Test
+	public void returnNodesChangedAfterQueryAsCandidates() throws Exception {
+		final Predicate<NodeModel> candidates = nodesContaining("pie");
+		updater.nodeChanged(new NodeChangeEvent(banana, NodeModel.NODE_TEXT, null, null, true, true));
+		assertThat(candidates.test(banana)).isTrue();
+	}
+
+	@Test
+	public void findInsertedNode() throws Exception {
+		nodesContaining("pie");
+		final NodeModel cherry = new NodeModel("cherry pie", map);
+		root.insert(cherry);
+		updater.onNodeInserted(root, cherry, 2);
+		assertThat(nodesContaining("pie").test(cherry)).isTrue();
+	}
+
+	@Test
+	public void rebuildIndexAfterMapChange() throws Exception {
+		nodesContaining("pie");
+		assertThat(index.getNodeCount()).isEqualTo(3);
+		updater.mapChanged(new MapChangeEvent(this, map, "map_styles", null, null));
+		assertThat(index.getNodeCount()).isZero();
+		assertThat(nodesContaining("pie").test(banana)).isFalse();
+		assertThat(index.getNodeCount()).isEqualTo(3);
+	}
+	@Test
+	public void findLongestWordOfSearchedText() throws Exception {
+		assertThat(FullTextIndex.longestWord("a big-elephant")).isEqualTo("elephant");
+	}
+
+	@Test
+	public void findNoWordInPunctuation() throws Exception {
+		assertThat(FullTextIndex.longestWord(" -+ ")).isNull();
+	}
+
+	@Test
+	public void normalizeCaseAndDiacritics() throws Exception {
+		assertThat(FullTextIndex.normalize("Äpfel ÉTÉ")).isEqualTo("apfel ete");
+	}
+
+	@Test
+	public void keepLowerCaseTextsContained() throws Exception {
+		final String text = "ΟΔΟΣΑ";
+		final String searched = StringTransformer.transform("ΟΔΟΣ", true, false);
+		assertThat(FullTextIndex.normalize(text)).contains(FullTextIndex.normalize(searched));
+	}
+}
@@ -0,0 +1,79 @@
+package org.freeplane.features.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.freeplane.core.util.CompactTextStorage;
+import org.freeplane.core.util.HtmlUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RichTextModelShould {
+	private static final String XHTML = "<html>\n  <head>\n    \n  </head>\n  <body>\n    <p>\n      rich<br/>note\n    </p>\n  </body>\n</html>\n";
+
+	private final RichTextModel model = new RichTextModel();
+
+	@Before
+	public void enableCompactTextStorage() {
+		CompactTextStorage.setEnabled(true);
+	}
+
+	@After
+	public void disableCompactTextStorage() {
+		CompactTextStorage.setEnabled(false);
+	}
+
+	private List<String> storedTexts(RichTextModel model) {
+		final List<String> texts = new ArrayList<>();
+		model.forEachStoredText(texts::add);
+		return texts;
+	}
+
+	@Test
+	public void keepOnlyXhtmlOfLoadedNote() throws Exception {
+		model.setXml(XHTML);
+		assertThat(storedTexts(model)).containsExactly(XHTML);
+		assertThat(model.getHtml()).isEqualTo(HtmlUtils.toHtml(XHTML));
+	}
+
+	@Test
+	public void saveLoadedXhtmlUnchanged() throws Exception {
+		model.setXml(XHTML);
+		final RichTextModel loadedModel = new RichTextModel();
+		loadedModel.setXml(model.getXml());
+		assertThat(loadedModel.getXml()).isEqualTo(XHTML);
+		assertThat(loadedModel.getHtml()).isEqualTo(model.getHtml());
+	}
+
+	@Test
+	public void deriveHtmlOfSetHtmlNote() throws Exception {
+		model.setHtml("<html><body><p>rich note</p></body></html>");
+		assertThat(model.getXml()).contains("rich note");
+		assertThat(storedTexts(model)).containsExactly(model.getXml());
+		assertThat(model.getHtml()).isEqualTo(HtmlUtils.toHtml(model.getXml()));
+	}
+
+	@Test
+	public void returnSameDerivedHtmlOnRepeatedAccess() throws Exception {
+		model.setXml(XHTML);
+		assertThat(model.getHtml()).isSameAs(model.getHtml());
+	}
+
+	@Test
+	public void keepPlainTextNote() throws Exception {
+		model.setHtml("plain note");
+		assertThat(model.getHtml()).isEqualTo("plain note");
+		assertThat(storedTexts(model)).containsExactly("plain note");
+	}
+
+	@Test
+	public void removeNote() throws Exception {
+		model.setXml(XHTML);
+		model.setHtml(null);
+		assertThat(model.getHtml()).isNull();
+		assertThat(model.getXml()).isNull();
+	}
+}
@@ -0,0 +1,51 @@
+package org.freeplane.features.url.mindmapmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.Test;
+
+public class MapXmlSnapshotShould {
+	private final MapXmlSnapshot snapshot = new MapXmlSnapshot();
+
+	private static String text(int length) {
+		final StringBuilder text = new StringBuilder(length);
+		for (int i = 0; i < length; i++)
+			text.append((char) ('a' + i % 26));
+		return text.toString();
+	}
+
+	@Test
+	public void writeWrittenContent() throws Exception {
+		snapshot.write("<map>");
+		snapshot.write('\n');
+		snapshot.write("</map>".toCharArray());
+		snapshot.close();
+		final StringWriter out = new StringWriter();
+		snapshot.writeTo(out);
+		assertThat(out.toString()).isEqualTo("<map>\n</map>");
+	}
+
+	@Test
+	public void splitLongContentIntoChunks() throws Exception {
+		final String content = text(20000);
+		snapshot.write(content);
+		snapshot.close();
+		assertThat(snapshot.getChunks()).hasSize(3);
+		assertThat(String.join("", snapshot.getChunks())).isEqualTo(content);
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectContentAfterClose() throws Exception {
+		snapshot.close();
+		snapshot.write("<map/>");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void notProvideChunksBeforeClose() throws Exception {
+		snapshot.write("<map/>");
+		snapshot.getChunks();
+	}
+}
@@ -0,0 +1,49 @@
+package org.freeplane.n3.nanoxml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class NameTableShould {
+	private final NameTable names = new NameTable();
+
+	private String intern(String name) {
+		names.clearBuffer();
+		for (char ch : name.toCharArray())
+			names.append(ch);
+		return names.internBuffer();
+	}
+
+	@Test
+	public void returnSameInstanceForEqualNames() throws Exception {
+		final String first = intern("node");
+		final String second = intern("node");
+		assertThat(second).isEqualTo("node").isSameAs(first);
+	}
+
+	@Test
+	public void distinguishDifferentNames() throws Exception {
+		final String node = intern("node");
+		final String text = intern("TEXT");
+		assertThat(node).isEqualTo("node");
+		assertThat(text).isEqualTo("TEXT");
+	}
+
+	@Test
+	public void keepNamesAfterGrowing() throws Exception {
+		final String first = intern("name0");
+		for (int i = 1; i < 1000; i++)
+			assertThat(intern("name" + i)).isEqualTo("name" + i);
+		assertThat(intern("name0")).isSameAs(first);
+	}
+
+	@Test
+	public void notInternVeryLongNames() throws Exception {
+		final StringBuilder longName = new StringBuilder();
+		for (int i = 0; i < 100; i++)
+			longName.append('a');
+		final String first = intern(longName.toString());
+		final String second = intern(longName.toString());
+		assertThat(second).isEqualTo(first).isNotSameAs(first);
+	}
+}
@@ -0,0 +1,118 @@
+package org.freeplane.view.swing.features.filepreview;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Test;
+
+public class ScaledImageCacheShould {
+	private static final long IMAGE_BYTES = 10 * 10 * 4;
+	private final ScaledImageCache cache = new ScaledImageCache();
+	private File thumbnailDirectory;
+
+	@After
+	public void deleteThumbnailDirectory() throws Exception {
+		if (thumbnailDirectory != null)
+			FileUtils.deleteDirectory(thumbnailDirectory);
+	}
+
+	private ScaledImageCache thumbnailCache() throws Exception {
+		thumbnailDirectory = Files.createTempDirectory("thumbnails").toFile();
+		return new ScaledImageCache(thumbnailDirectory);
+	}
+
+	private File[] thumbnails() {
+		return thumbnailDirectory.listFiles(file -> file.getName().endsWith(".png"));
+	}
+
+	private ScaledImageCache.Key key(final String name) throws Exception {
+		return new ScaledImageCache.Key(new URL("file:/" + name), 0, 10, 10);
+	}
+
+	private BufferedImage image() {
+		return new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedImageWhenLimitIsExceeded() throws Exception {
+		cache.put(key("first"), image(), 2 * IMAGE_BYTES);
+		cache.put(key("second"), image(), 2 * IMAGE_BYTES);
+		cache.getImage(null, key("first"), image -> {});
+		cache.put(key("third"), image(), 2 * IMAGE_BYTES);
+		assertThat(cache.contains(key("first"))).isTrue();
+		assertThat(cache.contains(key("second"))).isFalse();
+		assertThat(cache.contains(key("third"))).isTrue();
+		assertThat(cache.getCachedBytes()).isEqualTo(2 * IMAGE_BYTES);
+	}
+
+	@Test
+	public void keepNewestImageEvenIfItExceedsLimit() throws Exception {
+		cache.put(key("first"), image(), 1);
+		assertThat(cache.contains(key("first"))).isTrue();
+	}
+
+	@Test
+	public void distinguishImagesOfDifferentModificationTimes() throws Exception {
+		final URL url = new URL("file:/image.png");
+		assertThat(new ScaledImageCache.Key(url, 1, 10, 10)).isEqualTo(new ScaledImageCache.Key(url, 1, 10, 10));
+		assertThat(new ScaledImageCache.Key(url, 1, 10, 10)).isNotEqualTo(new ScaledImageCache.Key(url, 2, 10, 10));
+	}
+
+	@Test
+	public void subsampleToAtLeastTwiceTheTargetSize() throws Exception {
+		assertThat(ScaledImageCache.subsampling(4000, 3000, 200, 150)).isEqualTo(10);
+		assertThat(ScaledImageCache.subsampling(4000, 3000, 2000, 1500)).isEqualTo(1);
+		assertThat(ScaledImageCache.subsampling(100, 100, 200, 200)).isEqualTo(1);
+	}
+
+	@Test
+	public void readWrittenThumbnail() throws Exception {
+		final ScaledImageCache cache = thumbnailCache();
+		cache.writeThumbnail(key("image"), image(), Long.MAX_VALUE);
+		final BufferedImage thumbnail = cache.readThumbnail(key("image"));
+		assertThat(thumbnail.getWidth()).isEqualTo(10);
+		assertThat(cache.getThumbnailBytes()).isEqualTo(thumbnails()[0].length());
+	}
+
+	@Test
+	public void deleteLeastRecentlyUsedThumbnailsWhenLimitIsExceeded() throws Exception {
+		final ScaledImageCache cache = thumbnailCache();
+		cache.writeThumbnail(key("first"), image(), Long.MAX_VALUE);
+		cache.writeThumbnail(key("second"), image(), Long.MAX_VALUE);
+		final long thumbnailLength = thumbnails()[0].length();
+		for (final File thumbnail : thumbnails())
+			thumbnail.setLastModified(0);
+		cache.readThumbnail(key("first"));
+		cache.writeThumbnail(key("third"), image(), 3 * thumbnailLength - 1);
+		assertThat(thumbnails()).hasSize(2);
+		assertThat(cache.readThumbnail(key("second"))).isNull();
+		assertThat(cache.readThumbnail(key("first"))).isNotNull();
+		assertThat(cache.readThumbnail(key("third"))).isNotNull();
+		assertThat(cache.getThumbnailBytes()).isEqualTo(2 * thumbnailLength);
+	}
+
+	@Test
+	public void expireThumbnailsOfRemoteImages() throws Exception {
+		final ScaledImageCache cache = thumbnailCache();
+		final ScaledImageCache.Key key = new ScaledImageCache.Key(new URL("http://example.org/image.png"), 0, 10, 10);
+		cache.writeThumbnail(key, image(), Long.MAX_VALUE);
+		assertThat(cache.readThumbnail(key)).isNotNull();
+		thumbnails()[0].setLastModified(System.currentTimeMillis() - ScaledImageCache.REMOTE_THUMBNAIL_MAX_AGE_MILLIS - 1000);
+		assertThat(cache.readThumbnail(key)).isNull();
+		assertThat(thumbnails()).isEmpty();
+	}
+
+	@Test
+	public void keepThumbnailsOfFilesUntilTheyChange() throws Exception {
+		final ScaledImageCache cache = thumbnailCache();
+		cache.writeThumbnail(key("image"), image(), Long.MAX_VALUE);
+		thumbnails()[0].setLastModified(0);
+		assertThat(cache.readThumbnail(key("image"))).isNotNull();
+	}
+}
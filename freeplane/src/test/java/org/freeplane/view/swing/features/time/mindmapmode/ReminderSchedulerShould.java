@@ -0,0 +1,68 @@
+package org.freeplane.view.swing.features.time.mindmapmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class ReminderSchedulerShould {
+	private static final long PERIOD = 1000;
+	private final ReminderScheduler scheduler = new ReminderScheduler(PERIOD, false);
+	private final MapModel map = new MapModel(null, null);
+
+	private TimerBlinkTask task(final MapModel map, final long time) {
+		final ReminderExtension reminder = new ReminderExtension(new NodeModel("reminder", map));
+		reminder.setRemindUserAt(time);
+		return new TimerBlinkTask(null, reminder, false, true);
+	}
+
+	@Test
+	public void runNoTaskBeforeItsTime() throws Exception {
+		scheduler.schedule(task(map, 5000));
+		assertThat(scheduler.takeTasksToRun(4999)).isEmpty();
+		assertThat(scheduler.getWakeUpTime()).isEqualTo(5000);
+	}
+
+	@Test
+	public void runAllDueTasksOnTheSameTick() throws Exception {
+		final TimerBlinkTask first = task(map, 1000);
+		final TimerBlinkTask second = task(map, 1500);
+		scheduler.scheduleAll(Arrays.asList(second, first));
+		assertThat(scheduler.takeTasksToRun(1000)).containsExactly(first);
+		assertThat(scheduler.takeTasksToRun(1500)).isEmpty();
+		assertThat(scheduler.getWakeUpTime()).isEqualTo(2000);
+		assertThat(scheduler.takeTasksToRun(2000)).containsExactly(first, second);
+	}
+
+	@Test
+	public void notRunCancelledTasks() throws Exception {
+		final TimerBlinkTask cancelled = task(map, 1000);
+		final TimerBlinkTask kept = task(map, 1000);
+		scheduler.scheduleAll(Arrays.asList(cancelled, kept));
+		scheduler.cancel(cancelled);
+		assertThat(cancelled.isCancelled()).isTrue();
+		assertThat(scheduler.takeTasksToRun(1000)).containsExactly(kept);
+	}
+
+	@Test
+	public void cancelAllTasksOfClosedMap() throws Exception {
+		final MapModel otherMap = new MapModel(null, null);
+		scheduler.scheduleAll(Arrays.asList(task(map, 1000), task(map, 3000), task(otherMap, 1000)));
+		scheduler.takeTasksToRun(1000);
+		scheduler.cancelAll(map);
+		assertThat(scheduler.size()).isEqualTo(1);
+		assertThat(scheduler.takeTasksToRun(5000)).hasSize(1);
+	}
+
+	@Test
+	public void notArmTasksCancelledBeforeScheduling() throws Exception {
+		final TimerBlinkTask task = task(map, 1000);
+		task.cancel();
+		scheduler.scheduleAll(Arrays.asList(task));
+		assertThat(scheduler.size()).isZero();
+		assertThat(scheduler.getWakeUpTime()).isEqualTo(Long.MAX_VALUE);
+	}
+}
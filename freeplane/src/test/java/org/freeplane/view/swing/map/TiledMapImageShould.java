@@ -0,0 +1,98 @@
+package org.freeplane.view.swing.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JComponent;
+
+import org.junit.Test;
+
+public class TiledMapImageShould {
+	private static final Rectangle PRINTED_AREA = new Rectangle(10, 20, 180, 120);
+	private static final double SCALE_FACTOR = 1.5;
+
+	@SuppressWarnings("serial")
+	private static class PatternComponent extends JComponent {
+		final List<Rectangle> paintedAreas = new ArrayList<>();
+
+		PatternComponent() {
+			setSize(200, 150);
+		}
+
+		@Override
+		protected void paintComponent(Graphics g) {
+			paintedAreas.add(g.getClipBounds());
+			for (int x = 0; x < getWidth(); x += 10) {
+				for (int y = 0; y < getHeight(); y += 10) {
+					g.setColor(new Color(x, y, (x + y) % 256));
+					g.fillRect(x, y, 7, 9);
+				}
+			}
+			g.setColor(Color.BLACK);
+			g.drawLine(0, 0, getWidth(), getHeight());
+		}
+	}
+
+	private final PatternComponent component = new PatternComponent();
+
+	private TiledMapImage createImage(int maximalBandPixelCount) {
+		return new TiledMapImage(component, () -> {}, SCALE_FACTOR, PRINTED_AREA, maximalBandPixelCount);
+	}
+
+	@Test
+	public void paintSmallImageInOneBand() throws Exception {
+		final TiledMapImage image = createImage(Integer.MAX_VALUE);
+		assertThat(image.fitsIntoOneBand()).isTrue();
+		assertThat(image.getWidth()).isEqualTo(270);
+		assertThat(image.getHeight()).isEqualTo(180);
+		assertThat(image.getNumYTiles()).isEqualTo(1);
+	}
+
+	@Test
+	public void splitLargeImageIntoBands() throws Exception {
+		final TiledMapImage image = createImage(270 * 50);
+		assertThat(image.fitsIntoOneBand()).isFalse();
+		assertThat(image.getTileHeight()).isEqualTo(50);
+		assertThat(image.getNumYTiles()).isEqualTo(4);
+		final Raster lastBand = image.getTile(0, 3);
+		assertThat(lastBand.getMinY()).isEqualTo(150);
+		assertThat(lastBand.getHeight()).isEqualTo(30);
+	}
+
+	@Test
+	public void paintSameImageInBandsAsInOneImage() throws Exception {
+		final BufferedImage expected = createImage(Integer.MAX_VALUE).toBufferedImage();
+		final Raster tiled = createImage(270 * 7).getData();
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertThat(tiled.getPixel(x, y, (int[]) null))
+				    .as("pixel %d, %d", x, y)
+				    .isEqualTo(expected.getRaster().getPixel(x, y, (int[]) null));
+			}
+		}
+	}
+
+	@Test
+	public void clipEachBandToItsArea() throws Exception {
+		createImage(270 * 30).getTile(0, 2);
+		assertThat(component.paintedAreas).hasSize(1);
+		final Rectangle paintedArea = component.paintedAreas.get(0);
+		assertThat(paintedArea.y).isEqualTo(PRINTED_AREA.y + 40);
+		assertThat(paintedArea.height).isEqualTo(20);
+	}
+
+	@Test
+	public void endPrintingOnClose() throws Exception {
+		final List<String> calls = new ArrayList<>();
+		new TiledMapImage(component, () -> calls.add("endPrinting"), SCALE_FACTOR, PRINTED_AREA, Integer.MAX_VALUE)
+		    .close();
+		assertThat(calls).containsExactly("endPrinting");
+	}
+}
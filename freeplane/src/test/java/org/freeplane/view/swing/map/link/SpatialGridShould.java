@@ -0,0 +1,54 @@
+package org.freeplane.view.swing.map.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Rectangle;
+
+import org.junit.Test;
+
+public class SpatialGridShould {
+	private final SpatialGrid<String> grid = new SpatialGrid<String>(100);
+
+	@Test
+	public void findOnlyElementsIntersectingQueriedArea() throws Exception {
+		grid.put("near", new Rectangle(10, 10, 20, 20));
+		grid.put("far", new Rectangle(1000, 1000, 20, 20));
+		assertThat(grid.query(new Rectangle(0, 0, 50, 50))).containsExactly("near");
+	}
+
+	@Test
+	public void findElementSpanningSeveralCellsOnce() throws Exception {
+		grid.put("wide", new Rectangle(-150, 50, 500, 10));
+		assertThat(grid.query(new Rectangle(-200, 0, 600, 100))).containsExactly("wide");
+	}
+
+	@Test
+	public void returnElementsInOrderOfFirstPut() throws Exception {
+		grid.put("first", new Rectangle(250, 0, 10, 10));
+		grid.put("second", new Rectangle(0, 0, 10, 10));
+		grid.put("first", new Rectangle(5, 5, 10, 10));
+		assertThat(grid.query(new Rectangle(0, 0, 300, 20))).containsExactly("first", "second");
+	}
+
+	@Test
+	public void moveElementToNewBounds() throws Exception {
+		grid.put("moved", new Rectangle(10, 10, 20, 20));
+		grid.put("moved", new Rectangle(510, 510, 20, 20));
+		assertThat(grid.query(new Rectangle(0, 0, 50, 50))).isEmpty();
+		assertThat(grid.query(new Rectangle(500, 500, 50, 50))).containsExactly("moved");
+	}
+
+	@Test
+	public void removeElementPutWithoutBounds() throws Exception {
+		grid.put("removed", new Rectangle(10, 10, 20, 20));
+		grid.put("removed", null);
+		assertThat(grid.query(new Rectangle(0, 0, 50, 50))).isEmpty();
+		assertThat(grid.size()).isZero();
+	}
+
+	@Test
+	public void findElementsCoveringManyCells() throws Exception {
+		grid.put("huge", new Rectangle(0, 0, 100000, 100000));
+		assertThat(grid.query(new Rectangle(50000, 50000, 1, 1))).containsExactly("huge");
+	}
+}
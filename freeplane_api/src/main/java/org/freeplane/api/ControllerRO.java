@@ -2,6 +2,7 @@ package org.freeplane.api;
 
 import java.io.File;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 
@@ -103,6 +104,11 @@ public interface ControllerRO {
 	 * @since 1.2 */
 	List<? extends Node> findAllDepthFirst();
 
+	/** Returns a lazy stream of the nodes of the map for which <code>condition.check(node)</code> returns true,
+	 * in the order of {@link #findAll()}. See {@link Node#findStream(NodeCondition)} for details.
+	 * @since 1.8.9 */
+	Stream<Node> findStream(NodeCondition condition);
+
 	/** returns the current zoom factor. A value of 1 means 100%.
 	 * @since 1.2 */
 	float getZoom();
@@ -3,6 +3,7 @@ package org.freeplane.api;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 
@@ -423,6 +424,18 @@ public interface NodeRO {
 	 * @since 1.2 */
 	List<? extends Node> findAllDepthFirst();
 
+	/** Returns a lazy stream of all nodes of the branch that starts with this node in the order of {@link #findAll()}.
+	 * The map must not be changed before the stream is consumed.
+	 * @since 1.8.9 */
+	Stream<Node> stream();
+
+	/** Returns a lazy stream of the nodes of the branch that starts with this node for which <code>condition.check(node)</code>
+	 * returns true. The condition is only checked until the stream operation is complete, so
+	 * <code>node.findStream{ it.text == 'kitchen' }.findFirst()</code> stops at the first match.
+	 * The map must not be changed before the stream is consumed.
+	 * @since 1.8.9 */
+	Stream<Node> findStream(NodeCondition condition);
+
 	Date getLastModifiedAt();
 
 	Date getCreatedAt();
@@ -34,6 +34,7 @@ public class Activator implements BundleActivator {
 			    FORMULA_DISABLE_PLUGIN);
 			final EvaluateAllAction evaluateAllAction = new EvaluateAllAction();
 			modeController.addAction(evaluateAllAction);
+			modeController.addAction(new FormulaCacheStatisticsAction());
 			ActionFactory.createActions(modeController);
 			if (!disablePluginProperty) {
 
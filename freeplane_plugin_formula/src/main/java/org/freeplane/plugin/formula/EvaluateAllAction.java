@@ -1,12 +1,28 @@
 package org.freeplane.plugin.formula;
 
+import java.awt.BorderLayout;
+import java.awt.Frame;
 import java.awt.event.ActionEvent;
 
+import javax.swing.BorderFactory;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+
 import org.freeplane.core.ui.AFreeplaneAction;
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.util.LogUtils;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.plugin.script.FormulaUtils;
 
+/**
+ * Evaluates all formulas of the current map on a worker thread while a modal progress dialog blocks user input,
+ * so that the formulas can be evaluated in parallel and formulas needing the event dispatch thread do not block.
+ */
 class EvaluateAllAction extends AFreeplaneAction {
 	private static final long serialVersionUID = 1L;
 
@@ -17,7 +33,39 @@ class EvaluateAllAction extends AFreeplaneAction {
 	@Override
 	public void actionPerformed(final ActionEvent e) {
 		final MapModel map = Controller.getCurrentController().getMap();
-		FormulaUtils.evaluateAllFormulas(map);
+		final JDialog progressDialog = createProgressDialog();
+		final Thread evaluation = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					FormulaUtils.evaluateAllFormulas(map);
+				}
+				catch (final Throwable t) {
+					LogUtils.severe(t);
+				}
+				finally {
+					SwingUtilities.invokeLater(progressDialog::dispose);
+				}
+			}
+		}, "Evaluate all formulas");
+		evaluation.setDaemon(true);
+		evaluation.start();
+		progressDialog.setVisible(true);
 	}
 
+	private JDialog createProgressDialog() {
+		final Frame frame = UITools.getCurrentFrame();
+		final JDialog dialog = new JDialog(frame, FormulaPluginUtils.getFormulaText("EvaluateAllAction.text"), true);
+		dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+		final JPanel panel = new JPanel(new BorderLayout(0, 8));
+		panel.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
+		panel.add(new JLabel(FormulaPluginUtils.getFormulaText("EvaluateAllAction.progress")), BorderLayout.NORTH);
+		final JProgressBar progressBar = new JProgressBar();
+		progressBar.setIndeterminate(true);
+		panel.add(progressBar, BorderLayout.CENTER);
+		dialog.getContentPane().add(panel);
+		dialog.pack();
+		UITools.setDialogLocationRelativeTo(dialog, frame);
+		return dialog;
+	}
 }
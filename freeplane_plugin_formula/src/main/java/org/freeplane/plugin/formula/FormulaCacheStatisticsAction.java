@@ -0,0 +1,31 @@
+package org.freeplane.plugin.formula;
+
+import java.awt.event.ActionEvent;
+
+import org.freeplane.core.ui.AFreeplaneAction;
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.plugin.script.FormulaCache;
+
+class FormulaCacheStatisticsAction extends AFreeplaneAction {
+	private static final long serialVersionUID = 1L;
+
+	public FormulaCacheStatisticsAction() {
+		super(FormulaPluginUtils.getFormulaKey("FormulaCacheStatisticsAction"));
+	}
+
+	@Override
+	public void actionPerformed(final ActionEvent e) {
+		final MapModel map = Controller.getCurrentController().getMap();
+		final FormulaCache.Statistics statistics = FormulaCache.getStatistics(map);
+		final String message;
+		if (statistics == null)
+			message = FormulaPluginUtils.getFormulaText("cache_statistics.empty");
+		else
+			message = TextUtils.format(FormulaPluginUtils.getFormulaKey("cache_statistics"), statistics.size,
+			    statistics.maximumSize, statistics.hits, statistics.misses, statistics.evictions);
+		UITools.informationMessage(message);
+	}
+}
@@ -0,0 +1,253 @@
+package org.freeplane.plugin.script;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.util.FreeplaneVersion;
+import org.freeplane.core.util.LogUtils;
+
+import groovy.lang.GroovySystem;
+
+/**
+ * Keeps the classes compiled from formulas and script conditions in the user directory,
+ * so that they are loaded instead of compiled again after a restart.
+ *
+ * The entries are keyed by the SHA-256 hash of the script text.
+ * All entries are removed if the Freeplane version, the Groovy version or the script classpath change.
+ * If there are more entries than configured, the least recently used ones are removed on the first use after start
+ * and whenever a newly stored entry exceeds the limit.
+ */
+class CompiledFormulaCache {
+	static final String COMPILED_FORMULA_DISK_CACHE_SIZE_PROPERTY = "compiled_formula_disk_cache_size";
+	private static final String CLASS_NAME_PREFIX = "Formula_";
+	private static final String STAMP_FILE = "cache.properties";
+	private static final String ENTRY_FILE = "compiled.properties";
+	private static final String CLASSES_DIRECTORY = "classes";
+	private static final String TEMPORARY_DIRECTORY_MARKER = ".tmp";
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private static CompiledFormulaCache instance;
+
+	static synchronized CompiledFormulaCache getInstance() {
+		if (instance == null) {
+			final int maximumEntryCount = ResourceController.getResourceController()
+			    .getIntProperty(COMPILED_FORMULA_DISK_CACHE_SIZE_PROPERTY, 0);
+			instance = new CompiledFormulaCache(ScriptResources.getCompiledFormulasDir(), createStamp(),
+			    maximumEntryCount);
+		}
+		return instance;
+	}
+
+	private static Properties createStamp() {
+		final Properties stamp = new Properties();
+		stamp.setProperty("freeplane", FreeplaneVersion.getVersion().toString());
+		stamp.setProperty("groovy", GroovySystem.getVersion());
+		stamp.setProperty("classpath", String.valueOf(ScriptResources.getClasspath()));
+		stamp.setProperty("classpath_modified",
+		    Long.toString(new CompiledScriptCleaner().calculateLastDependencyModificationTime()));
+		return stamp;
+	}
+
+	private final File directory;
+	private final Properties stamp;
+	private final int maximumEntryCount;
+	private final AtomicInteger loadedClassCount = new AtomicInteger();
+	private final AtomicInteger compiledClassCount = new AtomicInteger();
+	private boolean checked;
+	private int entryCount;
+
+	CompiledFormulaCache(File directory, Properties stamp, int maximumEntryCount) {
+		this.directory = directory;
+		this.stamp = stamp;
+		this.maximumEntryCount = maximumEntryCount;
+	}
+
+	boolean isEnabled() {
+		return maximumEntryCount > 0;
+	}
+
+	static String keyOf(String scriptText) {
+		try {
+			final byte[] hash = MessageDigest.getInstance("SHA-256").digest(scriptText.getBytes(StandardCharsets.UTF_8));
+			final char[] key = new char[hash.length * 2];
+			for (int i = 0; i < hash.length; i++) {
+				key[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+				key[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+			}
+			return new String(key);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	static String classNameOf(String key) {
+		return CLASS_NAME_PREFIX + key;
+	}
+
+	/** @return the directory containing the compiled classes of the script, or null if they are not cached. */
+	File classesOf(String key, String scriptText) {
+		checkEntries();
+		final File entry = new File(directory, key);
+		final File entryFile = new File(entry, ENTRY_FILE);
+		final File classes = new File(entry, CLASSES_DIRECTORY);
+		if (!entryFile.exists() || !classes.isDirectory())
+			return null;
+		final Properties properties = load(entryFile);
+		if (properties == null || !scriptText.equals(properties.getProperty("source"))) {
+			remove(key);
+			return null;
+		}
+		entryFile.setLastModified(System.currentTimeMillis());
+		return classes;
+	}
+
+	void classLoaded() {
+		loadedClassCount.incrementAndGet();
+	}
+
+	/** Creates a new directory the compiler writes the classes of a script to, before {@link #store} moves it into the cache. */
+	File createClassesDirectory(String key) throws IOException {
+		checkEntries();
+		directory.mkdirs();
+		final File temporaryEntry = Files.createTempDirectory(directory.toPath(), key + TEMPORARY_DIRECTORY_MARKER).toFile();
+		final File classes = new File(temporaryEntry, CLASSES_DIRECTORY);
+		classes.mkdir();
+		return classes;
+	}
+
+	/** Moves the compiled classes into the cache. If another thread has already stored the same script, they are dropped. */
+	void store(String key, String scriptText, File classes) {
+		compiledClassCount.incrementAndGet();
+		final File temporaryEntry = classes.getParentFile();
+		try {
+			final Properties properties = new Properties();
+			properties.setProperty("class", classNameOf(key));
+			properties.setProperty("source", scriptText);
+			store(properties, new File(temporaryEntry, ENTRY_FILE));
+			Files.move(temporaryEntry.toPath(), new File(directory, key).toPath(), StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			delete(temporaryEntry);
+			return;
+		}
+		entryStored();
+	}
+
+	private synchronized void entryStored() {
+		if (++entryCount <= maximumEntryCount)
+			return;
+		final File[] entries = directory.listFiles(File::isDirectory);
+		if (entries == null)
+			return;
+		final List<File> storedEntries = new ArrayList<>(entries.length);
+		for (final File entry : entries) {
+			if (!entry.getName().contains(TEMPORARY_DIRECTORY_MARKER))
+				storedEntries.add(entry);
+		}
+		// leaves room for further entries, so that the directory is not listed again for each of them
+		evictEntries(storedEntries, maximumEntryCount - maximumEntryCount / 4);
+	}
+
+	void discard(File classes) {
+		delete(classes.getParentFile());
+	}
+
+	void remove(String key) {
+		delete(new File(directory, key));
+	}
+
+	int getLoadedClassCount() {
+		return loadedClassCount.get();
+	}
+
+	int getCompiledClassCount() {
+		return compiledClassCount.get();
+	}
+
+	private synchronized void checkEntries() {
+		if (checked)
+			return;
+		checked = true;
+		final File stampFile = new File(directory, STAMP_FILE);
+		if (!stamp.equals(load(stampFile))) {
+			entryCount = 0;
+			delete(directory);
+			directory.mkdirs();
+			try {
+				store(stamp, stampFile);
+			}
+			catch (IOException e) {
+				LogUtils.warn(e);
+			}
+			return;
+		}
+		final File[] entries = directory.listFiles(File::isDirectory);
+		if (entries == null)
+			return;
+		final List<File> storedEntries = new ArrayList<>(entries.length);
+		for (final File entry : entries) {
+			if (entry.getName().contains(TEMPORARY_DIRECTORY_MARKER))
+				delete(entry);
+			else
+				storedEntries.add(entry);
+		}
+		evictEntries(storedEntries, maximumEntryCount);
+	}
+
+	private void evictEntries(List<File> storedEntries, int remainingEntryCount) {
+		entryCount = storedEntries.size();
+		if (entryCount <= remainingEntryCount)
+			return;
+		storedEntries.sort(Comparator.comparingLong(entry -> new File(entry, ENTRY_FILE).lastModified()));
+		final int evictedEntryCount = entryCount - remainingEntryCount;
+		for (final File entry : storedEntries.subList(0, evictedEntryCount))
+			delete(entry);
+		entryCount = remainingEntryCount;
+		LogUtils.info("removed " + evictedEntryCount + " least recently used compiled formulas from " + directory);
+	}
+
+	private static Properties load(File file) {
+		if (!file.exists())
+			return null;
+		try (InputStream in = new FileInputStream(file)) {
+			final Properties properties = new Properties();
+			properties.load(in);
+			return properties;
+		}
+		catch (IOException e) {
+			return null;
+		}
+	}
+
+	private static void store(Properties properties, File file) throws IOException {
+		try (OutputStream out = new FileOutputStream(file)) {
+			properties.store(out, "");
+		}
+	}
+
+	private static void delete(File file) {
+		try {
+			FileUtils.deleteDirectory(file);
+		}
+		catch (IOException e) {
+			LogUtils.warn(e);
+		}
+	}
+}
@@ -15,7 +15,7 @@ import org.apache.commons.io.FileUtils;
 import org.freeplane.core.util.LogUtils;
 
 class CompiledScriptCleaner {
-    private long calculateLastDependencyModificationTime() {
+    long calculateLastDependencyModificationTime() {
         long lastModificationTime = ScriptResources.getClasspath().stream()
             .map(File::new)
             .mapToLong(this::calculateLastDependencyModificationTime)
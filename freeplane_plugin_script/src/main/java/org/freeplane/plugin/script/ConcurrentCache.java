@@ -3,6 +3,7 @@ package org.freeplane.plugin.script;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
@@ -15,13 +16,21 @@ public class ConcurrentCache <K, V> {
     private final ReentrantReadWriteLock.WriteLock writeLock = rwl.writeLock();
 
 	private final LinkedHashMap<K, V> cache ;
-	@SuppressWarnings("serial")
 	public ConcurrentCache(IntSupplier maxSize) {
+		this(maxSize, value -> {});
+	}
+
+	/** @param removalListener is called for values removed from the cache because it is full */
+	@SuppressWarnings("serial")
+	public ConcurrentCache(IntSupplier maxSize, Consumer<? super V> removalListener) {
 		super();
 		cache = new  LinkedHashMap<K, V>(maxSize.getAsInt() + 1, DEFAULT_LOAD_FACTOR, true){
 			@Override
 			protected boolean removeEldestEntry(Entry<K, V> eldest) {
-				return size() > maxSize.getAsInt();
+				final boolean removes = size() > maxSize.getAsInt();
+				if (removes)
+					removalListener.accept(eldest.getValue());
+				return removes;
 			}
 		};
 	}
@@ -14,7 +14,6 @@ import org.freeplane.features.link.ConnectorModel;
 import org.freeplane.features.link.Connectors;
 import org.freeplane.features.link.LinkController;
 import org.freeplane.features.map.NodeModel;
-import org.freeplane.features.mode.Controller;
 import org.freeplane.features.text.HighlightedTransformedObject;
 import org.freeplane.plugin.script.dependencies.RelatedElements;
 
@@ -29,17 +28,7 @@ class DependencyHighlighter {
 		this.configurable = configurable;
 	}
 
-	void showCyclicDependency(final NodeScript nodeScript) {
-		final Controller controller = Controller.getCurrentController();
-		if (controller.getMap() != nodeScript.node.getMap())
-			return;
-		final List<NodeScript> cycle = FormulaThreadLocalStacks.INSTANCE.findCycle(nodeScript);
-		if (cycle.isEmpty())
-			return;
-		showCycle(cycle);
-	}
-
-	private void showCycle(final List<NodeScript> cycle) {
+	void showCycle(final List<NodeScript> cycle) {
 		final HighlightedElements highlightedElements = HighlightedElements.of(configurable);
 		highlightedElements.clear();
 		Stream<Object> relatedElements = cycle.stream().map(NodeScript::containingElements).map(RelatedElements::getElements)
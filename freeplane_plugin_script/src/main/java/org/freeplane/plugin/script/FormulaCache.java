@@ -1,37 +1,101 @@
 package org.freeplane.plugin.script;
 
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.resources.ResourceController;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
-import org.freeplane.features.mode.Controller;
 import org.freeplane.plugin.script.dependencies.RelatedElements;
 
+/**
+ * Caches the results of the formulas of a map, keyed by node identity and script.
+ *
+ * The nodes are distributed over stripes with their own locks, so that formulas can be evaluated on several threads.
+ * Each stripe holds up to its share of the configured number of results and evicts the least recently used nodes first.
+ * Evicted formulas are evaluated again on their next access,
+ * their dependencies are still known from {@link org.freeplane.plugin.script.dependencies.EvaluationDependencies}.
+ */
 public class FormulaCache implements IExtension{
-	private final HashMap<String, LinkedHashMap<String, CachedResult>> cache = new HashMap<String, LinkedHashMap<String, CachedResult>>();
-	// don't let caching use too much memory - but currently there are little means to cope with unavailable
-	// dependency data. It has to be tested but it should "only" lead to some missing updates.
-	static final boolean ENABLE_CACHING = !Controller.getCurrentController().getResourceController()
-	    .getBooleanProperty("formula_disable_caching");
-
-	static void removeFromCache(final ArrayList<NodeModel> dependencies) {
-			if (ENABLE_CACHING) {
-				for (final NodeModel nodeModel : dependencies) {
-					FormulaCache.of(nodeModel.getMap()).remove(nodeModel);
-				}
-			}
+	static final String FORMULA_DISABLE_CACHING_PROPERTY = "formula_disable_caching";
+	static final String FORMULA_CACHE_SIZE_PROPERTY = "formula_cache_size";
+	private static final int STRIPE_COUNT = 16;
+
+	public static class Statistics {
+		public final int size;
+		public final int maximumSize;
+		public final long hits;
+		public final long misses;
+		public final long evictions;
+
+		Statistics(int size, int maximumSize, long hits, long misses, long evictions) {
+			this.size = size;
+			this.maximumSize = maximumSize;
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+		}
+	}
+
+	private static class Stripe {
+		private final LinkedHashMap<NodeModel, Map<String, CachedResult>> entries = new LinkedHashMap<>(16, 0.75f, true);
+		private int resultCount;
+	}
+
+	private final Stripe[] stripes;
+	private final int maximumSize;
+	private final int maximumStripeSize;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	FormulaCache(int maximumSize) {
+		this.maximumSize = maximumSize;
+		maximumStripeSize = Math.max(1, (maximumSize + STRIPE_COUNT - 1) / STRIPE_COUNT);
+		stripes = new Stripe[STRIPE_COUNT];
+		for (int i = 0; i < STRIPE_COUNT; i++)
+			stripes[i] = new Stripe();
+	}
+
+	static boolean isCachingEnabled() {
+		return !ResourceController.getResourceController().getBooleanProperty(FORMULA_DISABLE_CACHING_PROPERTY);
+	}
+
+	/** Invalidates the results even if caching is disabled now, so that no outdated results remain if it is enabled again. */
+	static void removeFromCache(final List<NodeModel> dependencies) {
+		for (final NodeModel nodeModel : dependencies) {
+			final FormulaCache formulaCache = nodeModel.getMap().getExtension(FormulaCache.class);
+			if (formulaCache != null)
+				formulaCache.remove(nodeModel);
 		}
+	}
+
+	private Stripe stripeOf(final NodeModel node) {
+		final int hash = System.identityHashCode(node);
+		return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+	}
+
+	private CachedResult get(final NodeModel node, final String script) {
+		final Stripe stripe = stripeOf(node);
+		synchronized (stripe) {
+			final Map<String, CachedResult> cacheEntry = stripe.entries.get(node);
+			return cacheEntry != null ? cacheEntry.get(script) : null;
+		}
+	}
 
 	Object getOrThrowCachedResult(final NodeScript nodeScript) {
-		final LinkedHashMap<String, CachedResult> cacheEntry = cache.get(nodeScript.node.getID());
-		if (cacheEntry == null)
-			return null;
-		final CachedResult cachedResult = cacheEntry.get(nodeScript.script);
-		if (cachedResult == null)
+		final CachedResult cachedResult = get(nodeScript.node, nodeScript.script);
+		if (cachedResult == null) {
+			misses.increment();
 			return null;
+		}
+		hits.increment();
 		return getOrThrowCachedResult(cachedResult.returnedValue);
 	}
 
@@ -43,48 +107,78 @@ public class FormulaCache implements IExtension{
 	}
 
 	void put(final NodeScript nodeScript, final CachedResult result) {
-		getOrAdd(nodeScript.node).put(nodeScript.script, result);
+		final NodeModel node = nodeScript.node;
+		final Stripe stripe = stripeOf(node);
+		synchronized (stripe) {
+			Map<String, CachedResult> cacheEntry = stripe.entries.get(node);
+			if (cacheEntry == null) {
+				cacheEntry = new HashMap<String, CachedResult>(4);
+				stripe.entries.put(node, cacheEntry);
+			}
+			if (cacheEntry.put(nodeScript.script, result) == null)
+				stripe.resultCount++;
+			evictEldest(stripe, node);
+		}
 	}
 
-	private LinkedHashMap<String, CachedResult> getOrAdd(final NodeModel node) {
-		LinkedHashMap<String, CachedResult> cacheEntry = cache.get(node.getID());
-		if (cacheEntry == null) {
-			cacheEntry = new LinkedHashMap<String, CachedResult>(8);
-			cache.put(node.getID(), cacheEntry);
+	private void evictEldest(final Stripe stripe, final NodeModel keptNode) {
+		final Iterator<Entry<NodeModel, Map<String, CachedResult>>> iterator = stripe.entries.entrySet().iterator();
+		while (stripe.resultCount > maximumStripeSize && iterator.hasNext()) {
+			final Entry<NodeModel, Map<String, CachedResult>> eldest = iterator.next();
+			if (eldest.getKey() == keptNode)
+				continue;
+			final int evictedResultCount = eldest.getValue().size();
+			iterator.remove();
+			stripe.resultCount -= evictedResultCount;
+			evictions.add(evictedResultCount);
 		}
-		return cacheEntry;
 	}
 
 	void remove(final NodeModel node) {
-		final LinkedHashMap<String, CachedResult> entry = cache.get(node.getID());
-		if (entry != null) {
-//			System.out.println("clearing cache for " + node);
-			entry.clear();
+		final Stripe stripe = stripeOf(node);
+		synchronized (stripe) {
+			final Map<String, CachedResult> entry = stripe.entries.remove(node);
+			if (entry != null)
+				stripe.resultCount -= entry.size();
 		}
 	}
 
 	static FormulaCache of(final MapModel map) {
-		FormulaCache formulaCache = map.getExtension(FormulaCache.class);
-		if (formulaCache == null) {
-			formulaCache = new FormulaCache();
-			map.addExtension(formulaCache);
+		synchronized (map) {
+			FormulaCache formulaCache = map.getExtension(FormulaCache.class);
+			if (formulaCache == null) {
+				formulaCache = new FormulaCache(Math.max(1,
+				    ResourceController.getResourceController().getIntProperty(FORMULA_CACHE_SIZE_PROPERTY, 50000)));
+				map.addExtension(formulaCache);
+			}
+			return formulaCache;
 		}
-		return formulaCache;
 	}
+
 	static void removeFrom(final MapModel map) {
-		map.removeExtension(FormulaCache.class);
+		synchronized (map) {
+			map.removeExtension(FormulaCache.class);
+		}
 	}
 
 	RelatedElements getAccessedValues(final NodeModel node, final String script) {
-		if(ENABLE_CACHING) {
-			final LinkedHashMap<String, CachedResult> cacheEntry = cache.get(node.getID());
-			if (cacheEntry == null) return null;
-			final CachedResult cachedResult = cacheEntry.get(script);
-			if(cachedResult != null)
-				return cachedResult.relatedElements;
-		}
-		return null;
+		final CachedResult cachedResult = get(node, script);
+		return cachedResult != null ? cachedResult.relatedElements : null;
 	}
 
+	public Statistics getStatistics() {
+		int size = 0;
+		for (final Stripe stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.resultCount;
+			}
+		}
+		return new Statistics(size, maximumSize, hits.sum(), misses.sum(), evictions.sum());
+	}
 
+	/** @return the statistics of the cache of the map, or null if no formula was evaluated since the cache was cleared. */
+	public static Statistics getStatistics(final MapModel map) {
+		final FormulaCache formulaCache = map.getExtension(FormulaCache.class);
+		return formulaCache != null ? formulaCache.getStatistics() : null;
+	}
 }
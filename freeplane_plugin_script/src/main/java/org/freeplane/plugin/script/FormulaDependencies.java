@@ -18,8 +18,10 @@ public class FormulaDependencies{
 	}
 
 	public static void clearCache(final MapModel map) {
-		FormulaCache.removeFrom(map);
-		map.removeExtension(EvaluationDependencies.class);
+		synchronized (map) {
+			FormulaCache.removeFrom(map);
+			map.removeExtension(EvaluationDependencies.class);
+		}
 	}
 
 
@@ -0,0 +1,229 @@
+package org.freeplane.plugin.script;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.features.attribute.Attribute;
+import org.freeplane.features.attribute.NodeAttributeTableModel;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.NodeStream;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.plugin.script.dependencies.EvaluationDependencies;
+import org.freeplane.plugin.script.dependencies.RelatedElements;
+
+/**
+ * Evaluates all formulas of a map and logs the total and the per formula evaluation times.
+ *
+ * The dependencies recorded by the previous evaluation are taken before the cache is cleared.
+ * Formulas without recorded dependencies, e.g. on the first evaluation, are evaluated one after another.
+ * The other formulas are evaluated in waves, each wave containing the nodes whose formulas only access
+ * formula nodes of earlier waves. If parallel evaluation is enabled, the waves are evaluated
+ * on the worker threads of the common fork join pool. This is never done on the event dispatch thread,
+ * because formulas may need it, e.g. to show a message, while it waits for the pool.
+ * The "Evaluate all" action therefore evaluates on a separate thread while it shows a modal progress dialog.
+ * Formulas on dependency cycles and formulas accessing all nodes are evaluated at last on the calling thread.
+ *
+ * The order only saves work: a formula still evaluates the formulas it accesses if their values are not cached yet.
+ */
+class FormulaEvaluator {
+	static final String PARALLEL_FORMULA_EVALUATION_PROPERTY = "formula_parallel_evaluation";
+	private static final int MINIMAL_WAVE_SIZE_FOR_PARALLEL_EVALUATION = 8;
+	private static final int REPORTED_SLOWEST_FORMULA_COUNT = 10;
+
+	private static class FormulaTime {
+		final NodeScript nodeScript;
+		final long nanos;
+
+		FormulaTime(NodeScript nodeScript, long nanos) {
+			this.nodeScript = nodeScript;
+			this.nanos = nanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%.1f ms %s", nanos / 1e6, nodeScript.format());
+		}
+	}
+
+	private final MapModel map;
+	private final Map<NodeModel, List<String>> formulas;
+	private final Queue<FormulaTime> formulaTimes;
+	private int sequentialNodeCount;
+	private int parallelNodeCount;
+	private int waveCount;
+
+	FormulaEvaluator(MapModel map) {
+		this.map = map;
+		formulas = new LinkedHashMap<>();
+		formulaTimes = new ConcurrentLinkedQueue<>();
+	}
+
+	void evaluateAll() {
+		final long start = System.nanoTime();
+		collectFormulas();
+		final boolean evaluatesInParallel = FormulaCache.isCachingEnabled() && ResourceController.getResourceController()
+		    .getBooleanProperty(PARALLEL_FORMULA_EVALUATION_PROPERTY)
+		        && !Controller.getCurrentController().getViewController().isDispatchThread();
+		final Set<NodeModel> nodesWithKnownDependencies = evaluatesInParallel ? nodesWithKnownDependencies()
+		        : Collections.<NodeModel> emptySet();
+		final Map<NodeModel, List<NodeModel>> dependentNodes = new IdentityHashMap<>();
+		final Set<NodeModel> lastNodes = newNodeSet();
+		if (!nodesWithKnownDependencies.isEmpty())
+			collectDependencies(nodesWithKnownDependencies, dependentNodes, lastNodes);
+		FormulaUtils.clearCache(map);
+
+		evaluateSequentially(formulas.keySet(), node -> !nodesWithKnownDependencies.contains(node));
+		final Set<NodeModel> evaluatedNodes = evaluateInWaves(nodesWithKnownDependencies, dependentNodes, lastNodes);
+		evaluateSequentially(formulas.keySet(),
+		    node -> nodesWithKnownDependencies.contains(node) && !evaluatedNodes.contains(node));
+		logTimes(System.nanoTime() - start);
+	}
+
+	private static Set<NodeModel> newNodeSet() {
+		return Collections.newSetFromMap(new IdentityHashMap<NodeModel, Boolean>());
+	}
+
+	private void collectFormulas() {
+		NodeStream.of(map.getRootNode()).forEach(node -> {
+			addIfFormula(node, node.getUserObject());
+			final NodeAttributeTableModel attributeTableModel = node.getExtension(NodeAttributeTableModel.class);
+			if (attributeTableModel != null) {
+				for (final Attribute attribute : attributeTableModel.getAttributes())
+					addIfFormula(node, attribute.getValue());
+			}
+		});
+	}
+
+	private void addIfFormula(NodeModel node, Object value) {
+		if (value instanceof String && FormulaUtils.textContainsFormula((String) value))
+			formulas.computeIfAbsent(node, key -> new ArrayList<>(1)).add((String) value);
+	}
+
+	private Set<NodeModel> nodesWithKnownDependencies() {
+		final Set<NodeModel> nodes = newNodeSet();
+		final FormulaCache formulaCache = map.getExtension(FormulaCache.class);
+		if (formulaCache == null || !map.containsExtension(EvaluationDependencies.class))
+			return nodes;
+		for (final Map.Entry<NodeModel, List<String>> entry : formulas.entrySet()) {
+			final NodeModel node = entry.getKey();
+			if (entry.getValue().stream()
+			    .allMatch(formula -> formulaCache.getAccessedValues(node, FormulaUtils.scriptOf(formula)) != null))
+				nodes.add(node);
+		}
+		return nodes;
+	}
+
+	private void collectDependencies(Set<NodeModel> nodes, Map<NodeModel, List<NodeModel>> dependentNodes,
+	                                 Set<NodeModel> lastNodes) {
+		final Map<NodeModel, List<NodeModel>> branchDependentNodes = new IdentityHashMap<>();
+		EvaluationDependencies.of(map).forEachAccess(
+		    (accessedNode, accessingNode) -> addDependency(nodes, dependentNodes, accessedNode, accessingNode),
+		    (branchNode, accessingNode) -> branchDependentNodes.computeIfAbsent(branchNode, key -> new ArrayList<>())
+		        .add(accessingNode),
+		    lastNodes::add);
+		for (final NodeModel node : nodes) {
+			for (NodeModel branchNode = node.getParentNode(); branchNode != null; branchNode = branchNode.getParentNode()) {
+				final List<NodeModel> accessingNodes = branchDependentNodes.get(branchNode);
+				if (accessingNodes != null) {
+					for (final NodeModel accessingNode : accessingNodes)
+						addDependency(nodes, dependentNodes, node, accessingNode);
+				}
+			}
+		}
+		for (final NodeModel node : nodes) {
+			for (final String formula : formulas.get(node)) {
+				final RelatedElements relatedElements = FormulaUtils.getRelatedElements(node, formula);
+				for (final NodeModel accessedNode : relatedElements.getRelatedNodes())
+					addDependency(nodes, dependentNodes, accessedNode, node);
+			}
+		}
+	}
+
+	private static void addDependency(Set<NodeModel> nodes, Map<NodeModel, List<NodeModel>> dependentNodes,
+	                                  NodeModel accessedNode, NodeModel accessingNode) {
+		if (accessedNode != accessingNode && nodes.contains(accessedNode) && nodes.contains(accessingNode))
+			dependentNodes.computeIfAbsent(accessedNode, key -> new ArrayList<>()).add(accessingNode);
+	}
+
+	private Set<NodeModel> evaluateInWaves(Set<NodeModel> nodes, Map<NodeModel, List<NodeModel>> dependentNodes,
+	                                       Set<NodeModel> lastNodes) {
+		final Map<NodeModel, Integer> precedentCounts = new IdentityHashMap<>();
+		for (final List<NodeModel> dependents : dependentNodes.values()) {
+			for (final NodeModel dependent : dependents)
+				precedentCounts.merge(dependent, 1, Integer::sum);
+		}
+		List<NodeModel> wave = new ArrayList<>();
+		for (final NodeModel node : formulas.keySet()) {
+			if (nodes.contains(node) && !precedentCounts.containsKey(node) && !lastNodes.contains(node))
+				wave.add(node);
+		}
+		final Set<NodeModel> evaluatedNodes = newNodeSet();
+		while (!wave.isEmpty()) {
+			evaluateWave(wave);
+			evaluatedNodes.addAll(wave);
+			final List<NodeModel> nextWave = new ArrayList<>();
+			for (final NodeModel node : wave) {
+				for (final NodeModel dependent : dependentNodes.getOrDefault(node, Collections.<NodeModel> emptyList())) {
+					if (precedentCounts.merge(dependent, -1, Integer::sum) == 0 && !lastNodes.contains(dependent))
+						nextWave.add(dependent);
+				}
+			}
+			wave = nextWave;
+		}
+		return evaluatedNodes;
+	}
+
+	private void evaluateWave(List<NodeModel> wave) {
+		if (wave.size() < MINIMAL_WAVE_SIZE_FOR_PARALLEL_EVALUATION) {
+			evaluateSequentially(wave, node -> true);
+			return;
+		}
+		waveCount++;
+		parallelNodeCount += wave.size();
+		wave.parallelStream().forEach(this::evaluate);
+	}
+
+	private void evaluateSequentially(Collection<NodeModel> nodes, Predicate<NodeModel> filter) {
+		for (final NodeModel node : nodes) {
+			if (filter.test(node)) {
+				sequentialNodeCount++;
+				evaluate(node);
+			}
+		}
+	}
+
+	private void evaluate(NodeModel node) {
+		for (final String formula : formulas.get(node)) {
+			final long start = System.nanoTime();
+			FormulaUtils.cacheIfFormula(node, formula);
+			formulaTimes.add(new FormulaTime(new NodeScript(node, FormulaUtils.scriptOf(formula)), System.nanoTime() - start));
+		}
+	}
+
+	private void logTimes(long totalNanos) {
+		final List<FormulaTime> slowestFormulas = new ArrayList<>(formulaTimes);
+		slowestFormulas.sort(Comparator.comparingLong((FormulaTime time) -> time.nanos).reversed());
+		final StringBuilder report = new StringBuilder();
+		report.append("Evaluated ").append(formulaTimes.size()).append(" formulas of map ").append(map.getTitle())
+		    .append(" in ").append(TimeUnit.NANOSECONDS.toMillis(totalNanos)).append(" ms, ")
+		    .append(sequentialNodeCount).append(" nodes one after another, ")
+		    .append(parallelNodeCount).append(" nodes in ").append(waveCount).append(" parallel waves");
+		for (final FormulaTime time : slowestFormulas.subList(0, Math.min(REPORTED_SLOWEST_FORMULA_COUNT, slowestFormulas.size())))
+			report.append("\n ").append(time);
+		LogUtils.info(report.toString());
+	}
+}
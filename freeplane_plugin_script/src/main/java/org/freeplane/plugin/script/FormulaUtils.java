@@ -14,6 +14,7 @@ import org.freeplane.features.link.LinkController;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
+import org.freeplane.features.ui.ViewController;
 import org.freeplane.plugin.script.dependencies.RelatedElements;
 
 public class FormulaUtils {
@@ -78,7 +79,7 @@ public class FormulaUtils {
 		final NodeScript nodeScript = new NodeScript(nodeModel, script);
 		final ScriptContext scriptContext = new ScriptContext(nodeScript);
 		final ScriptingPermissions restrictedPermissions = ScriptingPermissions.getFormulaPermissions();
-		if (FormulaCache.ENABLE_CACHING) {
+		if (FormulaCache.isCachingEnabled()) {
 			final FormulaCache formulaCache = FormulaCache.of(nodeModel.getMap());
 			Object value = formulaCache.getOrThrowCachedResult(nodeScript);
 			if (value == null) {
@@ -121,11 +122,10 @@ public class FormulaUtils {
 		if (!FormulaThreadLocalStacks.INSTANCE.push(scriptContext)) {
 			if(FormulaThreadLocalStacks.INSTANCE.ignoresCycles())
 				return 0;
-			showCyclicDependency(nodeScript);
 			final String message = TextUtils.format("formula.error.circularReference",
 				nodeScript.node.getID(),
 				HtmlUtils.htmlToPlain(nodeScript.script));
-			Controller.getCurrentController().getViewController().out(TextUtils.getShortText(message, 80, "..."));
+			showCyclicDependency(nodeScript, message);
 			throw new ExecuteScriptException(new CyclicScriptReferenceException(message));
 		}
 		try {
@@ -140,20 +140,28 @@ public class FormulaUtils {
 		}
 	}
 
-	private static void showCyclicDependency(final NodeScript nodeScript) {
+	private static void showCyclicDependency(final NodeScript nodeScript, final String message) {
 		final Controller controller = Controller.getCurrentController();
-		if (controller.getMap() != nodeScript.node.getMap())
-			return;
+		final ViewController viewController = controller.getViewController();
 		final List<NodeScript> cycle = FormulaThreadLocalStacks.INSTANCE.findCycle(nodeScript);
-		final Configurable configurable = controller.getMapViewManager().getMapViewConfiguration();
-		final DependencyHighlighter dependencyHighlighter = new DependencyHighlighter(LinkController.getController(),
-			configurable);
-		if (! cycle.isEmpty())
-			dependencyHighlighter.showCyclicDependency(nodeScript);
+		final Runnable showCycle = () -> {
+			viewController.out(TextUtils.getShortText(message, 80, "..."));
+			if (controller.getMap() != nodeScript.node.getMap() || cycle.isEmpty())
+				return;
+			final Configurable configurable = controller.getMapViewManager().getMapViewConfiguration();
+			final DependencyHighlighter dependencyHighlighter = new DependencyHighlighter(LinkController.getController(),
+				configurable);
+			dependencyHighlighter.showCycle(cycle);
+		};
+		// formulas evaluated by FormulaEvaluator run on worker threads
+		if (viewController.isDispatchThread())
+			showCycle.run();
+		else
+			viewController.invokeLater(showCycle);
 	}
 
 	public static RelatedElements getRelatedElements(final NodeModel node, final Object object) {
-		if (FormulaCache.ENABLE_CACHING && FormulaUtils.containsFormula(object)) {
+		if (FormulaCache.isCachingEnabled() && FormulaUtils.containsFormula(object)) {
 			final RelatedElements accessedValues = FormulaCache.of(node.getMap()).getAccessedValues(node,
 				scriptOf((String) object));
 			if (accessedValues != null)
@@ -171,8 +179,7 @@ public class FormulaUtils {
 	}
 
 	public static void evaluateAllFormulas(MapModel map) {
-		clearCache(map);
-		evaluateOutdatedFormulas(map);
+		new FormulaEvaluator(map).evaluateAll();
 	}
 
 	public static void evaluateOutdatedFormulas(MapModel map) {
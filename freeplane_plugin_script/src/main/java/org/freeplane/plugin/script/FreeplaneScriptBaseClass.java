@@ -1,10 +1,11 @@
 package org.freeplane.plugin.script;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.ResourceBundle;
 import java.util.regex.Pattern;
@@ -19,7 +20,6 @@ import org.freeplane.features.link.LinkController;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.plugin.script.proxy.AbstractProxy;
 import org.freeplane.plugin.script.proxy.Convertible;
-import org.freeplane.plugin.script.proxy.Proxy;
 import org.freeplane.plugin.script.proxy.ProxyFactory;
 
 import groovy.lang.Binding;
@@ -96,6 +96,41 @@ public abstract class FreeplaneScriptBaseClass extends Script {
 		}
 	}
 
+	/** Tracks assignments of the script to binding variables, which prevent reusing the script instance. */
+	private static class ReusableBinding extends Binding {
+		private final int initialVariableCount;
+		private boolean variablesAssigned;
+
+		@SuppressWarnings("rawtypes")
+		ReusableBinding(Map variables) {
+			super(variables);
+			initialVariableCount = variables.size();
+		}
+
+		@Override
+		public void setVariable(String name, Object value) {
+			variablesAssigned = true;
+			super.setVariable(name, value);
+		}
+
+		boolean isUnchanged() {
+			return !variablesAssigned && getVariables().size() == initialVariableCount;
+		}
+	}
+
+	/** Script classes with instance fields, e.g. declared by the annotation {@code @Field},
+	 * keep state between runs, so that their instances are not reused. */
+	private static final ClassValue<Boolean> DECLARES_INSTANCE_FIELDS = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (final Field field : type.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic() && field.getName().indexOf('$') < 0)
+					return true;
+			}
+			return false;
+		}
+	};
+
 	private final Pattern nodeIdPattern = Pattern.compile("ID_\\d+");
 	private final MetaClass nodeMetaClass;
 	private Object script;
@@ -115,26 +150,30 @@ public abstract class FreeplaneScriptBaseClass extends Script {
 	}
 
 	FreeplaneScriptBaseClass withBinding(final NodeModel node, ScriptContext scriptContext) {
-		@SuppressWarnings("rawtypes")
-		Binding binding = new Binding(new LinkedHashMap(getBinding().getVariables()));
-		for (Entry<String, Object> entry : ScriptingConfiguration.getStaticProperties().entrySet()) {
-			binding.setProperty(entry.getKey(), entry.getValue());
-		}
-		Proxy.Controller controllerProxy = ProxyFactory.createController(scriptContext);
-		Proxy.Node nodeProxy = ProxyFactory.createNode(node, scriptContext);
-		return withBinding(binding, controllerProxy, nodeProxy);
+		final FreeplaneScriptBaseClass instance = boundVariables != null ? newInstance() : this;
+		return instance.bind(new Binding(copyVariables()), node, scriptContext);
+	}
+
+	/** Returns a new instance which can be bound to other nodes by {@link #rebind(NodeModel, ScriptContext)}
+	 * as long as the script does not assign binding variables.
+	 * Instances of scripts declaring instance fields are not reusable. */
+	FreeplaneScriptBaseClass withReusableBinding(final NodeModel node, ScriptContext scriptContext) {
+		final Binding binding = DECLARES_INSTANCE_FIELDS.get(getClass()) ? new Binding(copyVariables())
+		        : new ReusableBinding(copyVariables());
+		return newInstance().bind(binding, node, scriptContext);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private Map copyVariables() {
+		final Map variables = new LinkedHashMap(getBinding().getVariables());
+		variables.putAll(ScriptingConfiguration.getStaticProperties());
+		return variables;
 	}
 
-	private FreeplaneScriptBaseClass withBinding(Binding binding, ControllerRO controllerProxy, NodeRO nodeProxy) {
+	private FreeplaneScriptBaseClass newInstance() {
 		try {
-			binding.setVariable("c", controllerProxy);
-			binding.setVariable("node", nodeProxy);
-			FreeplaneScriptBaseClass instance = boundVariables != null ? getClass().newInstance() : this;
+			final FreeplaneScriptBaseClass instance = getClass().newInstance();
 			instance.script = script;
-			instance.node = nodeProxy;
-			instance.controller = controllerProxy;
-			instance.setBinding(binding);
-			instance.boundVariables = binding.getVariables();
 			return instance;
 		}
 		catch (InstantiationException | IllegalAccessException e) {
@@ -142,6 +181,47 @@ public abstract class FreeplaneScriptBaseClass extends Script {
 		}
 	}
 
+	private FreeplaneScriptBaseClass bind(Binding binding, NodeModel node, ScriptContext scriptContext) {
+		setBinding(binding);
+		boundVariables = binding.getVariables();
+		rebindController(scriptContext);
+		rebindNode(node, scriptContext);
+		return this;
+	}
+
+	/** Binds an instance created by {@link #withReusableBinding(NodeModel, ScriptContext)} to the next node
+	 * and its script context.
+	 * @return false if the instance can not be reused because the last run assigned binding variables. */
+	boolean rebind(final NodeModel node, ScriptContext scriptContext) {
+		if (!isReusable())
+			return false;
+		rebindController(scriptContext);
+		rebindNode(node, scriptContext);
+		return true;
+	}
+
+	/** Drops the references to the last node and its script context so that a reused instance does not keep its map alive. */
+	void unbind() {
+		node = null;
+		controller = null;
+		boundVariables.put("node", null);
+		boundVariables.put("c", null);
+	}
+
+	boolean isReusable() {
+		return getBinding() instanceof ReusableBinding && ((ReusableBinding) getBinding()).isUnchanged();
+	}
+
+	private void rebindController(ScriptContext scriptContext) {
+		controller = ProxyFactory.createController(scriptContext);
+		boundVariables.put("c", controller);
+	}
+
+	private void rebindNode(NodeModel node, ScriptContext scriptContext) {
+		this.node = ProxyFactory.createNode(node, scriptContext);
+		boundVariables.put("node", this.node);
+	}
+
     /* <ul>
 	 * <li> translate raw node ids to nodes.
 	 * <li> "imports" node's methods into the script's namespace
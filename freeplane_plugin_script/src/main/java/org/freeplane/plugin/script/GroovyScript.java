@@ -26,6 +26,8 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.regex.Matcher;
 
 import javax.swing.SwingUtilities;
@@ -60,6 +62,12 @@ public class GroovyScript implements IScript {
 
 	private ScriptClassLoader scriptClassLoader;
 
+    private final boolean reusesScriptInstances;
+
+    private final boolean cachesCompiledClasses;
+
+    private final Queue<FreeplaneScriptBaseClass> reusableScripts;
+
     public GroovyScript(String script) {
         this((Object) script);
     }
@@ -85,6 +93,11 @@ public class GroovyScript implements IScript {
         compiledScript = null;
         errorsInScript = null;
         compileTimeStrategy = new CompileTimeStrategy(null);
+        // formulas and script conditions are evaluated for many nodes with the same fixed permissions
+        reusesScriptInstances = script instanceof String && permissions != null && permissions.isFormulaPermissions();
+        reusableScripts = reusesScriptInstances ? new ConcurrentLinkedQueue<FreeplaneScriptBaseClass>() : null;
+        // with fixed permissions their compiled classes only depend on the script text
+        cachesCompiledClasses = script instanceof String && permissions != null && permissions.isFormulaPermissions();
     }
 
     private GroovyScript(Object script) {
@@ -103,21 +116,17 @@ public class GroovyScript implements IScript {
             }
             final PrintStream oldOut = System.out;
             ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            FreeplaneScriptBaseClass scriptWithBinding = null;
             try {
-                trustedCompileAndCache(outStream);
-                Thread.currentThread().setContextClassLoader(scriptClassLoader);
-                FreeplaneScriptBaseClass scriptWithBinding = AccessController.doPrivileged(new PrivilegedAction<FreeplaneScriptBaseClass>() {
-					@Override
-					public FreeplaneScriptBaseClass run() {
-						return compiledScript.withBinding(node, scriptContext);
-					}
-				}); 
+                scriptWithBinding = bindScript(node, outStream, scriptContext);
                 System.setOut(outStream);
 				final Object result = scriptWithBinding.run();
 				return result;
             } finally {
                 System.setOut(oldOut);
                 Thread.currentThread().setContextClassLoader(contextClassLoader);
+                if (scriptWithBinding != null && reusesScriptInstances)
+                    releaseScript(scriptWithBinding);
             }
         } catch (final GroovyRuntimeException e) {
             handleScriptRuntimeException(e, outStream, errorHandler);
@@ -140,6 +149,45 @@ public class GroovyScript implements IScript {
         }
     }
 
+    private FreeplaneScriptBaseClass bindScript(final NodeModel node, PrintStream outStream,
+                                                final ScriptContext scriptContext) throws Throwable {
+        if (reusesScriptInstances) {
+            // taken until the run is finished, so that a recursive or concurrent evaluation binds another instance
+            final FreeplaneScriptBaseClass reusableScript = reusableScripts.poll();
+            if (reusableScript != null) {
+                if (reusableScript.rebind(node, scriptContext)) {
+                    Thread.currentThread().setContextClassLoader(scriptClassLoader);
+                    return reusableScript;
+                }
+            }
+        }
+        // formulas are evaluated on several threads by FormulaEvaluator
+        synchronized (this) {
+            trustedCompileAndCache(outStream);
+            Thread.currentThread().setContextClassLoader(scriptClassLoader);
+            return AccessController.doPrivileged(new PrivilegedAction<FreeplaneScriptBaseClass>() {
+                @Override
+                public FreeplaneScriptBaseClass run() {
+                    return reusesScriptInstances ? compiledScript.withReusableBinding(node, scriptContext)
+                            : compiledScript.withBinding(node, scriptContext);
+                }
+            });
+        }
+    }
+
+    private void releaseScript(FreeplaneScriptBaseClass script) {
+        if (script.isReusable()) {
+            script.unbind();
+            reusableScripts.offer(script);
+        }
+    }
+
+    /** Drops the instances kept for reuse, e.g. when this script is removed from the script cache. */
+    void releaseReusableScripts() {
+        if (reusableScripts != null)
+            reusableScripts.clear();
+    }
+
     private ScriptingSecurityManager createScriptingSecurityManager(PrintStream outStream) {
         return new ScriptSecurity(script, specificPermissions, outStream)
                 .getScriptingSecurityManager();
@@ -185,7 +233,8 @@ public class GroovyScript implements IScript {
                         createCompilerConfiguration());
                 compileTimeStrategy.scriptCompileStart();
                 if (script instanceof String) {
-                    compiledScript = (FreeplaneScriptBaseClass) shell.parse((String) script);
+                    compiledScript = (FreeplaneScriptBaseClass) (cachesCompiledClasses ? shell.parseFormula((String) script)
+                            : shell.parse((String) script));
                 } else if (script instanceof File) {
                     compiledScript = (FreeplaneScriptBaseClass) shell.parse((File) script);
                 } else {
@@ -183,6 +183,49 @@ class GroovyShell extends GroovyObjectSupport {
     }
 
 
+    private Class parseAndCacheFormula(final String scriptText) {
+        final CompiledFormulaCache cache = CompiledFormulaCache.getInstance();
+        final String key = CompiledFormulaCache.keyOf(scriptText);
+        final String className = CompiledFormulaCache.classNameOf(key);
+        final File cachedClasses = cache.classesOf(key, scriptText);
+        if (cachedClasses != null) {
+            try {
+                GroovyClassLoader loader = createClassLoader();
+                loader.addURL(ScriptClassLoader.pathToUrl(cachedClasses));
+                Class loadedClass = loader.loadClass(className);
+                cache.classLoaded();
+                return loadedClass;
+            } catch (ClassNotFoundException | LinkageError e) {
+                cache.remove(key);
+            }
+        }
+        File classes = null;
+        try {
+            classes = cache.createClassesDirectory(key);
+            config.setTargetDirectory(classes);
+        } catch (IOException e) {
+            LogUtils.warn(e);
+        }
+        final GroovyCodeSource codeSource = AccessController.doPrivileged(new PrivilegedAction<GroovyCodeSource>() {
+            @Override
+            public GroovyCodeSource run() {
+                return new GroovyCodeSource(scriptText, className + ".groovy", DEFAULT_CODE_BASE);
+            }
+        });
+        final Class parsedClass;
+        try {
+            parsedClass = createClassLoader().parseClass(codeSource, false);
+        } catch (CompilationFailedException e) {
+            if (classes != null)
+                cache.discard(classes);
+            throw e;
+        }
+        if (classes != null)
+            cache.store(key, scriptText, classes);
+        return parsedClass;
+    }
+
+
     private GroovyClassLoader createClassLoader() {
         GroovyClassLoader loader = AccessController.doPrivileged(new PrivilegedAction<GroovyClassLoader>() {
             @Override
@@ -223,6 +266,17 @@ class GroovyShell extends GroovyObjectSupport {
         return parse(scriptText, generateScriptName());
     }
 
+    /**
+     * Parses the text of a formula or a script condition,
+     * loading its classes from {@link CompiledFormulaCache} if it was compiled before.
+     */
+    Script parseFormula(final String scriptText) throws CompilationFailedException {
+        if (CompiledFormulaCache.getInstance().isEnabled())
+            return InvokerHelper.createScript(parseAndCacheFormula(scriptText), binding);
+        else
+            return parse(scriptText);
+    }
+
     private Script parse(final String scriptText, final String fileName) throws CompilationFailedException {
         final GroovyCodeSource gcs = AccessController.doPrivileged(new PrivilegedAction<GroovyCodeSource>() {
             @Override
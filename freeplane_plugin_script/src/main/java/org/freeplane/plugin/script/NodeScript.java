@@ -19,7 +19,16 @@ public class NodeScript {
 		this.script = script;
 	}
 	String format(NodeScript nodeScriptToHighlight) {
-		return (nodeScriptToHighlight.equals(this) ? "* " : "") + node.createID() + " "
+		return (nodeScriptToHighlight.equals(this) ? "* " : "") + format(node.createID());
+	}
+
+	/** Formats the script for logging without assigning an ID to its node. */
+	String format() {
+		return format(node.getID());
+	}
+
+	private String format(String nodeId) {
+		return nodeId + " "
 				+ limitLength(toPlainText(node.getText()), 30) //
 				+ " -> " + limitLength(script, 60);
 	}
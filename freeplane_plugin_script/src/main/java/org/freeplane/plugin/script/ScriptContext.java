@@ -3,6 +3,9 @@ package org.freeplane.plugin.script;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.freeplane.core.util.Compat;
 import org.freeplane.features.attribute.Attribute;
@@ -16,6 +19,10 @@ public class ScriptContext implements AccessedNodes{
 
 	private final RelatedElements relatedElements;
 
+	private Map<NodeModel, Object> nodeProxies;
+
+	private int runDepth;
+
 	public ScriptContext(NodeScript nodeScript) {
 		this.nodeScript = nodeScript;
 		this.relatedElements = nodeScript != null ? new RelatedElements(nodeScript.node) : null;
@@ -102,6 +109,29 @@ public class ScriptContext implements AccessedNodes{
 			FormulaDependencies.accessGlobalNode(nodeScript.node);
 	}
 
+	/**
+	 * Returns the proxy created for the node in this context before, creates it otherwise.
+	 * Proxies are only kept while a script runs in this context,
+	 * because the context can be referenced after the run, e.g. by listeners the script added.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getNodeProxy(final NodeModel node, final Function<NodeModel, T> proxyFactory) {
+		if (runDepth == 0)
+			return proxyFactory.apply(node);
+		if (nodeProxies == null)
+			nodeProxies = new HashMap<>();
+		return (T) nodeProxies.computeIfAbsent(node, proxyFactory);
+	}
+
+	void startRun() {
+		runDepth++;
+	}
+
+	void endRun() {
+		if (--runDepth == 0)
+			nodeProxies = null;
+	}
+
 	public RelatedElements getRelatedElements() {
 		if(nodeScript != null)
 			return relatedElements;
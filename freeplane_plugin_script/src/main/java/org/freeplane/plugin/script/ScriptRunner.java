@@ -53,6 +53,19 @@ public class ScriptRunner {
     }
 
 	public Object execute(final NodeModel node) {
-		return script.execute(node, outStream, errorHandler, scriptContext);
+		return execute(node, scriptContext);
+	}
+
+	/** Executes with the given context instead of the one set, so that a runner can be shared by several threads. */
+	public Object execute(final NodeModel node, ScriptContext scriptContext) {
+		if (scriptContext == null)
+			return script.execute(node, outStream, errorHandler, null);
+		scriptContext.startRun();
+		try {
+			return script.execute(node, outStream, errorHandler, scriptContext);
+		}
+		finally {
+			scriptContext.endRun();
+		}
 	}
 }
@@ -39,10 +39,14 @@ public class ScriptingEngine {
 	// need a File for caching! Scripts from String have to be cached elsewhere
     private static Map<File, IScript> fileScripts = new ConcurrentHashMap<File, IScript>();
     private static ConcurrentCache<ScriptSpecification, IScript> scripts
-    	= new ConcurrentCache(ScriptingEngine::getCompiledScriptCacheSize);
+    	= new ConcurrentCache<>(ScriptingEngine::getCompiledScriptCacheSize, ScriptingEngine::releaseScript);
     private static int getCompiledScriptCacheSize() {
 		return ResourceController.getResourceController().getIntProperty("compiled_script_cache_size");
 	}
+    private static void releaseScript(IScript script) {
+		if (script instanceof GroovyScript)
+			((GroovyScript) script).releaseReusableScripts();
+	}
 	/**
 	 * @param permissions if null use default scripting permissions.
 	 * @return the result of the script, or null, if the user has cancelled.
@@ -127,6 +127,10 @@ public class ScriptingPermissions {
 		return formulaPermissions;
 	}
 
+	boolean isFormulaPermissions() {
+		return this == formulaPermissions;
+	}
+
 	ScriptingSecurityManager getPermissiveScriptingSecurityManager() {
 		return new ScriptingSecurityManager(true, true, true, true);
 	}
@@ -44,12 +44,15 @@ import org.freeplane.core.util.Compat;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
 import org.freeplane.features.filter.FilterController;
+import org.freeplane.features.filter.condition.ICondition;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.mode.mindmapmode.MModeController;
 import org.freeplane.features.script.IScriptEditorStarter;
 import org.freeplane.features.script.IScriptStarter;
+import org.freeplane.features.styles.ConditionPredicate;
+import org.freeplane.features.styles.LogicalStyleController;
 import org.freeplane.main.addons.AddOnInstaller;
 import org.freeplane.main.addons.AddOnsController;
 import org.freeplane.main.application.ApplicationLifecycleListener;
@@ -62,6 +65,7 @@ import org.freeplane.plugin.script.ScriptEditorPanel.ScriptHolder;
 import org.freeplane.plugin.script.addons.ManageAddOnsAction;
 import org.freeplane.plugin.script.addons.ManageAddOnsDialog;
 import org.freeplane.plugin.script.addons.ScriptAddOnProperties;
+import org.freeplane.plugin.script.filter.ScriptCondition;
 import org.freeplane.plugin.script.filter.ScriptConditionController;
 import org.freeplane.plugin.script.help.OpenApiDocumentationAction;
 
@@ -174,6 +178,7 @@ class ScriptingRegistration {
 		new ScriptingConfiguration();
 		ClasspathScriptCompiler scriptCompiler = new ClasspathScriptCompiler();
         scriptCompiler.compileScriptsOnPath(ScriptResources.getClasspath());
+		logCompiledFormulaCacheUsageOnStartup();
 		if(! GraphicsEnvironment.isHeadless()){
 			registerGuiStuff(modeController);
 			createUserScriptsDirectory();
@@ -182,11 +187,23 @@ class ScriptingRegistration {
 		}
 		FilterController.getCurrentFilterController().getConditionFactory().addConditionController(200,
 			new ScriptConditionController());
+		registerUncacheableStyleConditions(modeController);
 		ScriptingPolicy.installRestrictingPolicy();
 		if(System.getSecurityManager() != null)
 			System.setSecurityManager(new InternationalizedSecurityManager());
 	}
 
+	private void registerUncacheableStyleConditions(ModeController modeController) {
+		final LogicalStyleController logicalStyleController = LogicalStyleController.getController(modeController);
+		if (logicalStyleController != null)
+			logicalStyleController.addUncacheableCondition(new ConditionPredicate() {
+				@Override
+				public boolean test(ICondition condition) {
+					return condition instanceof ScriptCondition;
+				}
+			});
+	}
+
 	private void registerGuiStuff(ModeController modeController) {
         addPropertiesToOptionPanel();
         modeController.addAction(new ScriptEditor());
@@ -283,6 +300,22 @@ class ScriptingRegistration {
 		});
 	}
 
+	private void logCompiledFormulaCacheUsageOnStartup() {
+		Controller.getCurrentController().addApplicationLifecycleListener(new ApplicationLifecycleListener() {
+			@Override
+			public void onStartupFinished() {
+				final CompiledFormulaCache cache = CompiledFormulaCache.getInstance();
+				if (cache.isEnabled())
+					LogUtils.info("formula classes on startup: " + cache.getLoadedClassCount()
+					        + " loaded from compiled formula cache, " + cache.getCompiledClassCount() + " compiled");
+			}
+
+			@Override
+			public void onApplicationStopped() {
+			}
+		});
+	}
+
 	private void createUserScriptsDirectory() {
 		createDirIfNotExists(ScriptResources.getUserScriptsDir(), "user scripts");
 	}
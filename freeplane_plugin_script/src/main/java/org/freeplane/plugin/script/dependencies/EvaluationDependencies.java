@@ -1,11 +1,12 @@
 package org.freeplane.plugin.script.dependencies;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.features.map.MapModel;
@@ -31,32 +32,34 @@ public class EvaluationDependencies implements IExtension{
 
 
 	public static EvaluationDependencies of(MapModel map) {
-		EvaluationDependencies dependencies = map.getExtension(EvaluationDependencies.class);
-		if (dependencies == null) {
-			dependencies = new EvaluationDependencies();
-			map.addExtension(dependencies);
+		synchronized (map) {
+			EvaluationDependencies dependencies = map.getExtension(EvaluationDependencies.class);
+			if (dependencies == null) {
+				dependencies = new EvaluationDependencies();
+				map.addExtension(dependencies);
+			}
+			return dependencies;
 		}
-		return dependencies;
 	}
 
 	private final WeakHashMap<MapModel, DependentNodeReferences> onMapDependencies = new WeakHashMap<>();
 
 	private final WeakHashMap<NodeModel, DependentNodeReferences> onNodeDependencies = new WeakHashMap<>();
-	// FIXME: organize node and branch dependencies in a tree?
+	// branch dependencies are keyed by the branch root and found by walking up from the changed node,
+	// so that the lookup costs one map access per ancestor independently of the number of branch dependencies
 	private final WeakHashMap<NodeModel, DependentNodeReferences> onBranchDependencies = new WeakHashMap<>();
 	private final WeakHashMap<NodeModel, Void> onAnyNodeDependencies = new WeakHashMap<>();
 	private final WeakHashMap<NodeModel, Void> onGlobalNodeDependencies = new WeakHashMap<>();
 
-	public void getChangedDependencies(Set<NodeModel> accessingNodes, final NodeModel accessedNode) {
+	public synchronized void getChangedDependencies(Set<NodeModel> accessingNodes, final NodeModel accessedNode) {
 		final Iterable<NodeModel> onNode = onNodeDependencies.get(accessedNode);
 		if (onNode != null)
 			getRecursively(accessingNodes, onNode);
-		ArrayList<Entry<NodeModel, DependentNodeReferences>> onBranchDependencyList = new ArrayList<>(onBranchDependencies.entrySet());
-		for (Entry<NodeModel, DependentNodeReferences> entry : onBranchDependencyList) {
-			final NodeModel branchNode = entry.getKey();
-			if (accessedNode.isDescendantOf(branchNode)) {
-				onBranchDependencies.get(branchNode);
-				getRecursively(accessingNodes, entry.getValue());
+		if (!onBranchDependencies.isEmpty()) {
+			for (NodeModel branchNode = accessedNode.getParentNode(); branchNode != null; branchNode = branchNode.getParentNode()) {
+				final Iterable<NodeModel> onBranch = onBranchDependencies.get(branchNode);
+				if (onBranch != null)
+					getRecursively(accessingNodes, onBranch);
 			}
 		}
 		getRecursively(accessingNodes, onAnyNodeDependencies.keySet());
@@ -64,12 +67,12 @@ public class EvaluationDependencies implements IExtension{
 //		System.out.println("dependencies on(" + node + "): " + accessingNodes);
 	}
 
-	public void getGlobalDependencies(Set<NodeModel> accessingNodes) {
+	public synchronized void getGlobalDependencies(Set<NodeModel> accessingNodes) {
 		getRecursively(accessingNodes, onGlobalNodeDependencies.keySet());
 //		System.out.println("dependencies on(" + node + "): " + accessingNodes);
 	}
 
-	public void removeAndReturnChangedDependencies(Set<NodeModel> accessingNodes, final MapModel accessedMap) {
+	public synchronized void removeAndReturnChangedDependencies(Set<NodeModel> accessingNodes, final MapModel accessedMap) {
 		final Iterable<NodeModel> onMap = onMapDependencies.remove(accessedMap);
 		if (onMap != null)
 			getRecursively(accessingNodes, onMap);
@@ -84,7 +87,7 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** accessedNode was accessed when accessingNode was evaluated. */
-	public void accessNode(NodeModel accessingNode, NodeModel accessedNode) {
+	public synchronized void accessNode(NodeModel accessingNode, NodeModel accessedNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		provideDependencySet(accessedNode, onNodeDependencies).add(accessingNode);
 		addAccessedMap(accessingNode, accessedNode);
@@ -92,7 +95,7 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** accessedNode.children was accessed when accessingNode was evaluated. */
-	public void accessBranch(NodeModel accessingNode, NodeModel accessedNode) {
+	public synchronized void accessBranch(NodeModel accessingNode, NodeModel accessedNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		provideDependencySet(accessedNode, onBranchDependencies).add(accessingNode);
 		addAccessedMap(accessingNode, accessedNode);
@@ -106,13 +109,13 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** a method was used on the accessingNode that may use any node in the map. */
-	public void accessAll(NodeModel accessingNode) {
+	public synchronized void accessAll(NodeModel accessingNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		onAnyNodeDependencies.put(accessingNode, null);
 //		System.out.println(accessingNode + " accesses all nodes. current dependencies:\n" + this);
 	}
 
-	public void accessGlobalNode(NodeModel accessingNode) {
+	public synchronized void accessGlobalNode(NodeModel accessingNode) {
 		onGlobalNodeDependencies.put(accessingNode, null);
 	}
 
@@ -131,8 +134,27 @@ public class EvaluationDependencies implements IExtension{
 		return dependencies != null ? dependencies : Collections.<NodeModel>emptyList();
 	}
 
+	/**
+	 * Passes the recorded accesses to the consumers, the accessed node or branch root first and the accessing node second.
+	 */
+	public synchronized void forEachAccess(final BiConsumer<NodeModel, NodeModel> nodeAccesses,
+	                                       final BiConsumer<NodeModel, NodeModel> branchAccesses,
+	                                       final Consumer<NodeModel> anyNodeAccesses) {
+		forEachAccess(onNodeDependencies, nodeAccesses);
+		forEachAccess(onBranchDependencies, branchAccesses);
+		onAnyNodeDependencies.keySet().forEach(anyNodeAccesses);
+	}
+
+	private void forEachAccess(final WeakHashMap<NodeModel, DependentNodeReferences> dependenciesMap,
+	                           final BiConsumer<NodeModel, NodeModel> accesses) {
+		for (Entry<NodeModel, DependentNodeReferences> entry : dependenciesMap.entrySet()) {
+			for (NodeModel accessingNode : entry.getValue())
+				accesses.accept(entry.getKey(), accessingNode);
+		}
+	}
+
 	@Override
-	public String toString() {
+	public synchronized String toString() {
 		StringBuilder builder = new StringBuilder();
 		for (Entry<NodeModel, DependentNodeReferences> entry : onNodeDependencies.entrySet()) {
 			builder.append("onNode (" + entry.getKey().getText() + "):\n");
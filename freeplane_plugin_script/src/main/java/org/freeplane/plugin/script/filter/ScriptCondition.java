@@ -2,7 +2,7 @@ package org.freeplane.plugin.script.filter;
 
 import java.awt.Dimension;
 import java.awt.KeyboardFocusManager;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.io.PrintStream;
 
 import javax.swing.JComponent;
@@ -25,6 +25,16 @@ public class ScriptCondition extends ASelectableCondition {
 	static final String NAME = "script_condition";
 	static final String TAG_NAME = "script";
 	static final String ATTRIB_NAME = "SCRIPT"; // for backward compatibility
+	// script output of conditions is not shown
+	private static final PrintStream DISCARDING_STREAM = new PrintStream(new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	});
 	final private ScriptRunner scriptRunner;
 	final private String source;
 	private boolean errorReported = false;
@@ -56,19 +66,22 @@ public class ScriptCondition extends ASelectableCondition {
 		super();
 		final ScriptingPermissions formulaPermissions = ScriptingPermissions.getFormulaPermissions();
 		this.source = script;
-		this.scriptRunner = new ScriptRunner(new GroovyScript(script, formulaPermissions));
+		this.scriptRunner = new ScriptRunner(new GroovyScript(script, formulaPermissions)).setOutStream(DISCARDING_STREAM);
 	}
 
 	@Override
     public boolean checkNode(final NodeModel node) {
+		return checkNode(node, null);
+	}
+
+	private boolean checkNode(final NodeModel node, ScriptContext scriptContext) {
 		final Object result;
-        try (final PrintStream printStream = new PrintStream(new ByteArrayOutputStream())){
-			result = scriptRunner.setOutStream(printStream).execute(node);
+        try {
+			result = scriptRunner.execute(node, scriptContext);
 			if(result instanceof Boolean)
 				return (Boolean) result;
 			if(result instanceof Number)
 				return ((Number) result).doubleValue() != 0;
-	        printStream.println(this + ": got '" + result + "' for " + node);
 	        final String info = TextUtils.format(SCRIPT_FILTER_ERROR_RESOURCE, createDescription(),
 	        	node.toString(), String.valueOf(result));
 	        setErrorStatus(info);
@@ -87,14 +100,11 @@ public class ScriptCondition extends ASelectableCondition {
 		final ScriptContext scriptContext = new ScriptContext(nodeScript);
 		if (! FormulaThreadLocalStacks.INSTANCE.push(scriptContext))
 			return false;
-		scriptRunner.setScriptContext(scriptContext);
 		try {
-			final boolean checkNode = checkNode(node);
-			return checkNode;
+			return checkNode(node, scriptContext);
 		}
 		finally {
 			FormulaThreadLocalStacks.INSTANCE.pop();
-			scriptRunner.setScriptContext(null);
 		}
 	}
 
@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
 
 import javax.swing.Icon;
 import javax.swing.filechooser.FileFilter;
@@ -251,6 +252,13 @@ class ControllerProxy implements Proxy.Controller {
 		return ProxyUtils.findAll(currentMapRootNode(), scriptContext, true);
     }
 
+	// NodeRO: R
+	@Override
+	public Stream<Node> findStream(final NodeCondition condition) {
+		reportArbitraryNodeAccess();
+		return ProxyUtils.findStream(condition, currentMapRootNode(), scriptContext);
+	}
+
 	@Override
 	public MindMap newMindMap() {
 		final MMapIO mapIO = MMapIO.getInstance();
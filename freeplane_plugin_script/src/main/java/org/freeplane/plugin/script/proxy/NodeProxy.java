@@ -12,6 +12,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
 
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.codehaus.groovy.runtime.typehandling.NumberMath;
@@ -726,6 +727,22 @@ class NodeProxy extends AbstractProxy<NodeModel> implements Proxy.Node {
 		return ProxyUtils.findAll(delegate, getScriptContext(), true);
     }
 
+	// NodeRO: R
+	@Override
+	public Stream<Node> stream() {
+		final NodeModel delegate = getDelegate();
+		reportBranchAccess(delegate);
+		return ProxyUtils.stream(delegate, getScriptContext());
+	}
+
+	// NodeRO: R
+	@Override
+	public Stream<Node> findStream(final NodeCondition condition) {
+		final NodeModel delegate = getDelegate();
+		reportBranchAccess(delegate);
+		return ProxyUtils.findStream(condition, delegate, getScriptContext());
+	}
+
 	// NodeRO: R
 	@Override
 	public Date getLastModifiedAt() {
@@ -38,7 +38,7 @@ public class ProxyUtils {
 			@Override
 			public Node get(final int index) {
 				final NodeModel nodeModel = nodeModels.get(index);
-				return new NodeProxy(nodeModel, scriptContext);
+				return createNodeProxy(nodeModel, scriptContext);
 			}
 
 			@Override
@@ -48,6 +48,21 @@ public class ProxyUtils {
 		};
 	}
 
+	/** proxies are reused within a script context, e.g. for the condition check and the found node. */
+	static Proxy.Node createNodeProxy(final NodeModel nodeModel, final ScriptContext scriptContext) {
+		if (scriptContext == null)
+			return new NodeProxy(nodeModel, null);
+		return scriptContext.getNodeProxy(nodeModel, n -> new NodeProxy(n, scriptContext));
+	}
+
+	static Stream<Node> stream(final NodeModel node, final ScriptContext scriptContext) {
+		return NodeStream.of(node).map(n -> createNodeProxy(n, scriptContext));
+	}
+
+	static Stream<Node> findStream(final NodeCondition condition, final NodeModel node, final ScriptContext scriptContext) {
+		return stream(node, scriptContext).filter(condition::check);
+	}
+
 	static List<? extends Node> find(final ICondition condition, final NodeModel node, final ScriptContext scriptContext) {
 		return ProxyUtils.createNodeList(ProxyUtils.findImpl(condition, node, false), scriptContext);
 	}
@@ -68,8 +83,7 @@ public class ProxyUtils {
 											 NodeModel node, ScriptContext scriptContext) {
 		final Filter filter = Filter.createFilter(createCondition, withAncestors, withDescendants, null);
 		filter.calculateFilterResults(node);
-		final List<NodeModel> allNodes = ProxyUtils.findImpl(null, node, false);
-		return ProxyUtils.createNodeList(allNodes.stream().filter(filter::isVisible)
+		return ProxyUtils.createNodeList(NodeStream.of(node).filter(filter::isVisible)
 			.collect(Collectors.toList()), scriptContext);
 	}
 
@@ -83,7 +97,7 @@ public class ProxyUtils {
             final ScriptContext scriptContext, final NodeModel node) {
         try {
             final Boolean result = closure
-                .call(new Object[] { new NodeProxy(node, scriptContext) });
+                .call(new Object[] { createNodeProxy(node, scriptContext) });
             if (result == null) {
                 throw new RuntimeException("find(): closure returned null instead of boolean/Boolean");
             }
@@ -105,7 +119,7 @@ public class ProxyUtils {
 
 	static ICondition createCondition(final NodeCondition condition, final ScriptContext scriptContext) {
 		final ICondition filterCondition = condition == null ? null : 
-		    new DelegateCondition(node -> condition.check(new NodeProxy(node, scriptContext)), "Code"); 
+		    new DelegateCondition(node -> condition.check(createNodeProxy(node, scriptContext)), "Code"); 
 		return filterCondition;
     }
 	/** finds from any node downwards.
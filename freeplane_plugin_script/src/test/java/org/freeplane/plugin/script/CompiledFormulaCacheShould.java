@@ -0,0 +1,95 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompiledFormulaCacheShould {
+	private File directory;
+
+	@Before
+	public void createDirectory() throws Exception {
+		directory = Files.createTempDirectory("compiledformulas").toFile();
+	}
+
+	@After
+	public void deleteDirectory() throws Exception {
+		FileUtils.deleteDirectory(directory);
+	}
+
+	private static Properties stamp(String version) {
+		final Properties stamp = new Properties();
+		stamp.setProperty("freeplane", version);
+		return stamp;
+	}
+
+	private static void storeCompiledClass(CompiledFormulaCache cache, String script) throws Exception {
+		final String key = CompiledFormulaCache.keyOf(script);
+		final File classes = cache.createClassesDirectory(key);
+		new File(classes, CompiledFormulaCache.classNameOf(key) + ".class").createNewFile();
+		cache.store(key, script, classes);
+	}
+
+	@Test
+	public void returnClassesOfStoredScript() throws Exception {
+		final CompiledFormulaCache cache = new CompiledFormulaCache(directory, stamp("1"), 10);
+		storeCompiledClass(cache, "1 + 1");
+		final File classes = cache.classesOf(CompiledFormulaCache.keyOf("1 + 1"), "1 + 1");
+		assertThat(classes).isDirectory();
+		assertThat(classes.list()).containsExactly(CompiledFormulaCache.classNameOf(CompiledFormulaCache.keyOf("1 + 1")) + ".class");
+		assertThat(cache.getCompiledClassCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void notReturnClassesOfOtherScriptWithSameKey() throws Exception {
+		final CompiledFormulaCache cache = new CompiledFormulaCache(directory, stamp("1"), 10);
+		storeCompiledClass(cache, "1 + 1");
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("1 + 1"), "1 + 2")).isNull();
+	}
+
+	@Test
+	public void keepClassesForSameStamp() throws Exception {
+		storeCompiledClass(new CompiledFormulaCache(directory, stamp("1"), 10), "1 + 1");
+		final CompiledFormulaCache cache = new CompiledFormulaCache(directory, stamp("1"), 10);
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("1 + 1"), "1 + 1")).isNotNull();
+	}
+
+	@Test
+	public void removeClassesOnStampChange() throws Exception {
+		storeCompiledClass(new CompiledFormulaCache(directory, stamp("1"), 10), "1 + 1");
+		final CompiledFormulaCache cache = new CompiledFormulaCache(directory, stamp("2"), 10);
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("1 + 1"), "1 + 1")).isNull();
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedClassesOnStart() throws Exception {
+		final CompiledFormulaCache oldCache = new CompiledFormulaCache(directory, stamp("1"), 10);
+		storeCompiledClass(oldCache, "1");
+		storeCompiledClass(oldCache, "2");
+		storeCompiledClass(oldCache, "3");
+		new File(new File(directory, CompiledFormulaCache.keyOf("2")), "compiled.properties").setLastModified(0);
+		final CompiledFormulaCache cache = new CompiledFormulaCache(directory, stamp("1"), 2);
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("2"), "2")).isNull();
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("1"), "1")).isNotNull();
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("3"), "3")).isNotNull();
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedClassesOnStore() throws Exception {
+		final CompiledFormulaCache cache = new CompiledFormulaCache(directory, stamp("1"), 2);
+		storeCompiledClass(cache, "1");
+		storeCompiledClass(cache, "2");
+		new File(new File(directory, CompiledFormulaCache.keyOf("1")), "compiled.properties").setLastModified(0);
+		storeCompiledClass(cache, "3");
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("1"), "1")).isNull();
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("2"), "2")).isNotNull();
+		assertThat(cache.classesOf(CompiledFormulaCache.keyOf("3"), "3")).isNotNull();
+	}
+}
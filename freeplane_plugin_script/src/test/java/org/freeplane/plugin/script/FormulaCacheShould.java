@@ -0,0 +1,57 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class FormulaCacheShould {
+	private static CachedResult result(Object value) {
+		return new CachedResult(value, null);
+	}
+
+	@Test
+	public void countHitsAndMisses() throws Exception {
+		final FormulaCache cache = new FormulaCache(100);
+		final NodeScript nodeScript = new NodeScript(new NodeModel("node", null), "1 + 1");
+		assertThat(cache.getOrThrowCachedResult(nodeScript)).isNull();
+		cache.put(nodeScript, result(2));
+		assertThat(cache.getOrThrowCachedResult(nodeScript)).isEqualTo(2);
+		final FormulaCache.Statistics statistics = cache.getStatistics();
+		assertThat(statistics.hits).isEqualTo(1);
+		assertThat(statistics.misses).isEqualTo(1);
+		assertThat(statistics.size).isEqualTo(1);
+	}
+
+	@Test
+	public void keyResultsByNodeIdentity() throws Exception {
+		final FormulaCache cache = new FormulaCache(100);
+		// nodes without IDs
+		final NodeModel node = new NodeModel("node", null);
+		final NodeModel otherNode = new NodeModel("other node", null);
+		cache.put(new NodeScript(node, "1"), result(1));
+		assertThat(cache.getOrThrowCachedResult(new NodeScript(otherNode, "1"))).isNull();
+	}
+
+	@Test
+	public void evictResultsAboveMaximumSize() throws Exception {
+		final FormulaCache cache = new FormulaCache(16);
+		for (int i = 0; i < 100; i++) {
+			final NodeModel node = new NodeModel("node " + i, null);
+			cache.put(new NodeScript(node, "1"), result(1));
+		}
+		final FormulaCache.Statistics statistics = cache.getStatistics();
+		assertThat(statistics.size).isLessThanOrEqualTo(16);
+		assertThat(statistics.size + statistics.evictions).isEqualTo(100);
+	}
+
+	@Test
+	public void keepAllResultsOfLastUsedNode() throws Exception {
+		final FormulaCache cache = new FormulaCache(1);
+		final NodeModel node = new NodeModel("node", null);
+		cache.put(new NodeScript(node, "1"), result(1));
+		cache.put(new NodeScript(node, "2"), result(2));
+		assertThat(cache.getOrThrowCachedResult(new NodeScript(node, "1"))).isEqualTo(1);
+		assertThat(cache.getOrThrowCachedResult(new NodeScript(node, "2"))).isEqualTo(2);
+	}
+}
@@ -0,0 +1,46 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.freeplane.features.map.NodeModel;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScriptContextShould {
+	private final ScriptContext scriptContext = new ScriptContext(null);
+
+	@Before
+	public void startRun() {
+		scriptContext.startRun();
+	}
+
+	@Test
+	public void reuseProxyCreatedForSameNode() throws Exception {
+		final NodeModel node = new NodeModel("node", null);
+		final Object proxy = scriptContext.getNodeProxy(node, n -> new Object());
+		assertThat(scriptContext.getNodeProxy(node, n -> new Object())).isSameAs(proxy);
+	}
+
+	@Test
+	public void createProxiesForDifferentNodes() throws Exception {
+		final Object proxy = scriptContext.getNodeProxy(new NodeModel("first", null), n -> new Object());
+		assertThat(scriptContext.getNodeProxy(new NodeModel("second", null), n -> new Object())).isNotSameAs(proxy);
+	}
+
+	@Test
+	public void releaseProxiesAfterRun() throws Exception {
+		final NodeModel node = new NodeModel("node", null);
+		final Object proxy = scriptContext.getNodeProxy(node, n -> new Object());
+		scriptContext.endRun();
+		assertThat(scriptContext.getNodeProxy(node, n -> new Object())).isNotSameAs(proxy);
+	}
+
+	@Test
+	public void keepProxiesUntilOutermostRunEnds() throws Exception {
+		final NodeModel node = new NodeModel("node", null);
+		scriptContext.startRun();
+		final Object proxy = scriptContext.getNodeProxy(node, n -> new Object());
+		scriptContext.endRun();
+		assertThat(scriptContext.getNodeProxy(node, n -> new Object())).isSameAs(proxy);
+	}
+}
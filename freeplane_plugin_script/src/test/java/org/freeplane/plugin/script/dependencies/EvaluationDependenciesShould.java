@@ -0,0 +1,77 @@
+package org.freeplane.plugin.script.dependencies;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.freeplane.features.map.NodeModel;
+import org.junit.Test;
+
+public class EvaluationDependenciesShould {
+	private final EvaluationDependencies dependencies = new EvaluationDependencies();
+
+	private NodeModel node(String text) {
+		return new NodeModel(text, null);
+	}
+
+	private NodeModel child(NodeModel parent, String text) {
+		final NodeModel child = node(text);
+		parent.insert(child);
+		return child;
+	}
+
+	private Set<NodeModel> changedDependencies(NodeModel changedNode) {
+		final Set<NodeModel> accessingNodes = new LinkedHashSet<>();
+		dependencies.getChangedDependencies(accessingNodes, changedNode);
+		return accessingNodes;
+	}
+
+	@Test
+	public void findFormulaAccessingBranchOfAncestor() throws Exception {
+		final NodeModel root = node("root");
+		final NodeModel branch = child(root, "branch");
+		final NodeModel leaf = child(child(branch, "child"), "leaf");
+		final NodeModel formula = child(root, "formula");
+		dependencies.accessBranch(formula, branch);
+		assertThat(changedDependencies(leaf)).containsExactly(formula);
+	}
+
+	@Test
+	public void ignoreFormulaAccessingBranchOfChangedNodeItself() throws Exception {
+		final NodeModel root = node("root");
+		final NodeModel branch = child(root, "branch");
+		final NodeModel formula = child(root, "formula");
+		dependencies.accessBranch(formula, branch);
+		assertThat(changedDependencies(branch)).isEmpty();
+	}
+
+	@Test
+	public void findFormulasDependingOnFoundFormulas() throws Exception {
+		final NodeModel root = node("root");
+		final NodeModel branch = child(root, "branch");
+		final NodeModel leaf = child(branch, "leaf");
+		final NodeModel sum = child(root, "sum");
+		final NodeModel total = child(root, "total");
+		dependencies.accessBranch(sum, branch);
+		dependencies.accessNode(total, sum);
+		assertThat(changedDependencies(leaf)).containsExactly(sum, total);
+	}
+
+	@Test
+	public void findOnlyFormulasOfAncestorBranchesAmongManyBranches() throws Exception {
+		final NodeModel root = node("root");
+		final List<NodeModel> leaves = new ArrayList<>();
+		final List<NodeModel> formulas = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			final NodeModel branch = child(root, "branch " + i);
+			leaves.add(child(branch, "leaf " + i));
+			final NodeModel formula = child(branch, "=node.parent.children.sum(0){it.to.num0}");
+			dependencies.accessBranch(formula, branch);
+			formulas.add(formula);
+		}
+		assertThat(changedDependencies(leaves.get(4321))).containsExactly(formulas.get(4321));
+	}
+}